@@ -0,0 +1,46 @@
+package com.example.pokerv2.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 기준 벤치마크. 게임 코드를 쓰지 않고 고정된 정수 연산만 한다.
+ * <p>
+ * jmhRegressionCheck 는 같은 실행에서 잰 이 벤치마크와 baseline 의 비율로 baseline 점수를 이 머신의 점수로 환산해서 비교한다.
+ * 그래서 baseline 을 기록한 머신과 다른 머신에서도 머신 속도 차이만큼은 회귀로 잡히지 않는다.
+ * 코드를 바꾸면 기존 baseline 과 비교할 수 없으므로 바꾸지 않는다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CalibrationBenchmark {
+
+    private static final long SEED = 20240229L;
+    private static final int SIZE = 256;
+
+    private long[] values;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        values = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public long mix() {
+        long h = 0;
+        for (long value : values) {
+            h ^= value;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+        }
+        return h;
+    }
+}
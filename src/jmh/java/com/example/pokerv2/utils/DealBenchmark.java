@@ -0,0 +1,64 @@
+package com.example.pokerv2.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/20 chan
+ * <p>
+ * 카드 딜링 벤치마크.
+ * <p>
+ * hashSetRejection 은 BoardService.dealCard 와 같은 방식(HashSet 에 중복이 없을 때까지 뽑기)이다.
+ * dealCard 는 private 이므로 같은 로직을 시드를 고정한 Random 으로 옮겨서 측정한다.
+ * <p>
+ * 24/02/21 chan
+ * deck 은 BoardService.dealCard 가 지금 쓰는 Deck(부분 Fisher-Yates) 이다. 같은 시드의 SplittableRandom 을 쓴다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DealBenchmark {
+
+    private static final long SEED = 20240220L;
+
+    @Param({"2", "6"})
+    public int playerSize;
+
+    private Random random;
+    private Deck deck;
+    private int[] dealt;
+
+    @Setup
+    public void setUp() {
+        random = new Random(SEED);
+        deck = Deck.seeded(SEED);
+        dealt = new int[playerSize * 2 + 5];
+    }
+
+    @Benchmark
+    public List<Integer> hashSetRejection() {
+        Set<Integer> cards = new HashSet<>();
+        int cardSize = playerSize * 2 + 5;
+
+        while (cards.size() < cardSize) {
+            cards.add(random.nextInt(52));
+        }
+
+        return new ArrayList<>(cards);
+    }
+
+    @Benchmark
+    public int[] deck() {
+        deck.reset();
+        for (int i = 0; i < dealt.length; i++) {
+            dealt[i] = deck.deal();
+        }
+        return dealt;
+    }
+}
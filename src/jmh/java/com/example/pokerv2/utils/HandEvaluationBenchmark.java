@@ -0,0 +1,99 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.GameResultDto;
+import com.example.pokerv2.enums.HandValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/20 chan
+ * <p>
+ * 족보별 7장 핸드 평가 벤치마크.
+ * <p>
+ * 고정된 시드로 랜덤 핸드를 뽑아서 족보별로 HAND_SIZE 개씩 모은다.
+ * 로티플처럼 드문 족보는 모인 만큼만 돌아가며 쓴다.
+ * calculateValue 는 족보 카드 선택까지 포함한 쇼다운 경로, evaluate 는 밸류만 계산하는 경로다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandEvaluationBenchmark {
+
+    private static final long SEED = 20240220L;
+    private static final int HAND_SIZE = 1024;
+    private static final int MAX_SAMPLE = 3000000;
+
+    @Param({"HIGH_CARD", "ONE_PAIR", "TWO_PAIR", "THREE_OF_A_KIND", "STRAIGHT", "FLUSH",
+            "FULL_HOUSE", "FOUR_OF_A_KIND", "STRAIGHT_FLUSH", "ROYAL_STRAIGHT_FLUSH"})
+    public HandValue handValue;
+
+    private List<List<Integer>> handLists;
+    private long[] cardSets;
+    private int idx;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long category = category(handValue);
+        List<Long> found = new ArrayList<>();
+
+        for (int n = 0; n < MAX_SAMPLE && found.size() < HAND_SIZE; n++) {
+            long cardSet = randomHand(random);
+            if (HandEvaluatorUtils.evaluate(cardSet) / HandEvaluatorUtils.CATEGORY_DIVIDER == category) {
+                found.add(cardSet);
+            }
+        }
+
+        if (found.isEmpty()) {
+            throw new IllegalStateException("No hand found for " + handValue);
+        }
+
+        cardSets = new long[found.size()];
+        handLists = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            cardSets[i] = found.get(i);
+            handLists.add(CardSet.toList(found.get(i)));
+        }
+    }
+
+    @Benchmark
+    public GameResultDto calculateValue() {
+        List<Integer> cards = handLists.get(idx);
+        idx = (idx + 1) % handLists.size();
+        return HandCalculatorUtils.calculateValue(cards);
+    }
+
+    @Benchmark
+    public long evaluate() {
+        long cardSet = cardSets[idx];
+        idx = (idx + 1) % cardSets.length;
+        return HandEvaluatorUtils.evaluate(cardSet);
+    }
+
+    private static long randomHand(SplittableRandom random) {
+        long cardSet = CardSet.EMPTY;
+        while (CardSet.size(cardSet) < 7) {
+            cardSet = CardSet.add(cardSet, random.nextInt(52));
+        }
+        return cardSet;
+    }
+
+    private static long category(HandValue handValue) {
+        return switch (handValue) {
+            case ROYAL_STRAIGHT_FLUSH -> 9;
+            case STRAIGHT_FLUSH -> 8;
+            case FOUR_OF_A_KIND -> 7;
+            case FULL_HOUSE -> 6;
+            case FLUSH -> 5;
+            case STRAIGHT -> 4;
+            case THREE_OF_A_KIND -> 3;
+            case TWO_PAIR -> 2;
+            case ONE_PAIR -> 1;
+            case HIGH_CARD -> 0;
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.GameResultDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.PotResultDto;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/20 chan
+ * <p>
+ * 쇼다운 팟 분배 벤치마크.
+ * <p>
+ * PotDistributorUtils.calculate 는 BoardDto 를 변경하므로 매번 복사본으로 계산한다.
+ * 복사 비용은 copyOnly 로 따로 측정한다.
+ * <p>
+ * 24/02/22 chan
+ * distribute 는 BoardDto 를 바꾸지 않으므로 복사 없이 측정한다.
+ * <p>
+ * shape
+ * NO_SIDE_POT : 모두 같은 금액을 베팅하고 승자가 한명
+ * SHORT_ALL_IN : 가장 강한 핸드가 가장 적게 베팅한 올인 플레이어
+ * LAYERED_ALL_IN : 플레이어마다 베팅 금액이 다르고 핸드가 셀수록 적게 베팅 (사이드팟이 플레이어 수만큼)
+ * SPLIT : 두 플레이어가 같은 핸드로 팟을 나눔
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PotDistributionBenchmark {
+
+    private static final long SEED = 20240220L;
+    private static final int BOARD_SIZE = 256;
+
+    @Param({"2", "3", "4", "5", "6"})
+    public int playerSize;
+
+    @Param({"NO_SIDE_POT", "SHORT_ALL_IN", "LAYERED_ALL_IN", "SPLIT"})
+    public String shape;
+
+    private BoardDto[] boards;
+    private int idx;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        boards = new BoardDto[BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            boards[i] = createBoard(random);
+        }
+    }
+
+    @Benchmark
+    public BoardDto calculate() {
+        BoardDto boardDto = copy(boards[idx]);
+        idx = (idx + 1) % boards.length;
+        PotDistributorUtils.calculate(boardDto);
+        return boardDto;
+    }
+
+    @Benchmark
+    public PotResultDto distribute() {
+        BoardDto boardDto = boards[idx];
+        idx = (idx + 1) % boards.length;
+        return PotDistributorUtils.distribute(boardDto);
+    }
+
+    @Benchmark
+    public BoardDto copyOnly() {
+        BoardDto boardDto = copy(boards[idx]);
+        idx = (idx + 1) % boards.length;
+        return boardDto;
+    }
+
+    private BoardDto createBoard(SplittableRandom random) {
+        int blind = 1000;
+        List<PlayerDto> players = new ArrayList<>();
+        List<Integer> totalCallSize = new ArrayList<>();
+        int pot = 0;
+
+        for (int i = 0; i < playerSize; i++) {
+            int callSize;
+            long handValue = 10000000000L + random.nextInt(1, 1000000);
+            switch (shape) {
+                case "SHORT_ALL_IN" -> {
+                    callSize = i == 0 ? blind * 10 : blind * 50;
+                    handValue = i == 0 ? 90000000000L : handValue;
+                }
+                case "LAYERED_ALL_IN" -> {
+                    callSize = blind * 10 * (i + 1);
+                    handValue = 80000000000L - i;
+                }
+                case "SPLIT" -> {
+                    callSize = blind * 50;
+                    handValue = i < 2 ? 70000000000L : handValue;
+                }
+                default -> {
+                    callSize = blind * 50;
+                    handValue = i == 0 ? 90000000000L : handValue;
+                }
+            }
+
+            PlayerDto player = new PlayerDto();
+            player.setId((long) i + 1);
+            player.setUserId((long) i + 1);
+            player.setPlayerName(String.valueOf(i + 1));
+            player.setBoardId(1L);
+            player.setPosition(i);
+            player.setStatus(PlayerStatus.PLAY.getStatusNum());
+            player.setGameResult(GameResultDto.builder().handValue(handValue).build());
+            players.add(player);
+            totalCallSize.add(callSize);
+            pot += callSize;
+        }
+
+        BoardDto boardDto = new BoardDto();
+        boardDto.setId(1L);
+        boardDto.setBlind(blind);
+        boardDto.setTotalPlayer(playerSize);
+        boardDto.setPhaseStatus(PhaseStatus.SHOWDOWN.ordinal());
+        boardDto.setPot(pot);
+        boardDto.setPlayers(players);
+        boardDto.setTotalCallSize(totalCallSize);
+        return boardDto;
+    }
+
+    private static BoardDto copy(BoardDto source) {
+        BoardDto boardDto = new BoardDto(source);
+        for (PlayerDto player : boardDto.getPlayers()) {
+            player.setGameResult(GameResultDto.builder().handValue(player.getGameResult().getHandValue()).build());
+        }
+        return boardDto;
+    }
+}
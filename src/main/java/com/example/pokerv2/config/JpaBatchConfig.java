@@ -0,0 +1,32 @@
+package com.example.pokerv2.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * Hibernate JDBC 배치 설정.
+ * 같은 트랜잭션에서 저장하는 Action, HandHistory 의 컬렉션 같은 행들을 insert 문 하나의 배치로 보낸다.
+ * id 를 시퀀스에서 allocationSize 만큼 미리 받아두므로(pooled) insert 전에 id 를 조회하지 않는다.
+ * <p>
+ * MySQL 에서 배치를 한번에 보내려면 JDBC URL 에 rewriteBatchedStatements=true 를 넣어야 한다.
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    @Value("${poker.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -3,9 +3,14 @@ package com.example.pokerv2.config;
 import com.example.pokerv2.stomp.StompErrorHandler;
 import com.example.pokerv2.stomp.StompHandler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -15,23 +20,109 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @RequiredArgsConstructor
 public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
 
+    /**
+     * 24/02/29 chan
+     * relay 모드에서 노드끼리 쓰는 토픽. 다른 유저의 개인 메시지(홀카드, MATCHED)와 유저 세션 목록이 지나가므로
+     * StompHandler 가 클라이언트의 구독을 막는다.
+     */
+    public static final String USER_DESTINATION_BROADCAST = "/topic/poker.unresolved-user";
+    public static final String USER_REGISTRY_BROADCAST = "/topic/poker.user-registry";
+
     private final StompHandler stompHandler;
     private final StompErrorHandler stompErrorHandler;
+
+    /**
+     * 24/02/17 chan
+     * spring.threads.virtual.enabled=true 이면 inbound/outbound 채널도 가상 스레드에서 처리한다. (Java 21 이상)
+     * 채널 스레드 수가 많아지므로 세션별 메시지 순서를 보장하도록 preserve order 를 켠다.
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${poker.stomp.virtual-thread-limit:10000}")
+    private int virtualThreadLimit;
+
+    /**
+     * 24/02/29 chan
+     * poker.stomp.relay.enabled=true 이면 구독을 JVM 메모리의 simple broker 대신 외부 STOMP 브로커(RabbitMQ, ActiveMQ 등)에 둔다.
+     * 어느 노드에 연결한 클라이언트라도 /topic/board/{id} 를 받고, /user 목적지는 브로커로 다른 노드에 전달된다.
+     * 보드 이벤트를 owner 노드로 보내는 것은 TableRouter, TableRelay 가 한다.
+     */
+    @Value("${poker.stomp.relay.enabled:false}")
+    private boolean relayEnabled;
+    @Value("${poker.stomp.relay.host:localhost}")
+    private String relayHost;
+    @Value("${poker.stomp.relay.port:61613}")
+    private int relayPort;
+    @Value("${poker.stomp.relay.client-login:guest}")
+    private String clientLogin;
+    @Value("${poker.stomp.relay.client-passcode:guest}")
+    private String clientPasscode;
+    @Value("${poker.stomp.relay.system-login:guest}")
+    private String systemLogin;
+    @Value("${poker.stomp.relay.system-passcode:guest}")
+    private String systemPasscode;
+    @Value("${poker.stomp.relay.virtual-host:}")
+    private String virtualHost;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/pub");
-        registry.enableSimpleBroker("/topic", "/queue");
+        if (relayEnabled) {
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                    .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+            if (StringUtils.hasText(virtualHost)) {
+                relay.setVirtualHost(virtualHost);
+            }
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
+        if (virtualThreads) {
+            registry.setPreservePublishOrder(true);
+        }
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
         registry.setErrorHandler(stompErrorHandler);
+        if (virtualThreads) {
+            registry.setPreserveReceiveOrder(true);
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(stompHandler);
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadChannelExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadChannelExecutor("stomp-outbound-"));
+        }
+    }
 
+    /**
+     * ChannelRegistration 은 ThreadPoolTaskExecutor 만 받으므로, 가상 스레드 팩토리를 쓰는 큰 풀로 만든다.
+     * 쉬는 스레드는 바로 정리되므로 사실상 메시지마다 가상 스레드를 하나씩 쓴다.
+     */
+    private ThreadPoolTaskExecutor virtualThreadChannelExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(virtualThreadLimit);
+        executor.setMaxPoolSize(virtualThreadLimit);
+        executor.setKeepAliveSeconds(1);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
     }
 }
@@ -1,8 +1,15 @@
 package com.example.pokerv2.controller;
 
 import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.BoardSnapshotDto;
+import com.example.pokerv2.dto.EquityRequestDto;
+import com.example.pokerv2.dto.EquityResultDto;
+import com.example.pokerv2.dto.LobbyBoardDto;
 import com.example.pokerv2.service.BoardService;
+import com.example.pokerv2.service.EquityService;
+import com.example.pokerv2.service.LobbyService;
 import com.example.pokerv2.service.handleService.GameHandleService;
+import com.example.pokerv2.service.handleService.MatchmakingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -23,17 +31,20 @@ public class BoardController {
 
     private final BoardService boardService;
     private final GameHandleService gameHandleService;
+    private final EquityService equityService;
+    private final LobbyService lobbyService;
+    private final MatchmakingService matchmakingService;
 
     @GetMapping("/context")
     @Operation(summary = "게임 문맥데이터 조회", description = "게임 플레이 중에 연결이 끊겼을 경우, 재 로그인 시 문맥데이터 반환")
     public List<BoardDto> getContext(Principal principal) {
-        return boardService.getContext(principal);
+        return gameHandleService.getContext(principal);
     }
 
     @PostMapping("/joinGame")
-    @Operation(summary = "게임 입장", description = "빠른 게임 입장")
-    public BoardDto joinGame(@RequestParam int blind, @RequestParam int bb, Principal principal) {
-        return gameHandleService.joinRandomBoard(blind, bb, principal);
+    @Operation(summary = "게임 입장", description = "빠른 게임 입장. poker.matchmaking.enabled=true 이면 매치메이킹 큐에서 앉으면 응답하고, /user/queue/match 로도 보드를 보낸다")
+    public CompletableFuture<BoardDto> joinGame(@RequestParam int blind, @RequestParam int bb, Principal principal) {
+        return matchmakingService.join(blind, bb, principal);
     }
 
     @PostMapping("/joinGame/{boardId}")
@@ -43,15 +54,33 @@ public class BoardController {
     }
 
     @GetMapping("/search/{blind}")
-    @Operation(summary = "Blind로 나눠진 게임 리스트 조회")
+    @Operation(summary = "Blind로 나눠진 게임 리스트 조회", description = "플레이어까지 담은 전체 보드. 로비 목록은 /lobby/{blind} 를 사용")
     public List<BoardDto> getBoardList(@PathVariable int blind) {
         return boardService.getBoardList(blind);
     }
 
+    @GetMapping("/lobby/{blind}")
+    @Operation(summary = "로비 게임 리스트 조회", description = "Blind 별 보드의 좌석 수, 페이즈, 평균 팟. 이후 변경분은 /topic/lobby/{blind} 로 받는다")
+    public List<LobbyBoardDto> getLobby(@PathVariable int blind) {
+        return lobbyService.getBoardList(blind);
+    }
+
     @GetMapping("/{boardId}")
     @Operation(summary = "단건 게임 조회")
     public BoardDto get(@PathVariable Long boardId, Principal principal) {
-        return boardService.get(boardId, principal);
+        return gameHandleService.get(boardId, principal);
+    }
+
+    @GetMapping("/{boardId}/snapshot")
+    @Operation(summary = "게임 스냅샷 조회", description = "변경분 메시지의 seq 가 이어지지 않을 때 마지막으로 보낸 보드 전체 상태와 seq 를 반환")
+    public BoardSnapshotDto getSnapshot(@PathVariable Long boardId, Principal principal) {
+        return gameHandleService.getSnapshot(boardId, principal);
+    }
+
+    @PostMapping("/equity")
+    @Operation(summary = "에퀴티 계산", description = "2~6명의 홀카드와 공개된 커뮤니티 카드로 승률, 무승부 확률, 에퀴티를 계산")
+    public EquityResultDto calculateEquity(@RequestBody EquityRequestDto request) {
+        return equityService.calculate(request);
     }
 
     @MessageMapping("/board/exit")
@@ -1,12 +1,14 @@
 package com.example.pokerv2.controller;
 
 import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.HandHistoryPageDto;
 import com.example.pokerv2.service.HandHistoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
@@ -25,4 +27,11 @@ public class HandHistoryController {
     public List<HandHistoryDto> get(Principal principal) {
         return handHistoryService.get(principal.getName());
     }
+
+    @GetMapping("/page")
+    @Operation(summary = "핸드 히스토리 페이지 조회", description = "최신 핸드부터 size 개씩 조회한다. 다음 페이지는 응답의 nextCursor 를 cursor 로 넘긴다.")
+    public HandHistoryPageDto getPage(@RequestParam(required = false) Long cursor,
+                                      @RequestParam(defaultValue = "20") int size, Principal principal) {
+        return handHistoryService.getPage(principal.getName(), cursor, size);
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.pokerv2.controller;
 
+import com.example.pokerv2.dto.HudCacheStatsDto;
 import com.example.pokerv2.dto.HudDto;
 import com.example.pokerv2.service.HudService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,4 +32,10 @@ public class HudController {
     public HudDto get(Principal principal) {
         return hudService.get(principal.getName());
     }
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Hud 캐시 적중/미스 통계 조회")
+    public HudCacheStatsDto getCacheStats() {
+        return hudService.getCacheStats();
+    }
 }
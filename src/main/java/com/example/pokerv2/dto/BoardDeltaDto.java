@@ -0,0 +1,57 @@
+package com.example.pokerv2.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 24/02/18 chan
+ * <p>
+ * 이전 메시지(seq - 1) 이후 바뀐 필드만 담은 보드 변경분. 바뀌지 않은 필드는 null 이라 직렬화되지 않는다.
+ * 클라이언트는 seq 가 마지막으로 받은 seq + 1 이 아니면 스냅샷을 다시 받아야 한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BoardDeltaDto {
+
+    private Long id;
+    private long seq;
+    private Integer totalPlayer;
+    private Integer btn;
+    private Integer pot;
+    private Integer bettingPos;
+    private Integer actionPos;
+    private Integer phaseStatus;
+    private Integer bettingSize;
+    private Integer communityCard1;
+    private Integer communityCard2;
+    private Integer communityCard3;
+    private Integer communityCard4;
+    private Integer communityCard5;
+    private Long gameSeq;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss", timezone = "Asia/Seoul")
+    private LocalDateTime lastActionTime;
+    private List<Integer> totalCallSize;
+    private List<PlayerDeltaDto> players = new ArrayList<>();
+    private List<Long> removedPlayers = new ArrayList<>();
+
+    public BoardDeltaDto(Long id, long seq) {
+        this.id = id;
+        this.seq = seq;
+    }
+
+    public boolean isEmpty() {
+        return totalPlayer == null && btn == null && pot == null && bettingPos == null && actionPos == null
+                && phaseStatus == null && bettingSize == null && communityCard1 == null && communityCard2 == null
+                && communityCard3 == null && communityCard4 == null && communityCard5 == null && gameSeq == null
+                && lastActionTime == null && totalCallSize == null && players.isEmpty() && removedPlayers.isEmpty();
+    }
+}
@@ -35,8 +35,18 @@ public class BoardDto {
     private LocalDateTime lastActionTime;
     private List<Integer> totalCallSize;
     private List<PlayerDto> players;
+    // 24/02/22 chan 쇼다운 팟 분배 결과. 쇼다운 전에는 null
+    private PotResultDto potResult;
 
     public BoardDto(Board board) {
+        this(board, toPlayerDtoList(board.getPlayers()));
+    }
+
+    /**
+     * 24/02/29 chan
+     * 플레이어를 projection 으로 읽은 경우. board.getPlayers() 를 읽지 않는다.
+     */
+    public BoardDto(Board board, List<PlayerDto> players) {
         this.id = board.getId();
         this.totalPlayer = board.getTotalPlayer();
         this.btn = board.getBtn();
@@ -52,13 +62,42 @@ public class BoardDto {
         this.communityCard4 = board.getCommunityCard4();
         this.communityCard5 = board.getCommunityCard5();
         this.gameSeq = board.getGameSeq();
-        List<Player> pList = board.getPlayers();
+        this.totalCallSize = List.copyOf(board.getTotalCallSize());
+        this.lastActionTime = board.getLastActionTime();
+        this.players = players;
+    }
+
+    private static List<PlayerDto> toPlayerDtoList(List<Player> pList) {
         List<PlayerDto> pDtoList = new ArrayList<>();
         for (Player player : pList) {
             pDtoList.add(new PlayerDto(player));
         }
-        this.totalCallSize = List.copyOf(board.getTotalCallSize());
-        this.lastActionTime = board.getLastActionTime();
+        return pDtoList;
+    }
+
+    public BoardDto(BoardDto boardDto) {
+        this.id = boardDto.getId();
+        this.totalPlayer = boardDto.getTotalPlayer();
+        this.btn = boardDto.getBtn();
+        this.blind = boardDto.getBlind();
+        this.pot = boardDto.getPot();
+        this.bettingPos = boardDto.getBettingPos();
+        this.actionPos = boardDto.getActionPos();
+        this.phaseStatus = boardDto.getPhaseStatus();
+        this.bettingSize = boardDto.getBettingSize();
+        this.communityCard1 = boardDto.getCommunityCard1();
+        this.communityCard2 = boardDto.getCommunityCard2();
+        this.communityCard3 = boardDto.getCommunityCard3();
+        this.communityCard4 = boardDto.getCommunityCard4();
+        this.communityCard5 = boardDto.getCommunityCard5();
+        this.gameSeq = boardDto.getGameSeq();
+        List<PlayerDto> pDtoList = new ArrayList<>();
+        for (PlayerDto playerDto : boardDto.getPlayers()) {
+            pDtoList.add(new PlayerDto(playerDto));
+        }
+        this.totalCallSize = new ArrayList<>(boardDto.getTotalCallSize());
+        this.lastActionTime = boardDto.getLastActionTime();
         this.players = pDtoList;
+        this.potResult = boardDto.getPotResult();
     }
 }
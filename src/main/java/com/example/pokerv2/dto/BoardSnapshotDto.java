@@ -0,0 +1,18 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 24/02/18 chan
+ * seq 번호가 붙은 보드 전체 상태. 이후의 BoardDeltaDto 는 이 seq 다음부터 적용한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardSnapshotDto {
+
+    private long seq;
+    private BoardDto board;
+}
@@ -0,0 +1,20 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquityDto {
+
+    /**
+     * win : 혼자 이기는 확률
+     * tie : 다른 플레이어와 비기는 확률
+     * equity : 비긴 경우 나눠 갖는 몫까지 더한 팟 지분
+     */
+    private double win;
+    private double tie;
+    private double equity;
+}
@@ -0,0 +1,18 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquityRequestDto {
+
+    private List<List<Integer>> hands = new ArrayList<>();
+    private List<Integer> communityCards = new ArrayList<>();
+    private Integer sampleSize;
+}
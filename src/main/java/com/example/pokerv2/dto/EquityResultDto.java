@@ -0,0 +1,17 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquityResultDto {
+
+    private List<EquityDto> equities;
+    private long trials;
+    private boolean exhaustive;
+}
@@ -27,10 +27,14 @@ public class GameResultDto {
      *
      * 3. 각 플레이어들의 족보.
      *
+     * 24/02/22 chan
+     * 4. 콜 받지 못해서 돌려받은 금액. (refundedMoney) 획득 금액과 따로 표시한다.
+     *
      */
 
     private boolean isWinner;
     private int earnedMoney;
+    private int refundedMoney;
     private String handContext;
     private long handValue;
     private List<Integer> jokBo;
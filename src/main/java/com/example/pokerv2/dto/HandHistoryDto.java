@@ -4,6 +4,7 @@ import com.example.pokerv2.enums.Position;
 import com.example.pokerv2.model.Action;
 import com.example.pokerv2.model.HandHistory;
 import com.example.pokerv2.model.UserHandHistory;
+import com.example.pokerv2.utils.HandHistoryCodec;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -32,8 +33,45 @@ public class HandHistoryDto {
     private List<Integer> posList = new ArrayList<>();
     private List<Integer> cardList = new ArrayList<>();
     private List<Long> showDownUserIdList = new ArrayList<>();
+    private List<Long> winnerUserIdList = new ArrayList<>();
+    private Long boardId;
+    private Long gameSeq;
+
     public HandHistoryDto(HandHistory handHistory) {
+        this(handHistory, toUserList(handHistory));
+    }
+
+    /**
+     * 24/02/26 chan
+     * 유저 목록을 따로 읽어온 경우. handHistory.userList 를 건드리지 않는다.
+     */
+    public HandHistoryDto(HandHistory handHistory, List<UserDto> userList) {
         this.id = handHistory.getId();
+        this.boardId = handHistory.getBoardId();
+        this.gameSeq = handHistory.getGameSeq();
+        this.userList = userList;
+
+        // 24/02/27 chan 보관된 핸드는 액션, 포지션, 카드, 쇼다운 유저를 압축된 기록에서 읽는다.
+        if (handHistory.getArchive() != null) {
+            HandHistoryDto archived = HandHistoryCodec.decode(handHistory.getArchive());
+            this.actionList = archived.getActionList();
+            this.btnPosition = archived.getBtnPosition();
+            this.potAmountPf = archived.getPotAmountPf();
+            this.potAmountFlop = archived.getPotAmountFlop();
+            this.potAmountTurn = archived.getPotAmountTurn();
+            this.potAmountRiver = archived.getPotAmountRiver();
+            this.communityCard1 = archived.getCommunityCard1();
+            this.communityCard2 = archived.getCommunityCard2();
+            this.communityCard3 = archived.getCommunityCard3();
+            this.communityCard4 = archived.getCommunityCard4();
+            this.communityCard5 = archived.getCommunityCard5();
+            this.posList = archived.getPosList();
+            this.cardList = archived.getCardList();
+            this.showDownUserIdList = archived.getShowDownUserIdList();
+            this.winnerUserIdList = archived.getWinnerUserIdList();
+            return;
+        }
+
         this.actionList = new ArrayList<>();
         for (Action action : handHistory.getActionList()) {
             actionList.add(new ActionDto(action));
@@ -48,13 +86,18 @@ public class HandHistoryDto {
         this.communityCard3 = handHistory.getCommunityCard3();
         this.communityCard4 = handHistory.getCommunityCard4();
         this.communityCard5 = handHistory.getCommunityCard5();
-        userList = new ArrayList<>();
-        for (UserHandHistory userHandHistory : handHistory.getUserList()) {
-            userList.add(new UserDto(userHandHistory.getUser()));
-        }
         this.posList = handHistory.getPosList();
         this.showDownUserIdList = handHistory.getShowDownUserIdList();
+        this.winnerUserIdList = handHistory.getWinnerUserIdList();
         cardList = handHistory.getCardList();
     }
 
+    private static List<UserDto> toUserList(HandHistory handHistory) {
+        List<UserDto> userList = new ArrayList<>();
+        for (UserHandHistory userHandHistory : handHistory.getUserList()) {
+            userList.add(new UserDto(userHandHistory.getUser()));
+        }
+        return userList;
+    }
+
 }
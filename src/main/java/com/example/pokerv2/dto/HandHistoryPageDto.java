@@ -0,0 +1,23 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HandHistoryPageDto {
+
+    /**
+     * 24/02/26 chan
+     * <p>
+     * 핸드 히스토리 한 페이지. 핸드 id 내림차순(최신순)이다.
+     * <p>
+     * nextCursor : 다음 페이지를 조회할 때 넘길 cursor. 마지막 페이지면 null
+     */
+    private List<HandHistoryDto> handHistoryList;
+    private Long nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 24/02/29 chan
+ * 로비 목록의 보드 한 줄. 플레이어와 카드는 담지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyBoardDto {
+
+    private Long boardId;
+    private int blind;
+    private int totalPlayer;
+    private int phaseStatus;
+    // 최근 핸드에 가중치를 둔 팟 평균. 서버가 시작된 뒤로 끝난 핸드가 없으면 0
+    private int avgPot;
+}
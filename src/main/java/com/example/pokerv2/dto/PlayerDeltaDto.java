@@ -0,0 +1,48 @@
+package com.example.pokerv2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 24/02/18 chan
+ * 플레이어 변경분. 새로 앉은 플레이어는 모든 필드를 담고, 기존 플레이어는 id 와 바뀐 필드만 담는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlayerDeltaDto {
+
+    private Long id;
+    private Long userId;
+    private String playerName;
+    private Integer position;
+    private Integer money;
+    private Integer card1;
+    private Integer card2;
+    private Integer status;
+    private Integer phaseCallSize;
+
+    public PlayerDeltaDto(Long id) {
+        this.id = id;
+    }
+
+    public PlayerDeltaDto(PlayerDto playerDto) {
+        this.id = playerDto.getId();
+        this.userId = playerDto.getUserId();
+        this.playerName = playerDto.getPlayerName();
+        this.position = playerDto.getPosition();
+        this.money = playerDto.getMoney();
+        this.card1 = playerDto.getCard1();
+        this.card2 = playerDto.getCard2();
+        this.status = playerDto.getStatus();
+        this.phaseCallSize = playerDto.getPhaseCallSize();
+    }
+
+    public boolean isEmpty() {
+        return userId == null && playerName == null && position == null && money == null && card1 == null
+                && card2 == null && status == null && phaseCallSize == null;
+    }
+}
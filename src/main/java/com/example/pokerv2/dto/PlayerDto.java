@@ -1,6 +1,7 @@
 package com.example.pokerv2.dto;
 
 import com.example.pokerv2.model.Player;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,6 +26,8 @@ public class PlayerDto {
     private int status;
     private int phaseCallSize;
     private GameResultDto gameResult;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private EquityDto equity;
 
     public PlayerDto(Player player) {
         this.id = player.getId();
@@ -51,6 +54,7 @@ public class PlayerDto {
         this.status = playerDto.getStatus();
         this.phaseCallSize = playerDto.getPhaseCallSize();
         this.gameResult = playerDto.getGameResult();
+        this.equity = playerDto.getEquity();
     }
 
 }
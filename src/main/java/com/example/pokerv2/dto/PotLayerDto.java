@@ -0,0 +1,28 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PotLayerDto {
+
+    /**
+     * 24/02/22 chan
+     * <p>
+     * 팟 한 층. 첫 층이 메인 팟이고 그 다음부터 사이드 팟이다.
+     * <p>
+     * cap : 이 층까지 낸 누적 베팅 금액. 이 금액 이상 베팅한 플레이어만 이 층을 가져갈 수 있다.
+     * amount : 이 층에 모인 금액
+     * eligiblePositions : 이 층을 가져갈 수 있는(폴드하지 않은) 플레이어의 포지션
+     * winnerPositions : 이 층을 가져간 플레이어의 포지션. 나머지 칩을 먼저 받는 순서대로 담는다.
+     * refund : 혼자만 베팅한 금액이라 그대로 돌려준 층인지
+     */
+    private int cap;
+    private int amount;
+    private int[] eligiblePositions;
+    private int[] winnerPositions;
+    private boolean refund;
+}
@@ -0,0 +1,25 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PotResultDto {
+
+    /**
+     * 24/02/22 chan
+     * <p>
+     * 쇼다운 팟 분배 결과.
+     * <p>
+     * pots : 메인 팟부터 순서대로 쌓은 팟 층
+     * earnedMoney, refundedMoney : BoardDto.players 와 같은 순서의 플레이어별 획득 금액, 돌려받은 금액
+     */
+    private List<PotLayerDto> pots;
+    private int[] earnedMoney;
+    private int[] refundedMoney;
+}
@@ -0,0 +1,18 @@
+package com.example.pokerv2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 24/02/29 chan
+ * 매치메이킹에서 새 보드에 앉힐 유저와 바이인 bb.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatRequestDto {
+
+    private String userId;
+    private int bb;
+}
@@ -0,0 +1,34 @@
+package com.example.pokerv2.dto;
+
+import com.example.pokerv2.enums.TableCommandType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 24/02/29 chan
+ * 노드 사이에 브로커로 주고받는 보드 명령. 명령 종류에 필요한 필드만 채운다.
+ * correlationId 가 있으면 결과(result) 또는 에러(errorCode)를 replyTo 노드로 REPLY 한다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableCommandDto {
+
+    private TableCommandType type;
+    private Long boardId;
+    private String userId;
+    private String option;
+    private int requestBb;
+    private Long playerId;
+    private BoardDto board;
+    private LobbyBoardDto lobbyBoard;
+
+    private String correlationId;
+    private String replyTo;
+    private Object result;
+    // ErrorCode 이름. 실패한 REPLY 에만 있다.
+    private String errorCode;
+}
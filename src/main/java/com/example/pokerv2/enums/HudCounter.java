@@ -0,0 +1,34 @@
+package com.example.pokerv2.enums;
+
+import com.example.pokerv2.model.Hud;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 24/02/23 chan
+ * 한 핸드 동안 모아뒀다가 핸드가 끝날 때 Hud 에 더하는 카운터 종류.
+ */
+public enum HudCounter {
+
+    VPIP((hud, delta) -> hud.setVpip(hud.getVpip() + delta)),
+    PFR((hud, delta) -> hud.setPfr(hud.getPfr() + delta)),
+    C_BET((hud, delta) -> hud.setCBet(hud.getCBet() + delta)),
+    THREE_BET((hud, delta) -> hud.setThreeBet(hud.getThreeBet() + delta)),
+    WTSD((hud, delta) -> hud.setWtsd(hud.getWtsd() + delta)),
+    WSD((hud, delta) -> hud.setWsd(hud.getWsd() + delta)),
+    TOTAL_HANDS((hud, delta) -> hud.setTotalHands(hud.getTotalHands() + delta)),
+    PF_AGGRESSIVE_CNT((hud, delta) -> hud.setPfAggressiveCnt(hud.getPfAggressiveCnt() + delta)),
+    WTF((hud, delta) -> hud.setWtf(hud.getWtf() + delta)),
+
+    ;
+
+    private final ObjIntConsumer<Hud> adder;
+
+    HudCounter(ObjIntConsumer<Hud> adder) {
+        this.adder = adder;
+    }
+
+    public void add(Hud hud, int delta) {
+        adder.accept(hud, delta);
+    }
+}
@@ -16,8 +16,11 @@ public enum MessageType {
     GAME_END("GAME_END"),
     NEXT_ACTION("NEXT_ACTION"),
     SHOW_DOWN("SHOW_DOWN"),
+    ALL_IN_EQUITY("ALL_IN_EQUITY"),
     PLAYER_EXIT("PLAYER_EXIT"),
     INIT_BOARD("INIT_BOARD"),
+    LOBBY_UPDATE("LOBBY_UPDATE"),
+    MATCHED("MATCHED"),
 
     ;
 
@@ -0,0 +1,23 @@
+package com.example.pokerv2.enums;
+
+/**
+ * 24/02/29 chan
+ * 다른 노드가 가진 보드로 넘기는 명령 종류.
+ * ACTION, EXIT, CONNECT, DISCONNECT 는 보내기만 하고, 나머지는 REPLY 로 결과를 돌려받는다.
+ * LOBBY 는 owner 노드가 바뀐 로비 줄을 다른 모든 노드로 보낸다. (받는 노드의 보드가 아니다.)
+ */
+public enum TableCommandType {
+
+    ACTION,
+    EXIT,
+    CONNECT,
+    DISCONNECT,
+    JOIN,
+    START,
+    GET,
+    SNAPSHOT,
+    LOBBY,
+    REPLY,
+
+    ;
+}
@@ -0,0 +1,14 @@
+package com.example.pokerv2.enums;
+
+/**
+ * 24/02/15 chan
+ * 보드별로 예약되는 타이머 종류. 보드마다 종류별로 하나씩만 예약된다.
+ */
+public enum TimerType {
+
+    ACTION_TIMEOUT,
+    RESULT_ANIMATION,
+    NEXT_GAME,
+
+    ;
+}
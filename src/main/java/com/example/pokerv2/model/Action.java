@@ -15,7 +15,9 @@ import lombok.NoArgsConstructor;
 @Entity
 public class Action {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "action_seq")
+    @SequenceGenerator(name = "action_seq", sequenceName = "action_seq", allocationSize = 50)
     private Long id;
     private int actionNo;
     private Long userId;
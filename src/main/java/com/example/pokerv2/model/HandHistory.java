@@ -17,7 +17,9 @@ import java.util.List;
 @Entity
 public class HandHistory {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hand_history_seq")
+    @SequenceGenerator(name = "hand_history_seq", sequenceName = "hand_history_seq", allocationSize = 50)
     private Long id;
     private Long boardId;
     private Long gameSeq;
@@ -32,6 +34,14 @@ public class HandHistory {
     private int communityCard4;
     private int communityCard5;
     private boolean finish;
+    // 24/02/24 chan 이 핸드의 HUD 카운터를 반영했는지. 같은 핸드를 두번 반영하지 않도록 HUD 와 같은 트랜잭션에서 바꾼다.
+    private boolean hudApplied;
+    // 24/02/27 chan HandHistoryCodec 으로 압축한 핸드. 보관(archive)된 핸드는 액션, 포지션, 카드, 쇼다운/승자 목록 행을 지우고 이것만 남긴다.
+    @Lob
+    @Column(length = 65535)
+    private byte[] archive;
+    // 24/02/29 chan archive 를 세그먼트 파일에도 이어 썼는지. 세그먼트에 쓴 뒤에 따로 표시하므로 그 사이에 서버가 내려가면 false 로 남는다.
+    private boolean segmented;
 
     @OneToMany(mappedBy = "handHistory", fetch = FetchType.LAZY, cascade = CascadeType.ALL) @Builder.Default @OrderBy("actionNo asc")
     private List<Action> actionList = new ArrayList<>();
@@ -53,4 +63,8 @@ public class HandHistory {
     @ElementCollection
     @Builder.Default
     private List<Long> showDownUserIdList = new ArrayList<>();
+
+    @ElementCollection
+    @Builder.Default
+    private List<Long> winnerUserIdList = new ArrayList<>();
 }
@@ -2,8 +2,11 @@ package com.example.pokerv2.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -40,7 +43,9 @@ public class Hud {
 
      */
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hud_seq")
+    @SequenceGenerator(name = "hud_seq", sequenceName = "hud_seq", allocationSize = 50)
     private Long id;
     @OneToOne
     private User user;
@@ -53,4 +58,7 @@ public class Hud {
     private int totalHands;
     private int pfAggressiveCnt;
     private int wtf;
+    // 24/02/29 chan 여러 노드가 같은 유저의 Hud 를 읽고 더해서 쓰므로, 늦게 커밋한 쪽은 실패하고 다시 반영한다.
+    @Version
+    private long version;
 }
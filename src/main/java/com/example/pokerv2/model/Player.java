@@ -16,7 +16,9 @@ import lombok.NoArgsConstructor;
 @Entity
 public class Player {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_seq")
+    @SequenceGenerator(name = "player_seq", sequenceName = "player_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -55,7 +56,9 @@ public class User implements UserDetails {
     private List<UserHandHistory> handHistoryList = new ArrayList<>();
 
 
+    // 24/02/29 chan 보드의 플레이어를 읽을 때 유저마다 roles 를 따로 읽지 않도록 묶어서 읽는다.
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 16)
     @Builder.Default
     private List<String> roles = new ArrayList<>();
 
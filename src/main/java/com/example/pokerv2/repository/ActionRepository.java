@@ -2,6 +2,13 @@ package com.example.pokerv2.repository;
 
 import com.example.pokerv2.model.Action;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ActionRepository extends JpaRepository<Action, Long> {
+
+    @Modifying
+    @Query("DELETE FROM Action a WHERE a.handHistory.id = :handHistoryId")
+    int deleteByHandHistoryId(@Param("handHistoryId") Long handHistoryId);
 }
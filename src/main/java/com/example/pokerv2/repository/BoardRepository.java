@@ -1,18 +1,49 @@
 package com.example.pokerv2.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import com.example.pokerv2.model.Board;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BoardRepository extends JpaRepository<Board, Long> {
 
-    @Query("SELECT b FROM Board b WHERE b.totalPlayer < 6 AND b.blind = :blind AND NOT EXISTS (SELECT p FROM Player p WHERE p.board = b AND p.user.id = :userId) ORDER BY b.id")
-    List<Board> findFirstPlayableBoard(@Param("userId") Long userId, int blind, Pageable pageable);
-
     List<Board> findByBlind(int blind);
+
+    // 24/02/29 chan 빈 자리가 있고 유저가 앉아있지 않은 보드의 id. 많이 찬 보드부터
+    @Query("SELECT b.id FROM Board b WHERE b.blind = :blind AND b.totalPlayer < :maxPlayer " +
+            "AND NOT EXISTS (SELECT p FROM Player p WHERE p.board = b AND p.user.userId = :userId) ORDER BY b.totalPlayer DESC, b.id")
+    List<Long> findPlayableBoardIds(@Param("blind") int blind, @Param("maxPlayer") int maxPlayer, @Param("userId") String userId, Pageable pageable);
+
+    // 24/02/29 chan 로비 목록용 projection. [id, blind, totalPlayer, phaseStatus]
+    @Query("SELECT b.id, b.blind, b.totalPlayer, b.phaseStatus FROM Board b ORDER BY b.id")
+    List<Object[]> findLobbyRows();
+
+    // 24/02/29 chan 좌석 배정 인덱스용 projection. [id, blind, position, user.userId] 플레이어가 없는 보드는 position 부터 null
+    @Query("SELECT b.id, b.blind, p.position, u.userId FROM Board b LEFT JOIN b.players p LEFT JOIN p.user u")
+    List<Object[]> findSeatRows();
+
+    /**
+     * 24/02/29 chan
+     * 게임 루프에서 보드를 변경할 때 읽는다. players, user, hud 를 한 쿼리로 읽는다.
+     * user 의 roles 는 @BatchSize 로 보드의 유저를 한번에 읽고, totalCallSize 는 처음 쓸 때 한 쿼리로 읽는다.
+     * players 와 roles, totalCallSize 는 모두 bag 이라서 한 쿼리에서 같이 fetch 할 수 없다.
+     */
+    @EntityGraph(attributePaths = {"players", "players.user", "players.user.hud"})
+    @Query("SELECT b FROM Board b WHERE b.id = :boardId")
+    Optional<Board> findGameBoardById(@Param("boardId") Long boardId);
+
+    /**
+     * 24/02/29 chan
+     * 보드 스냅샷용 projection. [Board, playerId, userId, user.userId, position, money, card1, card2, status, phaseCallSize]
+     * Player, User 엔티티를 만들지 않는다. 플레이어가 없는 보드는 playerId 부터 null 인 행 하나를 돌려준다.
+     */
+    @Query("SELECT b, p.id, u.id, u.userId, p.position, p.money, p.card1, p.card2, p.status, p.phaseCallSize " +
+            "FROM Board b LEFT JOIN b.players p LEFT JOIN p.user u WHERE b.id = :boardId ORDER BY p.position")
+    List<Object[]> findSnapshotRowsById(@Param("boardId") Long boardId);
 }
 
@@ -2,10 +2,66 @@ package com.example.pokerv2.repository;
 
 import com.example.pokerv2.model.HandHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface HandHistoryRepository extends JpaRepository<HandHistory, Long> {
 
     Optional<HandHistory> findByBoardIdAndGameSeq(Long boardId, Long gameSeq);
+
+    @Query("SELECT h.id FROM HandHistory h WHERE h.finish = true AND h.hudApplied = false ORDER BY h.id")
+    List<Long> findHudNotAppliedIds();
+
+    // 24/02/29 chan HUD 를 반영할 핸드를 선점한다. 다른 노드나 다른 트랜잭션이 먼저 선점했으면 0
+    @Modifying
+    @Query("UPDATE HandHistory h SET h.hudApplied = true WHERE h.id = :handHistoryId AND h.hudApplied = false")
+    int claimHudApplied(@Param("handHistoryId") Long handHistoryId);
+
+    // 24/02/27 chan HUD 까지 반영했고 아직 보관하지 않은 핸드. 오래된 것부터
+    @Query("SELECT h.id FROM HandHistory h WHERE h.finish = true AND h.hudApplied = true AND h.archive IS NULL ORDER BY h.id")
+    List<Long> findArchivableIds(Pageable pageable);
+
+    // 24/02/29 chan 보관했지만 세그먼트에 썼다고 표시하지 못한 핸드. 오래된 것부터
+    @Query("SELECT h.id FROM HandHistory h WHERE h.archive IS NOT NULL AND h.segmented = false ORDER BY h.id")
+    List<Long> findUnsegmentedIds(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE HandHistory h SET h.segmented = true WHERE h.id = :handHistoryId")
+    int markSegmented(@Param("handHistoryId") Long handHistoryId);
+
+    /**
+     * 24/02/26 chan
+     * 핸드 히스토리 페이지 조회. 유저가 참여한 끝난 핸드를 id 내림차순으로 cursor 보다 작은 것만 읽는다. (keyset)
+     * 아래의 fetch 쿼리들은 같은 영속성 컨텍스트의 HandHistory 에 컬렉션을 하나씩 채운다. 컬렉션을 한 쿼리에서 같이 fetch 하면 곱집합이 되므로 나눈다.
+     */
+    @Query("SELECT h FROM UserHandHistory uh JOIN uh.handHistory h WHERE uh.user.id = :userId AND h.finish = true AND h.id < :cursor ORDER BY h.id DESC")
+    List<HandHistory> findPageByUserId(@Param("userId") Long userId, @Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("SELECT DISTINCT h FROM HandHistory h LEFT JOIN FETCH h.actionList WHERE h.id IN :ids")
+    List<HandHistory> fetchActionList(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT h FROM HandHistory h LEFT JOIN FETCH h.posList WHERE h.id IN :ids")
+    List<HandHistory> fetchPosList(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT h FROM HandHistory h LEFT JOIN FETCH h.cardList WHERE h.id IN :ids")
+    List<HandHistory> fetchCardList(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT h FROM HandHistory h LEFT JOIN FETCH h.showDownUserIdList WHERE h.id IN :ids")
+    List<HandHistory> fetchShowDownUserIdList(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT h FROM HandHistory h LEFT JOIN FETCH h.winnerUserIdList WHERE h.id IN :ids")
+    List<HandHistory> fetchWinnerUserIdList(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return [handHistoryId, user.id, user.userId, user.userName, user.money, user.imagePath]
+     * User 엔티티를 읽으면 roles 를 유저마다 따로 읽으므로 필요한 컬럼만 읽는다.
+     */
+    @Query("SELECT uh.handHistory.id, u.id, u.userId, u.userName, u.money, u.imagePath FROM UserHandHistory uh JOIN uh.user u WHERE uh.handHistory.id IN :ids ORDER BY uh.id")
+    List<Object[]> findUserRowsByHandHistoryIds(@Param("ids") Collection<Long> ids);
 }
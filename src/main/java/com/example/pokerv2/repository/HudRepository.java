@@ -3,9 +3,13 @@ package com.example.pokerv2.repository;
 import com.example.pokerv2.model.Hud;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface HudRepository extends JpaRepository<Hud, Long> {
 
     Optional<Hud> findByUserId(Long userId);
+
+    List<Hud> findByUserIdIn(Collection<Long> userIds);
 }
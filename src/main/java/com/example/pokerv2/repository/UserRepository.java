@@ -3,10 +3,13 @@ package com.example.pokerv2.repository;
 import com.example.pokerv2.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUserId(String userId);
     Optional<User> findByUserIdAndPassword(String userId, String password);
+    List<User> findByUserIdIn(Collection<String> userIds);
 }
@@ -8,39 +8,51 @@ import com.example.pokerv2.error.CustomException;
 import com.example.pokerv2.error.ErrorCode;
 import com.example.pokerv2.model.*;
 import com.example.pokerv2.repository.ActionRepository;
-import com.example.pokerv2.repository.BoardRepository;
-import com.example.pokerv2.repository.HandHistoryRepository;
-import com.example.pokerv2.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 게임 중의 액션은 DB 에 바로 쓰지 않고 보드별로 메모리에 모아둔다. 핸드가 끝나면 HandHistoryService.end 의 트랜잭션에서 flush 로 한번에 저장한다.
+ * Action 은 pooled 시퀀스로 id 를 미리 받아두므로 insert 는 JDBC 배치 하나로 나간다. (JpaBatchConfig)
+ * <p>
+ * 액션에 필요한 보드와 유저 정보는 TableStateStore 의 스냅샷에서 읽으므로 액션마다 DB 조회가 없다.
+ * 끝나지 않은 핸드의 액션은 서버가 내려가면 사라진다. 끝나지 않은 핸드는 HUD 와 핸드 히스토리 조회에 쓰이지 않는다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ActionService {
 
     private final ActionRepository actionRepository;
-    private final BoardRepository boardRepository;
-    private final UserRepository userRepository;
-    private final HandHistoryRepository handHistoryRepository;
+    private final TableStateStore tableStateStore;
+    private final Map<Long, PendingHand> pendingHands = new ConcurrentHashMap<>();
     private static final String BB = "bb";
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
     public void saveAction(BoardDto boardDto, String actOption, String userId) {
-        Board board = boardRepository.findById(boardDto.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        User actionUser = userRepository.findByUserId(userId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(board.getId(), board.getGameSeq()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        BoardDto board = tableStateStore.get(boardDto.getId());
+        Long actionUserId = null;
+        for (PlayerDto playerDto : board.getPlayers()) {
+            if(playerDto.getPlayerName().equals(userId)) {
+                actionUserId = playerDto.getUserId();
+                break;
+            }
+        }
+        if(actionUserId == null) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+
         String actionDetail = "";
         PlayerDto actionPlayer = null;
         for (PlayerDto playerDto : boardDto.getPlayers()) {
-            if(playerDto.getUserId() == actionUser.getId()) {
+            if(actionUserId.equals(playerDto.getUserId())) {
                 actionPlayer = playerDto;
                 break;
             }
@@ -56,23 +68,20 @@ public class ActionService {
             actionDetail = PlayerAction.CHECK.getActionDetail();
         }
 
+        PendingHand pendingHand = pendingHand(board.getId(), board.getGameSeq());
         Action action = Action.builder()
-                .actionNo(handHistory.getActionList().size()).handHistory(handHistory).userId(actionUser.getId())
-                .position(actionPlayer.getPosition()).phaseStatus(board.getPhaseStatus()).detail(actionDetail).build();
+                .actionNo(pendingHand.actionList.size()).userId(actionUserId)
+                .position(actionPlayer.getPosition()).phaseStatus(PhaseStatus.values()[board.getPhaseStatus()]).detail(actionDetail).build();
 
-        actionRepository.save(action);
+        pendingHand.actionList.add(action);
     }
 
-    @Transactional
     public void saveAnteAction(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(board.getId(), board.getGameSeq()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Action> actionList = handHistory.getActionList();
-        Player sbPlayer = null;
-        Player bbPlayer = null;
+        BoardDto board = tableStateStore.get(boardId);
+        PlayerDto sbPlayer = null;
+        PlayerDto bbPlayer = null;
 
-        List<Player> players = board.getPlayers();
-        for (Player player : players) {
+        for (PlayerDto player : board.getPlayers()) {
             if(player.getPhaseCallSize() == board.getBlind() * 0.5) {
                 sbPlayer = player;
             } else if (player.getPhaseCallSize() == board.getBlind()) {
@@ -80,18 +89,43 @@ public class ActionService {
             }
         }
 
+        pendingHands.remove(boardId);
         if(sbPlayer != null && bbPlayer != null) {
+            List<Action> actionList = pendingHand(boardId, board.getGameSeq()).actionList;
+
             Action sbAnteAction = Action.builder().phaseStatus(PhaseStatus.PRE_FLOP).actionNo(0)
-                    .userId(sbPlayer.getUser().getId()).handHistory(handHistory).position(sbPlayer.getPosition().getPosNum()).detail("Ante 0.5" + BB).build();
+                    .userId(sbPlayer.getUserId()).position(sbPlayer.getPosition()).detail("Ante 0.5" + BB).build();
 
             Action bbAnteAction = Action.builder().phaseStatus(PhaseStatus.PRE_FLOP).actionNo(1)
-                    .userId(bbPlayer.getUser().getId()).handHistory(handHistory).position(bbPlayer.getPosition().getPosNum()).detail("Ante 1" + BB).build();
+                    .userId(bbPlayer.getUserId()).position(bbPlayer.getPosition()).detail("Ante 1" + BB).build();
 
             actionList.add(sbAnteAction);
             actionList.add(bbAnteAction);
         }
     }
 
+    /**
+     * 24/02/29 chan
+     * 모아둔 핸드의 액션을 저장한다. 핸드를 끝내는 트랜잭션 안에서 호출해야 한다.
+     * 다른 핸드의 액션이 남아있으면 (이전 핸드가 끝나지 않은 채로 다음 핸드가 시작된 경우) 버린다.
+     */
+    public void flush(HandHistory handHistory) {
+        PendingHand pendingHand = pendingHands.remove(handHistory.getBoardId());
+        if(pendingHand == null || pendingHand.gameSeq != handHistory.getGameSeq()) {
+            return;
+        }
+
+        for (Action action : pendingHand.actionList) {
+            action.setHandHistory(handHistory);
+        }
+        handHistory.getActionList().addAll(pendingHand.actionList);
+        actionRepository.saveAll(pendingHand.actionList);
+    }
+
+    private PendingHand pendingHand(Long boardId, long gameSeq) {
+        return pendingHands.compute(boardId, (id, old) -> old != null && old.gameSeq == gameSeq ? old : new PendingHand(gameSeq));
+    }
+
     private int getPlayerIdxByPos(Board board, int posNum) {
         List<Player> players = board.getPlayers();
 
@@ -103,4 +137,13 @@ public class ActionService {
 
         return -1;
     }
+
+    private static final class PendingHand {
+        private final long gameSeq;
+        private final List<Action> actionList = new ArrayList<>();
+
+        private PendingHand(long gameSeq) {
+            this.gameSeq = gameSeq;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.example.pokerv2.service;
 import com.example.pokerv2.dto.BoardDto;
 import com.example.pokerv2.dto.GameResultDto;
 import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.SeatRequestDto;
 import com.example.pokerv2.enums.*;
 import com.example.pokerv2.error.CustomException;
 import com.example.pokerv2.error.ErrorCode;
@@ -12,9 +13,13 @@ import com.example.pokerv2.model.User;
 import com.example.pokerv2.repository.BoardRepository;
 import com.example.pokerv2.repository.PlayerRepository;
 import com.example.pokerv2.repository.UserRepository;
+import com.example.pokerv2.utils.BoardViewUtils;
+import com.example.pokerv2.utils.CardSet;
+import com.example.pokerv2.utils.Deck;
 import com.example.pokerv2.utils.HandCalculatorUtils;
 import com.example.pokerv2.utils.PotDistributorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -24,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
@@ -32,9 +38,15 @@ public class BoardService {
     private final BoardRepository boardRepository;
     private final UserRepository userRepository;
     private final PlayerRepository playerRepository;
+    private final TableStateStore tableStateStore;
+    private final TableDeckStore tableDeckStore;
+    private final SeatAllocator seatAllocator;
 
     private static final int MAX_PLAYER = 6;
 
+    @Value("${poker.broadcast.hide-hole-cards:false}")
+    private boolean hideHoleCards;
+
     /**
      * join - 24/01/04 chan
      * 1. 플레이 가능한 보드를 찾는다.
@@ -42,56 +54,163 @@ public class BoardService {
      * 3. Player 입장.
      */
 
+    /**
+     * 24/02/29 chan
+     * 아무나 조회할 수 있으므로 홀카드를 가리는 경우 모든 플레이어의 홀카드를 가린다.
+     */
     @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
     public List<BoardDto> getBoardList(int blind) {
         List<Board> boardList = boardRepository.findByBlind(blind);
         List<BoardDto> boardDtoList = new ArrayList<>();
 
         for (Board board : boardList) {
-            boardDtoList.add(new BoardDto(board));
+            BoardDto boardDto = new BoardDto(board);
+            boardDtoList.add(hideHoleCards ? BoardViewUtils.publicView(boardDto, false) : boardDto);
         }
 
         return boardDtoList;
     }
+
+    /**
+     * 24/02/29 chan
+     * 빈 자리가 있고 유저가 앉아있지 않은 보드를 DB 에서 찾는다. 많이 찬 보드부터 size 개.
+     * 좌석 배정 인덱스에는 이 노드가 가진 보드만 있으므로, 클러스터에서 다른 노드의 보드를 찾을 때 쓴다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public List<Long> getPlayableBoardIds(int blind, String userId, int size) {
+        return boardRepository.findPlayableBoardIds(blind, MAX_PLAYER, userId, PageRequest.of(0, size));
+    }
+
+    /**
+     * 24/02/29 chan
+     * 빠른 입장에서 입장할 보드가 없을 때 새 보드를 만들고 앉는다. 보드는 커밋된 뒤에 좌석 배정 인덱스에 등록한다.
+     */
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
-    public BoardDto joinRandom(int blind, int requestBb, Principal principal) {
+    public BoardDto createBoard(int blind, int requestBb, Principal principal) {
         User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        Board board;
+        Board board = Board.builder().blind(blind).phaseStatus(PhaseStatus.WAITING).gameSeq(0L).build();
 
-        List<Board> playableBoard = boardRepository.findFirstPlayableBoard(user.getId(), blind, PageRequest.of(0, 1));
+        Player player = buyIn(board, user, requestBb);
+        sitIn(board, player);
+        boardRepository.save(board);
+        tableStateStore.publish(board);
+        seatAllocator.registerAfterCommit(board);
+        return new BoardDto(board);
+    }
 
-        if (playableBoard.size() != 0)
-            board = playableBoard.get(0);
+    /**
+     * 24/02/29 chan
+     * 좌석 배정 인덱스에서 예약한 자리에 앉는다. 보드의 메일박스에서 호출한다.
+     * 트랜잭션이 커밋되면 예약을 확정하고, 롤백되면 예약을 푼다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
+    public BoardDto join(SeatAllocator.Reservation reservation, int requestBb, Principal principal) {
+        seatAllocator.completeWithTransaction(reservation);
+        User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(reservation.getBoardId());
 
-        else board = Board.builder().blind(blind).phaseStatus(PhaseStatus.WAITING).gameSeq(0L).build();
         Player player = buyIn(board, user, requestBb);
-        sitIn(board, player);
+        sitIn(board, player, reservation.getPosition());
         boardRepository.save(board);
+        tableStateStore.publish(board);
         return new BoardDto(board);
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public BoardDto join(Long boardId, int requestBb, Principal principal) {
         User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
 
         if(board.getTotalPlayer() >= MAX_PLAYER) {
             throw new CustomException(ErrorCode.MAX_PLAYER_SIZE);
         }
 
-        for (Player player : board.getPlayers()) {
-            if(player.getUser().getUserId().equals(principal.getName())){
-                throw new CustomException(ErrorCode.AlREADY_PLAYING_BOARD);
-            }
+        if(tableStateStore.seats(boardId).contains(principal.getName())) {
+            throw new CustomException(ErrorCode.AlREADY_PLAYING_BOARD);
         }
 
+        // 24/02/29 chan 빠른 입장과 같은 자리를 고르지 않도록 좌석 배정 인덱스에서 자리를 예약한다.
+        SeatAllocator.Reservation reservation = seatAllocator.reserve(board, principal.getName());
+        if (reservation == null) {
+            throw new CustomException(ErrorCode.MAX_PLAYER_SIZE);
+        }
+        seatAllocator.completeWithTransaction(reservation);
+
         Player player = buyIn(board, user, requestBb);
-        sitIn(board, player);
+        sitIn(board, player, reservation.getPosition());
         boardRepository.save(board);
+        tableStateStore.publish(board);
         return new BoardDto(board);
     }
 
+    /**
+     * 24/02/29 chan
+     * 매치메이킹에서 모은 유저로 보드 여러 개를 한 트랜잭션에서 만든다.
+     * 유저는 한 쿼리로 읽고, 보드와 플레이어(cascade)는 saveAll 로 저장해서 hibernate batch insert 로 묶는다.
+     * 잔고가 부족하거나 없는 유저를 먼저 빼고 남은 유저를 tableSize 이하로 고르게 나눈다. (빠진 유저 때문에 1인 보드가 생기지 않는다.)
+     * 돌려준 보드의 플레이어로 앉은 유저를 확인한다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
+    public List<BoardDto> createBoards(int blind, List<SeatRequestDto> requests, int tableSize) {
+        List<String> userIds = new ArrayList<>();
+        for (SeatRequestDto request : requests) {
+            userIds.add(request.getUserId());
+        }
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUserIdIn(userIds)) {
+            users.put(user.getUserId(), user);
+        }
+
+        List<SeatRequestDto> funded = new ArrayList<>();
+        for (SeatRequestDto request : requests) {
+            User user = users.get(request.getUserId());
+            if (user != null && user.getMoney() >= blind * request.getBb()) {
+                funded.add(request);
+            }
+        }
+
+        List<Board> boards = new ArrayList<>();
+        int idx = 0;
+        for (int size : tableSizes(funded.size(), tableSize)) {
+            Board board = Board.builder().blind(blind).phaseStatus(PhaseStatus.WAITING).gameSeq(0L).build();
+            for (int i = 0; i < size; i++, idx++) {
+                SeatRequestDto request = funded.get(idx);
+                sitIn(board, newPlayer(board, users.get(request.getUserId()), request.getBb()));
+            }
+            boards.add(board);
+        }
+        boardRepository.saveAll(boards);
+
+        List<BoardDto> boardDtoList = new ArrayList<>();
+        for (Board board : boards) {
+            tableStateStore.publish(board);
+            seatAllocator.registerAfterCommit(board);
+            boardDtoList.add(new BoardDto(board));
+        }
+        return boardDtoList;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 인원을 tableSize 이하의 가장 적은 보드 수로 고르게 나눈 보드별 인원. (7명, 6인 -> [4, 3])
+     */
+    static List<Integer> tableSizes(int size, int tableSize) {
+        List<Integer> sizes = new ArrayList<>();
+        if (size <= 0) {
+            return sizes;
+        }
+        int tables = (size + tableSize - 1) / tableSize;
+        for (int i = 0; i < tables; i++) {
+            sizes.add(size / tables + (i < size % tables ? 1 : 0));
+        }
+        return sizes;
+    }
+
     public Player buyIn(Board board, User user, int bb) {
+        return playerRepository.save(newPlayer(board, user, bb));
+    }
+
+    private Player newPlayer(Board board, User user, int bb) {
 
         int money = user.getMoney();
         int blind = board.getBlind();
@@ -99,20 +218,18 @@ public class BoardService {
             throw new CustomException(ErrorCode.NOT_ENOUGH_MONEY);
 
         user.setMoney(user.getMoney() - blind * bb);
-        Player player = Player.builder().money(blind * bb).board(board).status(PlayerStatus.FOLD).user(user).build();
-
-        return playerRepository.save(player);
+        return Player.builder().money(blind * bb).board(board).status(PlayerStatus.FOLD).user(user).build();
     }
 
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
-    public Board setNextAction(Long boardId) {
-
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+    /**
+     * 24/02/14 chan
+     * 다음 액션 순서는 메모리에만 반영한다. DB 에는 다음에 보드를 변경하는 트랜잭션에서 함께 저장된다.
+     */
+    public BoardDto setNextAction(Long boardId) {
+        BoardDto board = tableStateStore.get(boardId);
         int nextActionPos = getNextActionPos(board);
-        board.setActionPos(nextActionPos);
-        board.setLastActionTime(LocalDateTime.now());
-        return board;
+        return tableStateStore.setActionPos(boardId, nextActionPos, LocalDateTime.now());
     }
 
     public boolean isPhaseEnd(Board board) {
@@ -122,91 +239,101 @@ public class BoardService {
         return false;
     }
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public String getCurrentActionUserId(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        Player player = board.getPlayers().get(getPlayerIdxByPos(board, board.getActionPos()));
+        BoardDto board = tableStateStore.get(boardId);
+        PlayerDto player = board.getPlayers().get(tableStateStore.seats(boardId).indexOf(board.getActionPos()));
 
-        return player.getUser().getUserId();
+        return player.getPlayerName();
     }
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public boolean isActionPlayerConnect(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Player> players = board.getPlayers();
-        int actionPlayerIdx = getPlayerIdxByPos(board, board.getActionPos());
-        Player player = players.get(actionPlayerIdx);
+        BoardDto board = tableStateStore.get(boardId);
+        List<PlayerDto> players = board.getPlayers();
+        int actionPlayerIdx = tableStateStore.seats(boardId).indexOf(board.getActionPos());
+        PlayerDto player = players.get(actionPlayerIdx);
 
-        if (player.getStatus().getStatusNum() >= PlayerStatus.FOLD.getStatusNum())
+        if (player.getStatus() >= PlayerStatus.FOLD.getStatusNum())
             return true;
 
         return false;
     }
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public BoardDto getBoard(Long boardId) {
-        return new BoardDto(boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST)));
+        return tableStateStore.get(boardId);
     }
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
-    public Board saveBoardChanges(BoardDto boardDto, String option, String userId) {
-        Board board = boardRepository.findById(boardDto.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        if (!isSeatInBoard(board, userId))
+    /**
+     * 24/02/29 chan
+     * 플레이어가 모두 나간 보드의 스냅샷과 덱을 메모리에서 지운다.
+     */
+    public void evict(Long boardId) {
+        tableStateStore.evict(boardId);
+        tableDeckStore.evict(boardId);
+    }
+
+    /**
+     * 24/02/29 chan
+     * 플레이어 액션의 결과는 메모리의 보드 스냅샷에만 반영한다. (write-behind)
+     * DB 에는 다음에 보드를 변경하는 트랜잭션(페이즈 변경, 게임 종료, 입장/퇴장, 연결 상태 변경)이 applyPending 으로 함께 저장한다.
+     */
+    public BoardDto saveBoardChanges(BoardDto boardDto, String option, String userId) {
+        SeatMap seats = tableStateStore.seats(boardDto.getId());
+        if (!seats.contains(userId))
             throw new CustomException(ErrorCode.BAD_REQUEST);
 
-        for (PlayerDto playerDto : boardDto.getPlayers()) {
-            Player p = playerRepository.findById(playerDto.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-            if (p.getUser().getUserId().equals(userId)) {
-
-                p.setMoney(playerDto.getMoney());
-                p.setPhaseCallSize(playerDto.getPhaseCallSize());
-
-                if (p.getStatus().getStatusNum() < PlayerStatus.FOLD.getStatusNum()) {
-                    if (option.equals(PlayerAction.FOLD.getActionDetail())) {
-                        p.setStatus(PlayerStatus.DISCONNECT_FOLD);
-                    } else if (option.equals(PlayerAction.ALL_IN_CALL.getActionDetail()) || option.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
-                        p.setStatus(PlayerStatus.DISCONNECT_ALL_IN);
-                    } else if (option.equals(PlayerAction.CALL.getActionDetail()) || option.equals(PlayerAction.RAISE.getActionDetail())) {
-                        p.setStatus(PlayerStatus.DISCONNECT_PLAYED);
-                    }
-                } else {
-                    if (option.equals(PlayerAction.FOLD.getActionDetail())) {
-                        p.setStatus(PlayerStatus.FOLD);
-                    } else if (option.equals(PlayerAction.ALL_IN_CALL.getActionDetail()) || option.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
-                        p.setStatus(PlayerStatus.ALL_IN);
-                    } else if (option.equals(PlayerAction.CALL.getActionDetail()) || option.equals(PlayerAction.RAISE.getActionDetail())) {
-                        p.setStatus(PlayerStatus.PLAY);
-                    }
-                }
-                break;
+        int position = seats.positionOf(userId);
+        int playerIdx = seats.indexOf(position);
+        int playerDtoIdx = getPlayerIdxByPos(boardDto, position);
+        PlayerDto changed = playerDtoIdx == -1 ? null : boardDto.getPlayers().get(playerDtoIdx);
+
+        return tableStateStore.update(boardDto.getId(), board -> {
+            if (playerIdx != -1 && changed != null) {
+                PlayerDto p = board.getPlayers().get(playerIdx);
+                p.setMoney(changed.getMoney());
+                p.setPhaseCallSize(changed.getPhaseCallSize());
+                p.setStatus(getActionStatus(PlayerStatus.valueOf(p.getStatus()), option).getStatusNum());
+            }
+            board.setPot(boardDto.getPot());
+            board.setBettingPos(boardDto.getBettingPos());
+            board.setActionPos(boardDto.getActionPos());
+            board.setBettingSize(boardDto.getBettingSize());
+        });
+    }
+
+    private static PlayerStatus getActionStatus(PlayerStatus status, String option) {
+        if (status.getStatusNum() < PlayerStatus.FOLD.getStatusNum()) {
+            if (option.equals(PlayerAction.FOLD.getActionDetail())) {
+                return PlayerStatus.DISCONNECT_FOLD;
+            } else if (option.equals(PlayerAction.ALL_IN_CALL.getActionDetail()) || option.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
+                return PlayerStatus.DISCONNECT_ALL_IN;
+            } else if (option.equals(PlayerAction.CALL.getActionDetail()) || option.equals(PlayerAction.RAISE.getActionDetail())) {
+                return PlayerStatus.DISCONNECT_PLAYED;
+            }
+        } else {
+            if (option.equals(PlayerAction.FOLD.getActionDetail())) {
+                return PlayerStatus.FOLD;
+            } else if (option.equals(PlayerAction.ALL_IN_CALL.getActionDetail()) || option.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
+                return PlayerStatus.ALL_IN;
+            } else if (option.equals(PlayerAction.CALL.getActionDetail()) || option.equals(PlayerAction.RAISE.getActionDetail())) {
+                return PlayerStatus.PLAY;
             }
         }
-        saveBoardChanges(board, boardDto);
-        return board;
+        return status;
     }
 
-
-    public void saveBoardChanges(Board board, BoardDto boardDto) {
-        board.setPot(boardDto.getPot());
-        board.setBettingPos(boardDto.getBettingPos());
-        board.setActionPos(boardDto.getActionPos());
-        board.setBettingSize(boardDto.getBettingSize());
-        boardRepository.save(board);
-    }
-
-    public int getNextActionPos(Board board) {
-        List<Player> players = board.getPlayers();
+    public int getNextActionPos(BoardDto board) {
+        List<PlayerDto> players = board.getPlayers();
         int currentActPlayerIdx = getPlayerIdxByPos(board, board.getActionPos());
         for (int i = 1; i < players.size(); i++) {
-            Player player = players.get((currentActPlayerIdx + i) % players.size());
-            PlayerStatus status = player.getStatus();
+            PlayerDto player = players.get((currentActPlayerIdx + i) % players.size());
+            int status = player.getStatus();
 
-            if (player.getPosition().getPosNum() == board.getBettingPos()) {
+            if (player.getPosition() == board.getBettingPos()) {
                 return -1;
             }
 
-            if (status == PlayerStatus.PLAY || status == PlayerStatus.DISCONNECT_PLAYED) {
-                return player.getPosition().getPosNum();
+            if (status == PlayerStatus.PLAY.getStatusNum() || status == PlayerStatus.DISCONNECT_PLAYED.getStatusNum()) {
+                return player.getPosition();
             }
         }
 
@@ -219,14 +346,14 @@ public class BoardService {
      * @param boardId
      * @return
      */
-    @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public boolean isGameEnd(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        BoardDto board = tableStateStore.get(boardId);
         int actionableCount = 0;
-        for (Player player : board.getPlayers()) {
-            if (player.getStatus() == PlayerStatus.PLAY || player.getStatus() == PlayerStatus.DISCONNECT_PLAYED) {
+        for (PlayerDto player : board.getPlayers()) {
+            int status = player.getStatus();
+            if (status == PlayerStatus.PLAY.getStatusNum() || status == PlayerStatus.DISCONNECT_PLAYED.getStatusNum()) {
                 actionableCount++;
-            } else if(player.getStatus() == PlayerStatus.ALL_IN && player.getPosition().getPosNum() == board.getBettingPos()) {
+            } else if(status == PlayerStatus.ALL_IN.getStatusNum() && player.getPosition() == board.getBettingPos()) {
                 actionableCount++;
             }
         }
@@ -238,13 +365,12 @@ public class BoardService {
         return false;
     }
 
-    @Transactional
     public boolean isShowDown(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        BoardDto board = tableStateStore.get(boardId);
         int foldCount = 0;
-        List<Player> players = board.getPlayers();
-        for (Player player : players) {
-            if(player.getStatus().equals(PlayerStatus.FOLD) || player.getStatus().equals(PlayerStatus.DISCONNECT_FOLD)) {
+        List<PlayerDto> players = board.getPlayers();
+        for (PlayerDto player : players) {
+            if(player.getStatus() == PlayerStatus.FOLD.getStatusNum() || player.getStatus() == PlayerStatus.DISCONNECT_FOLD.getStatusNum()) {
                 foldCount++;
             }
         }
@@ -258,7 +384,7 @@ public class BoardService {
 
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public List<PlayerDto> chargeMoney(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         List<Player> players = board.getPlayers();
         List<PlayerDto> unChargePlayerList = new ArrayList<>();
 
@@ -275,13 +401,14 @@ public class BoardService {
             }
         }
 
+        tableStateStore.publish(board);
         return unChargePlayerList;
     }
 
 
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public void initBoard(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         List<Player> players = board.getPlayers();
         board.setPot(0);
         board.setBettingSize(0);
@@ -302,11 +429,12 @@ public class BoardService {
         List<Integer> totalCallSizeList = new ArrayList<>(Arrays.asList(0, 0, 0, 0, 0, 0));
         board.setTotalCallSize(totalCallSizeList);
         boardRepository.save(board);
+        tableStateStore.publish(board);
     }
 
     @Transactional
     public void dropDisconnectPlayers(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         List<Player> players = board.getPlayers();
         List<Player> disConnectedPlayers = new ArrayList<>();
         for (int i = 0; i < players.size(); i++) {
@@ -320,11 +448,15 @@ public class BoardService {
         players.removeAll(disConnectedPlayers);
         board.setTotalPlayer(players.size());
         playerRepository.deleteAll(disConnectedPlayers);
+        tableStateStore.publish(board);
+        for (Player player : disConnectedPlayers) {
+            seatAllocator.vacateAfterCommit(boardId, player.getPosition().getPosNum(), player.getUser().getUserId());
+        }
     }
 
     @Transactional
     public void refundOverBet(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
 
         int bettingPlayerIdx = getPlayerIdxByPos(board, board.getBettingPos());
         int bettingSize = board.getBettingSize();
@@ -345,6 +477,7 @@ public class BoardService {
         }
 
         if(board.getPhaseStatus().equals(PhaseStatus.PRE_FLOP) && maxCallSize == 0.5 * board.getBlind()) {
+            tableStateStore.publish(board);
             return;
         }
 
@@ -354,11 +487,12 @@ public class BoardService {
             overBetPlayer.setPhaseCallSize(maxCallSize);
             boardRepository.save(board);
         }
+        tableStateStore.publish(board);
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public BoardDto winOnePlayer(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         board.setPhaseStatus(PhaseStatus.END_GAME);
         List<Player> players = board.getPlayers();
         BoardDto boardDto = new BoardDto(board);
@@ -381,6 +515,7 @@ public class BoardService {
         }
 
         boardRepository.save(board);
+        tableStateStore.publish(board);
         return boardDto;
     }
 
@@ -390,10 +525,14 @@ public class BoardService {
      * 1. 오버벳 반환
      * 2. 승자 가리기
      * 3. 팟 분배하기 (사이드 팟 생각)
+     * <p>
+     * 24/02/22 chan
+     * refundOverBet 은 마지막 페이즈의 오버벳만 돌려준다. 그 외에 콜 받지 못한 금액은
+     * PotDistributorUtils 가 혼자 베팅한 층으로 계산해서 refundedMoney 로 돌려준다.
      */
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public BoardDto showDown(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         List<Player> players = board.getPlayers();
         board.setPhaseStatus(PhaseStatus.SHOWDOWN);
 //        refundOverBet(board);
@@ -403,18 +542,20 @@ public class BoardService {
 
         for (PlayerDto playerDto : boardDto.getPlayers()) {
             GameResultDto gameResult = playerDto.getGameResult();
-            if(gameResult.isWinner()) {
+            int amount = gameResult.getEarnedMoney() + gameResult.getRefundedMoney();
+            if(amount > 0) {
                 Player player = players.get(getPlayerIdxByPos(board, playerDto.getPosition()));
-                player.setMoney(player.getMoney() + gameResult.getEarnedMoney());
+                player.setMoney(player.getMoney() + amount);
             }
         }
         playerRepository.saveAll(players);
+        tableStateStore.publish(board);
         return boardDto;
     }
 
     private static BoardDto determineWinner(Board board) {
         List<Player> players = board.getPlayers();
-        List<Integer> communityCards = new ArrayList<>(List.of(board.getCommunityCard1(), board.getCommunityCard2(), board.getCommunityCard3(), board.getCommunityCard4(), board.getCommunityCard5()));
+        long communityCards = CardSet.of(board.getCommunityCard1(), board.getCommunityCard2(), board.getCommunityCard3(), board.getCommunityCard4(), board.getCommunityCard5());
         GameResultDto gameResultDto;
         BoardDto boardDto = new BoardDto(board);
 
@@ -424,9 +565,7 @@ public class BoardService {
             if (player.getStatus() == PlayerStatus.FOLD) {
                 gameResultDto = GameResultDto.builder().isWinner(false).build();
             } else {
-                ArrayList<Integer> cardPool = new ArrayList<>(List.copyOf(communityCards));
-                cardPool.add(player.getCard1());
-                cardPool.add(player.getCard2());
+                long cardPool = communityCards | CardSet.of(player.getCard1(), player.getCard2());
                 gameResultDto = HandCalculatorUtils.calculateValue(cardPool);
             }
             boardDto.getPlayers().get(i).setGameResult(gameResultDto);
@@ -443,7 +582,7 @@ public class BoardService {
      */
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public void initPhase(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         List<Player> players = board.getPlayers();
         List<Integer> totalCallSize = board.getTotalCallSize();
         for (int i = 0; i < players.size(); i++) {
@@ -454,6 +593,7 @@ public class BoardService {
         }
 
         board.setBettingSize(0);
+        tableStateStore.publish(board);
     }
 
     /**
@@ -463,7 +603,7 @@ public class BoardService {
      */
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public BoardDto nextPhase(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
 
         if (board.getPhaseStatus() == PhaseStatus.PRE_FLOP) {
             prepareNextPhase(board);
@@ -478,6 +618,7 @@ public class BoardService {
             board.setPhaseStatus(PhaseStatus.SHOWDOWN);
         }
         boardRepository.save(board);
+        tableStateStore.publish(board);
         return new BoardDto(board);
     }
 
@@ -514,7 +655,7 @@ public class BoardService {
     @Transactional(isolation = Isolation.READ_COMMITTED, propagation = Propagation.REQUIRES_NEW)
     public BoardDto startGame(Long boardId) {
 
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
         setBtnExistPlayer(board);
         takeAnte(board);
         setFirstActionPos(board);
@@ -527,29 +668,19 @@ public class BoardService {
         }
 
         board.setGameSeq(board.getGameSeq() + 1);
-        return new BoardDto(boardRepository.saveAndFlush(board));
+        boardRepository.saveAndFlush(board);
+        tableStateStore.publish(board);
+        return new BoardDto(board);
     }
 
 
     public void setBtnExistPlayer(Board board) {
-        List<Player> players = board.getPlayers();
-
         int nextBtn = (board.getBtn() + 1) % MAX_PLAYER;
 
-        while (true) {
-            boolean isExist = false;
-            for (int i = 0; i < players.size(); i++) {
-                Player player = players.get(i);
-                if (player.getPosition().getPosNum() == nextBtn) {
-                    board.setBtn(nextBtn);
-                    isExist = true;
-                }
-            }
-            if (isExist) {
-                break;
-            }
+        while (getPlayerIdxByPos(board, nextBtn) == -1) {
             nextBtn = (nextBtn + 1) % MAX_PLAYER;
         }
+        board.setBtn(nextBtn);
     }
 
     public void takeAnte(Board board) {
@@ -591,8 +722,38 @@ public class BoardService {
 
     }
 
+    /**
+     * 24/02/29 chan
+     * 보드 스냅샷의 SeatMap 으로 찾는다. 넘겨받은 players 가 스냅샷과 다르면 (구성이 바뀐 경우) 직접 찾는다.
+     */
+    public int getPlayerIdxByPos(BoardDto board, int posNum) {
+        List<PlayerDto> players = board.getPlayers();
+        SeatMap seats = tableStateStore.seats(board.getId());
+        int idx = seats.indexOf(posNum);
+        if (players.size() == seats.size() && (idx == -1 || players.get(idx).getPosition() == posNum)) {
+            return idx;
+        }
+
+        for (int i = 0; i < board.getTotalPlayer(); i++) {
+            if (players.get(i).getPosition() == posNum)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 엔티티의 players 도 포지션 순서이므로 스냅샷의 SeatMap 인덱스를 그대로 쓴다.
+     * 이번 트랜잭션에서 플레이어 구성이 바뀌어서 스냅샷과 다르면 직접 찾는다.
+     */
     public int getPlayerIdxByPos(Board board, int posNum) {
         List<Player> players = board.getPlayers();
+        SeatMap seats = tableStateStore.seats(board.getId());
+        int idx = seats.indexOf(posNum);
+        if (players.size() == seats.size() && (idx == -1 || players.get(idx).getPosition().getPosNum() == posNum)) {
+            return idx;
+        }
 
         for (int i = 0; i < board.getTotalPlayer(); i++) {
             Player player = players.get(i);
@@ -615,10 +776,10 @@ public class BoardService {
     @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
     public BoardDto get(Long boardId, Principal principal) {
         User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        BoardDto board = tableStateStore.get(boardId);
         boolean isAuthenticated = false;
-        for (Player p : board.getPlayers()) {
-            if (p.getUser().equals(user)) {
+        for (PlayerDto p : board.getPlayers()) {
+            if (p.getUserId().equals(user.getId())) {
                 isAuthenticated = true;
                 break;
             }
@@ -626,7 +787,7 @@ public class BoardService {
 
         if (!isAuthenticated)
             return null;
-        return new BoardDto(board);
+        return viewOf(board, principal.getName());
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
@@ -635,7 +796,7 @@ public class BoardService {
         List<Player> playerList = user.getPlayerList();
         List<BoardDto> context = new ArrayList<>();
         for (Player player : playerList) {
-            context.add(new BoardDto(player.getBoard()));
+            context.add(viewOf(tableStateStore.get(player.getBoard().getId()), principal.getName()));
         }
         return context;
     }
@@ -643,8 +804,7 @@ public class BoardService {
     public void sitIn(Board board, Player joinPlayer) {
         List<Player> players = board.getPlayers();
         boolean[] isExistSeat = new boolean[MAX_PLAYER];
-        Random random = new Random();
-        int pos = random.nextInt(MAX_PLAYER);
+        int pos = ThreadLocalRandom.current().nextInt(MAX_PLAYER);
 
         for (Player player : players) {
             isExistSeat[player.getPosition().ordinal()] = true;
@@ -654,13 +814,27 @@ public class BoardService {
             if (isExistSeat[pos]) {
                 pos = (pos + 1) % MAX_PLAYER;
             } else {
-                joinPlayer.setPosition(Position.getPositionByNumber(pos));
-                players.add(joinPlayer);
-                board.setTotalPlayer(board.getTotalPlayer() + 1);
+                sitIn(board, joinPlayer, pos);
                 break;
             }
         }
     }
+
+    /**
+     * 24/02/29 chan
+     * 정해진 포지션에 앉는다. players 를 포지션 순서로 유지한다. (SeatMap 인덱스)
+     */
+    public void sitIn(Board board, Player joinPlayer, int pos) {
+        List<Player> players = board.getPlayers();
+        int idx = 0;
+        while (idx < players.size() && players.get(idx).getPosition().getPosNum() < pos) {
+            idx++;
+        }
+        joinPlayer.setPosition(Position.getPositionByNumber(pos));
+        players.add(idx, joinPlayer);
+        board.setTotalPlayer(board.getTotalPlayer() + 1);
+    }
+
     public void setBtnPrevPlayer(Board board) {
 
         int btnPlayerIdx = getPlayerIdxByPos(board, board.getBtn());
@@ -691,15 +865,14 @@ public class BoardService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void sitOut(BoardDto boardDto, String userId) {
         User user = userRepository.findByUserId(userId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        Board board = boardRepository.findById(boardDto.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardDto.getId());
         List<Player> players = board.getPlayers();
 
         Optional<Player> exitPlayer = Optional.empty();
-        for (Player player : players) {
-            if (player.getUser().equals(user)) {
-
-                exitPlayer = Optional.of(playerRepository.findById(player.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST)));
-                break;
+        if (tableStateStore.seats(board.getId()).contains(userId)) {
+            int playerIdx = getPlayerIdxByPos(board, tableStateStore.seats(board.getId()).positionOf(userId));
+            if (playerIdx != -1) {
+                exitPlayer = Optional.of(players.get(playerIdx));
             }
         }
 
@@ -723,13 +896,15 @@ public class BoardService {
             board.setTotalPlayer(board.getTotalPlayer() - 1);
             playerRepository.delete(player);
             boardRepository.save(board);
+            tableStateStore.publish(board);
+            seatAllocator.vacateAfterCommit(board.getId(), player.getPosition().getPosNum(), userId);
         }
 
     }
 
     @Transactional
     public void dropMoneyLessPlayers(Long boardId, List<PlayerDto> moneyLessPlayers) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = findBoard(boardId);
 
         for (PlayerDto moneyLessPlayer : moneyLessPlayers) {
             Player player = playerRepository.findById(moneyLessPlayer.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
@@ -738,44 +913,56 @@ public class BoardService {
         }
 
         board.setTotalPlayer(board.getTotalPlayer() - moneyLessPlayers.size());
+        tableStateStore.publish(board);
     }
 
-    @Transactional
+    /**
+     * 24/02/29 chan
+     * Player 의 User 를 읽지 않고 보드 스냅샷의 SeatMap 으로 확인한다.
+     */
     public boolean isSeatInBoard(Board board, String userId) {
-        List<Player> players = board.getPlayers();
-        for (Player player : players) {
-            if (player.getUser().getUserId().equals(userId))
-                return true;
-        }
-        return false;
+        return tableStateStore.seats(board.getId()).contains(userId);
     }
 
-    private void dealCard(Board board) {
-        Set<Integer> cards = new HashSet<>();
-        Random random = new Random();
-        int playerCardIdxPrefix = 5;
-        int cardSize = board.getTotalPlayer() * 2 + 5;
-
-        while (cards.size() < cardSize) {
-            int randomNumber = random.nextInt(52);
-            cards.add(randomNumber);
+    /**
+     * 24/02/19 chan
+     * 홀카드를 가리는 경우 조회한 사람의 홀카드만 남긴다.
+     */
+    private BoardDto viewOf(BoardDto board, String userId) {
+        if (!hideHoleCards) {
+            return board;
         }
+        return BoardViewUtils.privateView(BoardViewUtils.publicView(board, false), board, userId);
+    }
+
+    /**
+     * 24/02/14 chan
+     * 보드를 변경하기 위해 엔티티를 읽을 때는 메모리에만 반영된 액션 순서를 먼저 엔티티에 반영한다.
+     * 24/02/29 chan 플레이어와 유저는 findGameBoardById 로 함께 읽는다.
+     */
+    private Board findBoard(Long boardId) {
+        Board board = boardRepository.findGameBoardById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        tableStateStore.applyPending(board);
+        return board;
+    }
 
-        List<Integer> cardList = new ArrayList<>(cards);
-        board.setCommunityCard1(cardList.get(0));
-        board.setCommunityCard2(cardList.get(1));
-        board.setCommunityCard3(cardList.get(2));
-        board.setCommunityCard4(cardList.get(3));
-        board.setCommunityCard5(cardList.get(4));
+    /**
+     * dealCard - 24/02/21 chan
+     * 테이블의 덱을 reset 하고 커뮤니티 카드 5장, 플레이어별 2장을 뽑은 순서대로 나눠준다.
+     */
+    private void dealCard(Board board) {
+        Deck deck = tableDeckStore.get(board.getId());
+        deck.reset();
 
-        List<Player> players = board.getPlayers();
+        board.setCommunityCard1(deck.deal());
+        board.setCommunityCard2(deck.deal());
+        board.setCommunityCard3(deck.deal());
+        board.setCommunityCard4(deck.deal());
+        board.setCommunityCard5(deck.deal());
 
-        for (Player player : players) {
-            int playerCard = cardList.get(playerCardIdxPrefix);
-            int playerCard2 = cardList.get(playerCardIdxPrefix + 1);
-            player.setCard1(playerCard);
-            player.setCard2(playerCard2);
-            playerCardIdxPrefix += 2;
+        for (Player player : board.getPlayers()) {
+            player.setCard1(deck.deal());
+            player.setCard2(deck.deal());
         }
     }
 }
@@ -0,0 +1,139 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.*;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.utils.EquityCalculatorUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EquityService {
+
+    @Value("${poker.equity.sample-size:200000}")
+    private int defaultSampleSize;
+    @Value("${poker.equity.exhaustive-limit:300000}")
+    private long exhaustiveLimit;
+    @Value("${poker.equity.parallelism:0}")
+    private int parallelism;
+    @Value("${poker.equity.showdown-timeout-ms:500}")
+    private long showDownTimeoutMs;
+
+    private static final int MAX_SAMPLE_SIZE = 5000000;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    public EquityResultDto calculate(EquityRequestDto request) {
+        int sampleSize = request.getSampleSize() == null ? defaultSampleSize : request.getSampleSize();
+        if (sampleSize <= 0 || sampleSize > MAX_SAMPLE_SIZE || request.getHands() == null || request.getCommunityCards() == null) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+
+        int[][] hands = new int[request.getHands().size()][];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = toArray(request.getHands().get(i));
+        }
+
+        try {
+            return EquityCalculatorUtils.calculate(pool, hands, toArray(request.getCommunityCards()),
+                    sampleSize, exhaustiveLimit, System.nanoTime());
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * calculateAllInEquity
+     * <p>
+     * 리버 이전에 올인으로 게임이 끝난 경우, 그 시점에 공개된 커뮤니티 카드 기준으로 남은 플레이어들의 에퀴티를 계산한다.
+     * 쇼다운 처리와 겹쳐서 실행되도록 ForkJoinPool 에서 비동기로 계산한다.
+     * 24/02/29 chan showDownTimeoutMs 안에 끝나지 않으면 TimeoutException 으로 완료하고, 남은 하위 작업도 멈춘다.
+     *
+     * @param boardDto 쇼다운 직전의 보드
+     * @return userId -> 에퀴티. 계산할 필요가 없으면 null
+     */
+    public CompletableFuture<Map<Long, EquityDto>> calculateAllInEquity(BoardDto boardDto) {
+        int revealedCardSize = getRevealedCardSize(boardDto.getPhaseStatus());
+        if (revealedCardSize == -1) {
+            return null;
+        }
+
+        List<Long> userIds = new ArrayList<>();
+        List<int[]> hands = new ArrayList<>();
+        for (PlayerDto player : boardDto.getPlayers()) {
+            PlayerStatus status = PlayerStatus.valueOf(player.getStatus());
+            if (status != PlayerStatus.FOLD && status != PlayerStatus.DISCONNECT_FOLD) {
+                userIds.add(player.getUserId());
+                hands.add(new int[]{player.getCard1(), player.getCard2()});
+            }
+        }
+
+        if (hands.size() < 2) {
+            return null;
+        }
+
+        int[] communityCards = Arrays.copyOf(new int[]{boardDto.getCommunityCard1(), boardDto.getCommunityCard2(),
+                boardDto.getCommunityCard3(), boardDto.getCommunityCard4(), boardDto.getCommunityCard5()}, revealedCardSize);
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        return CompletableFuture.supplyAsync(() -> {
+            EquityResultDto result = EquityCalculatorUtils.calculate(pool, hands.toArray(new int[0][]), communityCards,
+                    defaultSampleSize, exhaustiveLimit, System.nanoTime(), cancelled::get);
+            Map<Long, EquityDto> equityMap = new HashMap<>();
+            for (int i = 0; i < userIds.size(); i++) {
+                equityMap.put(userIds.get(i), result.getEquities().get(i));
+            }
+            return equityMap;
+        }, pool).orTimeout(showDownTimeoutMs, TimeUnit.MILLISECONDS).whenComplete((equityMap, e) -> {
+            if (e != null) {
+                cancelled.set(true);
+            }
+        });
+    }
+
+    private static int getRevealedCardSize(int phaseStatus) {
+        if (phaseStatus == PhaseStatus.PRE_FLOP.ordinal()) {
+            return 0;
+        } else if (phaseStatus == PhaseStatus.FLOP.ordinal()) {
+            return 3;
+        } else if (phaseStatus == PhaseStatus.TURN.ordinal()) {
+            return 4;
+        }
+        return -1;
+    }
+
+    private static int[] toArray(List<Integer> cards) {
+        if (cards == null) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+        int[] result = new int[cards.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = cards.get(i);
+        }
+        return result;
+    }
+}
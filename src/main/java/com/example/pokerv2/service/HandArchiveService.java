@@ -0,0 +1,223 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.UserDto;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.UserHandHistory;
+import com.example.pokerv2.repository.ActionRepository;
+import com.example.pokerv2.repository.HandHistoryRepository;
+import com.example.pokerv2.utils.HandHistoryCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/27 chan
+ * <p>
+ * 끝난 핸드를 압축해서 보관하는 서비스.
+ * <p>
+ * HUD 까지 반영한 핸드를 HandHistoryCodec 으로 압축해서 HandHistory.archive 에 넣고,
+ * 액션, 포지션, 카드, 쇼다운/승자 목록 행은 지운다. HandHistory 와 UserHandHistory 행은 유저별 조회를 위해 남긴다.
+ * 세그먼트 저장소가 켜져 있으면 커밋된 뒤에 세그먼트 파일에도 이어 쓴다.
+ * <p>
+ * 24/02/29 chan
+ * 세그먼트에 이어 쓰면 HandHistory.segmented 를 표시한다. 이어 쓰기에 실패했거나 표시하기 전에 서버가 내려간 핸드는 false 로 남으므로
+ * 서버가 시작될 때와 이어 쓰기에 실패한 뒤의 다음 보관 때 DB 의 archive 로 다시 이어 쓴다.
+ * 세그먼트에 쓰고 표시하기 전에 내려간 경우에는 이미 레코드가 있으므로 표시만 한다. (같은 핸드를 두번 쓰지 않는다.)
+ * <p>
+ * poker.hand-archive.enabled=true 이면 poker.hand-archive.interval 초마다 poker.hand-archive.batch-size 개씩 오래된 핸드부터 보관한다.
+ */
+@Slf4j
+@Service
+public class HandArchiveService {
+
+    private final HandHistoryRepository handHistoryRepository;
+    private final ActionRepository actionRepository;
+    private final HandSegmentStore handSegmentStore;
+    private final HandSegmentReader handSegmentReader;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate markTransaction;
+
+    @Value("${poker.hand-archive.enabled:false}")
+    private boolean enabled;
+    @Value("${poker.hand-archive.interval:60}")
+    private long interval;
+    @Value("${poker.hand-archive.batch-size:200}")
+    private int batchSize;
+
+    private ScheduledThreadPoolExecutor scheduler;
+    private volatile boolean segmentFailed;
+
+    public HandArchiveService(HandHistoryRepository handHistoryRepository, ActionRepository actionRepository,
+                              HandSegmentStore handSegmentStore, HandSegmentReader handSegmentReader,
+                              PlatformTransactionManager transactionManager) {
+        this.handHistoryRepository = handHistoryRepository;
+        this.actionRepository = actionRepository;
+        this.handSegmentStore = handSegmentStore;
+        this.handSegmentReader = handSegmentReader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // afterCommit 에서도 쓰므로 끝난 트랜잭션에 참여하지 않도록 새 트랜잭션으로 표시한다.
+        this.markTransaction = new TransactionTemplate(transactionManager);
+        this.markTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("hand-archive-"));
+        scheduler.scheduleWithFixedDelay(this::archiveBatch, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 이번에 보관한 핸드 수
+     */
+    public int archiveBatch() {
+        int archived = 0;
+        try {
+            if (segmentFailed) {
+                appendUnsegmented();
+            }
+            for (Long handHistoryId : handHistoryRepository.findArchivableIds(PageRequest.of(0, batchSize))) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> archive(handHistoryId)))) {
+                    archived++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("hand archive failed", e);
+        }
+        return archived;
+    }
+
+    /**
+     * 트랜잭션 안에서 호출해야 한다.
+     * @return 이번 호출에서 보관했으면 true. 이미 보관했거나 보관할 수 없는 핸드면 false
+     */
+    private boolean archive(Long handHistoryId) {
+        HandHistory handHistory = handHistoryRepository.findById(handHistoryId).orElse(null);
+        if (handHistory == null || handHistory.getArchive() != null || !handHistory.isFinish() || !handHistory.isHudApplied()) {
+            return false;
+        }
+
+        List<UserDto> userList = new ArrayList<>();
+        for (UserHandHistory userHandHistory : handHistory.getUserList()) {
+            UserDto userDto = new UserDto();
+            userDto.setId(userHandHistory.getUser().getId());
+            userList.add(userDto);
+        }
+        byte[] data = HandHistoryCodec.encode(new HandHistoryDto(handHistory, userList));
+
+        handHistory.setArchive(data);
+        handHistory.getActionList().clear();
+        handHistory.getPosList().clear();
+        handHistory.getCardList().clear();
+        handHistory.getShowDownUserIdList().clear();
+        handHistory.getWinnerUserIdList().clear();
+        actionRepository.deleteByHandHistoryId(handHistoryId);
+
+        if (handSegmentStore.isEnabled()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendSegment(handHistoryId, data);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 서버가 시작되면 보관했지만 세그먼트에 썼다고 표시하지 못한 핸드를 이어 쓴다.
+     * 보관과 겹쳐서 같은 핸드를 두번 쓰지 않도록 보관 스레드에서 실행한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void appendUnsegmentedOnStart() {
+        Runnable task = () -> {
+            try {
+                appendUnsegmented();
+            } catch (Exception e) {
+                log.error("unsegmented hand append failed", e);
+                segmentFailed = true;
+            }
+        };
+        if (scheduler != null) {
+            scheduler.execute(task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 세그먼트에 이미 레코드가 있으면 (쓰고 표시하기 전에 내려간 경우) 표시만 한다.
+     *
+     * @return 이어 쓰거나 표시한 핸드 수
+     */
+    int appendUnsegmented() {
+        if (!handSegmentStore.isEnabled()) {
+            return 0;
+        }
+
+        segmentFailed = false;
+        int appended = 0;
+        List<Long> handHistoryIds;
+        while (!(handHistoryIds = handHistoryRepository.findUnsegmentedIds(PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Long handHistoryId : handHistoryIds) {
+                byte[] data = handSegmentReader.contains(handHistoryId) ? null
+                        : handHistoryRepository.findById(handHistoryId).map(HandHistory::getArchive).orElse(null);
+                if (!appendSegment(handHistoryId, data)) {
+                    return appended;
+                }
+                appended++;
+            }
+        }
+        if (appended > 0) {
+            log.info("unsegmented hands appended. size = {}", appended);
+        }
+        return appended;
+    }
+
+    /**
+     * 세그먼트에 이어 쓰고 segmented 를 표시한다. data 가 null 이면 표시만 한다.
+     * 실패하면 다음 보관 때 appendUnsegmented 로 다시 쓴다.
+     *
+     * @return 표시까지 했으면 true
+     */
+    private boolean appendSegment(Long handHistoryId, byte[] data) {
+        try {
+            if (data != null) {
+                handSegmentStore.append(handHistoryId, data);
+            }
+            markTransaction.executeWithoutResult(status -> handHistoryRepository.markSegmented(handHistoryId));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("hand segment append failed. handHistoryId = {}", handHistoryId, e);
+            segmentFailed = true;
+            return false;
+        }
+    }
+}
@@ -3,21 +3,25 @@ package com.example.pokerv2.service;
 import com.example.pokerv2.dto.BoardDto;
 import com.example.pokerv2.dto.GameResultDto;
 import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.HandHistoryPageDto;
 import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.UserDto;
 import com.example.pokerv2.enums.PhaseStatus;
 import com.example.pokerv2.error.CustomException;
 import com.example.pokerv2.error.ErrorCode;
 import com.example.pokerv2.model.*;
 import com.example.pokerv2.repository.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.parameters.P;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,10 +31,13 @@ public class HandHistoryService {
     private final BoardRepository boardRepository;
     private final UserRepository userRepository;
     private final UserHandHistoryRepository userHandHistoryRepository;
+    private final ActionService actionService;
+    private final TableStateStore tableStateStore;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
     public HandHistory createHandHistory(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        Board board = boardRepository.findGameBoardById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
 
         List<UserHandHistory> connectionList = new ArrayList<>();
         List<Integer> cardList = new ArrayList<>();
@@ -56,24 +63,27 @@ public class HandHistoryService {
         return handHistory;
     }
 
+    /**
+     * 24/02/29 chan
+     * 페이즈 중의 액션은 메모리의 보드 스냅샷에만 있으므로 팟은 스냅샷으로 계산한다.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void savePhaseHistory(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Player> players = board.getPlayers();
+        BoardDto board = tableStateStore.get(boardId);
         HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(board.getId(), board.getGameSeq()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
         int potAmount = board.getPot();
 
-        for (Player player : players) {
+        for (PlayerDto player : board.getPlayers()) {
             potAmount += player.getPhaseCallSize();
         }
 
-        if(board.getPhaseStatus() == PhaseStatus.PRE_FLOP) {
+        if(board.getPhaseStatus() == PhaseStatus.PRE_FLOP.ordinal()) {
             handHistory.setPotAmountPf(potAmount);
-        } else if (board.getPhaseStatus() == PhaseStatus.FLOP) {
+        } else if (board.getPhaseStatus() == PhaseStatus.FLOP.ordinal()) {
             handHistory.setPotAmountFlop(potAmount);
-        } else if (board.getPhaseStatus() == PhaseStatus.TURN) {
+        } else if (board.getPhaseStatus() == PhaseStatus.TURN.ordinal()) {
             handHistory.setPotAmountTurn(potAmount);
-        } else if (board.getPhaseStatus() == PhaseStatus.RIVER) {
+        } else if (board.getPhaseStatus() == PhaseStatus.RIVER.ordinal()) {
             handHistory.setPotAmountRiver(potAmount);
         } else throw new CustomException(ErrorCode.BAD_REQUEST);
     }
@@ -84,6 +94,7 @@ public class HandHistoryService {
         List<PlayerDto> players = boardDto.getPlayers();
         List<Long> showDownUserIdList = handHistory.getShowDownUserIdList();
         handHistory.setFinish(true);
+        actionService.flush(handHistory);
         int phaseStatus = boardDto.getPhaseStatus();
 
         if(phaseStatus == PhaseStatus.SHOWDOWN.ordinal()) {
@@ -92,6 +103,9 @@ public class HandHistoryService {
                 if(gameResult.getHandValue() != 0L) {
                     showDownUserIdList.add(player.getUserId());
                 }
+                if(gameResult.isWinner()) {
+                    handHistory.getWinnerUserIdList().add(player.getUserId());
+                }
             }
         }
     }
@@ -107,7 +121,6 @@ public class HandHistoryService {
                 HandHistory handHistory = userHandHistory.getHandHistory();
                 if(handHistory.isFinish()) {
                     handHistoryList.add(new HandHistoryDto(handHistory));
-                    System.out.println(new HandHistoryDto(handHistory));
                 }
             }
         }
@@ -115,4 +128,54 @@ public class HandHistoryService {
         return handHistoryList;
     }
 
+    /**
+     * getPage - 24/02/26 chan
+     * 핸드 히스토리를 cursor 기준으로 한 페이지씩 조회한다.
+     * 페이지 크기와 상관없이 쿼리 수가 정해져 있다. (유저 1, 핸드 1, 액션 1, 포지션/카드/쇼다운 유저/승자 유저 4, 참여 유저 1)
+     * 참여 유저의 hud 는 채우지 않는다.
+     *
+     * @param cursor 이전 페이지의 nextCursor. 첫 페이지는 null
+     * @param size 1 ~ MAX_PAGE_SIZE
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public HandHistoryPageDto getPage(String userId, Long cursor, int size) {
+        User user = userRepository.findByUserId(userId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+
+        List<HandHistory> page = handHistoryRepository.findPageByUserId(user.getId(), cursor == null ? Long.MAX_VALUE : cursor, PageRequest.of(0, size + 1));
+        Long nextCursor = null;
+        if(page.size() > size) {
+            page = page.subList(0, size);
+            nextCursor = page.get(size - 1).getId();
+        }
+        if(page.isEmpty()) {
+            return new HandHistoryPageDto(new ArrayList<>(), null);
+        }
+
+        List<Long> ids = new ArrayList<>(page.size());
+        for (HandHistory handHistory : page) {
+            ids.add(handHistory.getId());
+        }
+        handHistoryRepository.fetchActionList(ids);
+        handHistoryRepository.fetchPosList(ids);
+        handHistoryRepository.fetchCardList(ids);
+        handHistoryRepository.fetchShowDownUserIdList(ids);
+        handHistoryRepository.fetchWinnerUserIdList(ids);
+
+        Map<Long, List<UserDto>> userListById = new HashMap<>();
+        for (Object[] row : handHistoryRepository.findUserRowsByHandHistoryIds(ids)) {
+            UserDto userDto = new UserDto((Long) row[1], (String) row[2], (String) row[3], (Integer) row[4], null, (String) row[5]);
+            userListById.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(userDto);
+        }
+
+        List<HandHistoryDto> handHistoryList = new ArrayList<>(page.size());
+        for (HandHistory handHistory : page) {
+            handHistoryList.add(new HandHistoryDto(handHistory, userListById.getOrDefault(handHistory.getId(), new ArrayList<>())));
+        }
+
+        return new HandHistoryPageDto(handHistoryList, nextCursor);
+    }
+
 }
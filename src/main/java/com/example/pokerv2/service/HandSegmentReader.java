@@ -0,0 +1,362 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.enums.HudCounter;
+import com.example.pokerv2.utils.HandHistoryCodec;
+import com.example.pokerv2.utils.HudCalculatorUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 24/02/28 chan
+ * <p>
+ * HandSegmentStore 가 쓴 세그먼트 파일을 읽는 곳. HUD 재계산, 감사, 분석처럼 보관된 핸드 전체를 훑을 때 쓴다.
+ * <p>
+ * 세그먼트 파일은 FileChannel.map 으로 읽기 전용 매핑하고, 레코드는 매핑된 버퍼의 slice 로 넘기므로 복사하지 않는다.
+ * 세그먼트를 처음 읽을 때 한번 훑어서 핸드 id, 보드 id, 유저 id 인덱스를 만들고, 파일 크기가 그대로면 다시 만들지 않는다.
+ * 쓰는 중인 마지막 세그먼트는 크기가 바뀌면 다시 매핑한다. 끝의 잘린 레코드는 무시한다.
+ * <p>
+ * 24/02/29 chan
+ * 마지막이 아닌 세그먼트는 저장소가 다음 세그먼트로 넘어간 뒤로 바뀌지 않으므로 한번 읽은 뒤에는 파일을 열지 않는다. (sealed)
+ * 마지막 세그먼트만 파일 크기를 확인하고, 커졌으면 이미 읽은 곳 뒤의 새 레코드만 매핑해서 chunk 로 덧붙인다.
+ * 파일 전체를 다시 매핑하지 않으므로 이전 매핑을 버리지 않고 계속 쓴다. chunk 가 MAX_CHUNKS 개를 넘으면 전체를 한번 다시 매핑해서 합치고,
+ * 이전 매핑은 더 이상 참조하는 곳이 없어지면 GC 가 해제한다.
+ * <p>
+ * HandHistory 엔티티를 만들지 않고 HandHistoryCodec 으로 HandHistoryDto 만 되돌린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HandSegmentReader {
+
+    private static final int MAX_CHUNKS = 16;
+
+    private final HandSegmentStore handSegmentStore;
+    private final Map<Path, Segment> segments = new ConcurrentHashMap<>();
+
+    public interface RecordVisitor {
+        /**
+         * @param data 압축된 핸드. 매핑된 버퍼의 읽기 전용 slice 이므로 방문이 끝난 뒤에 들고 있으면 안 된다.
+         */
+        void visit(long handHistoryId, ByteBuffer data);
+    }
+
+    /**
+     * 모든 세그먼트의 레코드를 핸드를 되돌리지 않고 순서대로 넘긴다.
+     */
+    public void forEachRecord(RecordVisitor visitor) {
+        List<Path> paths = handSegmentStore.segments();
+        for (int p = 0; p < paths.size(); p++) {
+            for (Chunk chunk : segment(paths, p).chunks) {
+                for (int i = 0; i < chunk.size; i++) {
+                    visitor.visit(chunk.handHistoryIds[i], chunk.record(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 모든 세그먼트의 핸드를 하나씩 되돌리는 iterator. 세그먼트는 필요할 때 매핑한다.
+     */
+    public Iterator<HandHistoryDto> iterator() {
+        List<Path> paths = handSegmentStore.segments();
+
+        return new Iterator<>() {
+            private int pathIdx;
+            private Iterator<Chunk> chunks = Collections.emptyIterator();
+            private Chunk chunk;
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk == null || idx >= chunk.size) {
+                    if (!chunks.hasNext()) {
+                        if (pathIdx >= paths.size()) {
+                            return false;
+                        }
+                        chunks = segment(paths, pathIdx++).chunks.iterator();
+                        continue;
+                    }
+                    chunk = chunks.next();
+                    idx = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public HandHistoryDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.decode(idx++);
+            }
+        };
+    }
+
+    public Optional<HandHistoryDto> findByHandHistoryId(Long handHistoryId) {
+        List<Path> paths = handSegmentStore.segments();
+        for (int p = 0; p < paths.size(); p++) {
+            for (Chunk chunk : segment(paths, p).chunks) {
+                int idx = chunk.indexOf(handHistoryId);
+                if (idx != -1) {
+                    return Optional.of(chunk.decode(idx));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 24/02/29 chan
+     * @return 핸드의 레코드가 세그먼트에 있으면 true. 핸드를 되돌리지 않는다.
+     */
+    public boolean contains(Long handHistoryId) {
+        List<Path> paths = handSegmentStore.segments();
+        for (int p = 0; p < paths.size(); p++) {
+            for (Chunk chunk : segment(paths, p).chunks) {
+                if (chunk.indexOf(handHistoryId) != -1) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public List<HandHistoryDto> findByBoardId(Long boardId) {
+        List<HandHistoryDto> hands = new ArrayList<>();
+        List<Path> paths = handSegmentStore.segments();
+        for (int p = 0; p < paths.size(); p++) {
+            for (Chunk chunk : segment(paths, p).chunks) {
+                for (int idx : chunk.boardIndex.getOrDefault(boardId, new int[0])) {
+                    hands.add(chunk.decode(idx));
+                }
+            }
+        }
+        return hands;
+    }
+
+    public List<HandHistoryDto> findByUserId(Long userId) {
+        List<HandHistoryDto> hands = new ArrayList<>();
+        List<Path> paths = handSegmentStore.segments();
+        for (int p = 0; p < paths.size(); p++) {
+            for (Chunk chunk : segment(paths, p).chunks) {
+                for (int idx : chunk.userIndex.getOrDefault(userId, new int[0])) {
+                    hands.add(chunk.decode(idx));
+                }
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * 보관된 모든 핸드로 HUD 카운터를 다시 계산한다. DB 의 Hud 는 바꾸지 않는다.
+     *
+     * @return userId -> HudCounter.ordinal() 별 합계
+     */
+    public Map<Long, int[]> recomputeHud() {
+        Map<Long, int[]> totals = new HashMap<>();
+        int counterSize = HudCounter.values().length;
+        Iterator<HandHistoryDto> hands = iterator();
+
+        while (hands.hasNext()) {
+            for (Map.Entry<Long, int[]> entry : HudCalculatorUtils.calculate(hands.next()).entrySet()) {
+                int[] total = totals.computeIfAbsent(entry.getKey(), u -> new int[counterSize]);
+                int[] delta = entry.getValue();
+                for (int i = 0; i < counterSize; i++) {
+                    total[i] += delta[i];
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @param idx 세그먼트 목록에서의 위치. 마지막 세그먼트만 쓰는 중이다.
+     */
+    private Segment segment(List<Path> paths, int idx) {
+        Path path = paths.get(idx);
+        boolean active = idx == paths.size() - 1;
+        Segment cached = segments.get(path);
+        if (cached != null && cached.sealed) {
+            return cached;
+        }
+
+        try {
+            long fileSize = Files.size(path);
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("hand segment is too large to map: " + path);
+            }
+
+            Segment segment;
+            if (cached != null && cached.fileSize == fileSize) {
+                if (active) {
+                    return cached;
+                }
+                segment = new Segment(cached.chunks, fileSize, cached.end, true);
+            } else if (cached == null || fileSize < cached.end || cached.chunks.size() >= MAX_CHUNKS) {
+                Chunk chunk = map(path, 0, fileSize);
+                segment = new Segment(List.of(chunk), fileSize, chunk.end, !active);
+            } else {
+                // 이미 읽은 레코드 뒤만 매핑한다. 잘려서 무시했던 레코드는 여기서 다시 읽는다.
+                Chunk chunk = map(path, cached.end, fileSize);
+                List<Chunk> chunks = cached.chunks;
+                if (chunk.size > 0) {
+                    chunks = new ArrayList<>(cached.chunks);
+                    chunks.add(chunk);
+                    chunks = List.copyOf(chunks);
+                }
+                segment = new Segment(chunks, fileSize, chunk.end, !active);
+            }
+            segments.put(path, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Chunk map(Path path, long start, long fileSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, fileSize - start), start, path);
+        }
+    }
+
+    /**
+     * 세그먼트 파일 하나를 읽은 결과. 바꾸지 않고 새로 만들어서 교체한다.
+     * end 는 마지막으로 다 읽은 레코드의 끝 위치이고, sealed 이면 더 이상 파일을 확인하지 않는다.
+     */
+    private static final class Segment {
+        private final List<Chunk> chunks;
+        private final long fileSize;
+        private final long end;
+        private final boolean sealed;
+
+        private Segment(List<Chunk> chunks, long fileSize, long end, boolean sealed) {
+            this.chunks = chunks;
+            this.fileSize = fileSize;
+            this.end = end;
+            this.sealed = sealed;
+        }
+    }
+
+    /**
+     * 세그먼트 파일의 매핑 하나. start 가 0 이면 헤더부터 매핑한 것이다.
+     */
+    private static final class Chunk {
+        private final MappedByteBuffer buffer;
+        private final long end;
+        private final int size;
+        private final long[] handHistoryIds;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final boolean sorted;
+        private final Map<Long, int[]> boardIndex;
+        private final Map<Long, int[]> userIndex;
+
+        /**
+         * 레코드를 한번 훑으면서 인덱스를 만든다. 매핑된 버퍼는 절대 위치로만 읽으므로 여러 스레드에서 같이 읽어도 된다.
+         */
+        private Chunk(MappedByteBuffer buffer, long start, Path path) {
+            this.buffer = buffer;
+
+            int limit = buffer.capacity();
+            if (start == 0 && (limit < HandSegmentStore.HEADER_SIZE || buffer.getInt(0) != HandSegmentStore.MAGIC || buffer.getInt(Integer.BYTES) != HandSegmentStore.VERSION)) {
+                throw new IllegalStateException("not a hand segment: " + path);
+            }
+
+            long[] ids = new long[64];
+            int[] recordOffsets = new int[64];
+            int[] recordLengths = new int[64];
+            Map<Long, List<Integer>> boards = new HashMap<>();
+            Map<Long, List<Integer>> users = new HashMap<>();
+            boolean ascending = true;
+            int count = 0;
+            int pos = start == 0 ? HandSegmentStore.HEADER_SIZE : 0;
+
+            while (pos + HandSegmentStore.RECORD_HEADER_SIZE <= limit) {
+                int length = buffer.getInt(pos);
+                int dataOffset = pos + HandSegmentStore.RECORD_HEADER_SIZE;
+                if (length < 0 || length > limit - dataOffset) {
+                    log.warn("truncated hand segment record. path = {}, offset = {}", path, start + pos);
+                    break;
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    recordOffsets = Arrays.copyOf(recordOffsets, count * 2);
+                    recordLengths = Arrays.copyOf(recordLengths, count * 2);
+                }
+
+                long handHistoryId = buffer.getLong(pos + Integer.BYTES);
+                ascending &= count == 0 || ids[count - 1] < handHistoryId;
+                ids[count] = handHistoryId;
+                recordOffsets[count] = dataOffset;
+                recordLengths[count] = length;
+
+                ByteBuffer data = buffer.slice(dataOffset, length);
+                boards.computeIfAbsent(HandHistoryCodec.readBoardId(data), b -> new ArrayList<>()).add(count);
+                for (long userId : HandHistoryCodec.readUserIds(data)) {
+                    users.computeIfAbsent(userId, u -> new ArrayList<>()).add(count);
+                }
+
+                count++;
+                pos = dataOffset + length;
+            }
+
+            this.end = start + pos;
+            this.size = count;
+            this.handHistoryIds = ids;
+            this.offsets = recordOffsets;
+            this.lengths = recordLengths;
+            this.sorted = ascending;
+            this.boardIndex = toIndex(boards);
+            this.userIndex = toIndex(users);
+        }
+
+        private ByteBuffer record(int idx) {
+            return buffer.slice(offsets[idx], lengths[idx]).asReadOnlyBuffer();
+        }
+
+        private HandHistoryDto decode(int idx) {
+            HandHistoryDto hand = HandHistoryCodec.decode(buffer.slice(offsets[idx], lengths[idx]));
+            hand.setId(handHistoryIds[idx]);
+            return hand;
+        }
+
+        private int indexOf(long handHistoryId) {
+            if (sorted) {
+                int idx = Arrays.binarySearch(handHistoryIds, 0, size, handHistoryId);
+                return idx >= 0 ? idx : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (handHistoryIds[i] == handHistoryId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static Map<Long, int[]> toIndex(Map<Long, List<Integer>> lists) {
+            Map<Long, int[]> index = new HashMap<>(lists.size() * 2);
+            for (Map.Entry<Long, List<Integer>> entry : lists.entrySet()) {
+                List<Integer> list = entry.getValue();
+                int[] idxs = new int[list.size()];
+                for (int i = 0; i < idxs.length; i++) {
+                    idxs[i] = list.get(i);
+                }
+                index.put(entry.getKey(), idxs);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.pokerv2.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 24/02/27 chan
+ * <p>
+ * 보관한 핸드를 로컬 디스크의 세그먼트 파일에 이어 쓰는 저장소. (append-only)
+ * <p>
+ * poker.hand-archive.segment-dir 이 비어있으면 쓰지 않는다.
+ * 세그먼트 파일 이름은 hands-{첫 핸드 id 20자리}.seg 이고, 파일이 poker.hand-archive.segment-size 바이트를 넘으면 다음 파일로 넘어간다.
+ * <p>
+ * 파일 형식
+ * 헤더 : MAGIC(int), VERSION(int)
+ * 레코드 : 길이(int), handHistoryId(long), HandHistoryCodec 으로 압축한 핸드(길이 만큼)
+ * <p>
+ * 세그먼트 목록은 시작할 때 한번 읽고, 이후에는 새 세그먼트를 만들 때 덧붙인다. (24/02/29 chan)
+ * <p>
+ * 세그먼트는 DB 의 HandHistory.archive 의 사본이다. 레코드를 쓰다가 서버가 내려가면 마지막 레코드가 잘릴 수 있으므로 읽는 쪽은 잘린 레코드를 무시해야 한다.
+ * 서버가 살아있는 동안 쓰기에 실패한 레코드는 잘라내므로 잘린 레코드 뒤에 다른 레코드가 이어지지 않는다. (24/02/29 chan)
+ */
+@Slf4j
+@Component
+public class HandSegmentStore {
+
+    public static final int MAGIC = 0x50485347;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = Integer.BYTES * 2;
+    public static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    public static final String PREFIX = "hands-";
+    public static final String SUFFIX = ".seg";
+
+    @Value("${poker.hand-archive.segment-dir:}")
+    private String segmentDir;
+    @Value("${poker.hand-archive.segment-size:67108864}")
+    private long segmentSize;
+
+    private Path dir;
+    private FileChannel channel;
+    private volatile List<Path> segments = List.of();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (segmentDir.isBlank()) {
+            return;
+        }
+        dir = Paths.get(segmentDir).toAbsolutePath();
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files.filter(HandSegmentStore::isSegment).sorted().toList();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void destroy() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    /**
+     * 핸드 하나를 마지막 세그먼트에 이어 쓴다. 세그먼트가 꽉 찼으면 새 세그먼트를 만든다.
+     */
+    public synchronized void append(Long handHistoryId, byte[] data) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long start;
+        try {
+            if (channel == null || channel.position() >= segmentSize) {
+                roll(handHistoryId);
+            }
+            start = channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+        buffer.putInt(data.length).putLong(handHistoryId).put(data).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // 레코드의 일부만 쓰고 실패하면 이후 레코드의 위치가 모두 어긋나므로 쓰기 전 위치로 자른다.
+            discardPartialRecord(start, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 세그먼트 파일 목록. 시작할 때 있던 세그먼트는 이름(첫 핸드 id) 순서이고 그 뒤는 만든 순서이다.
+     *         마지막 세그먼트가 쓰는 중인 세그먼트이다. 바꿀 수 없는 목록이다.
+     */
+    public List<Path> segments() {
+        return segments;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 새 세그먼트는 항상 새 파일로 만든다. (CREATE_NEW)
+     * 다시 시작한 뒤나 세그먼트에 쓰지 못한 핸드를 다시 쓸 때 첫 핸드 id 가 같은 파일이 이미 있을 수 있다.
+     * 그 파일은 끝이 잘렸을 수 있고, 읽는 쪽은 이미 sealed 로 보고 다시 읽지 않으므로 이어 쓰지 않고 hands-{id}_{n}.seg 로 만든다.
+     */
+    private void roll(Long firstHandHistoryId) throws IOException {
+        if (channel != null) {
+            FileChannel previous = channel;
+            channel = null;
+            previous.force(true);
+            previous.close();
+        }
+
+        String name = String.format("%s%020d", PREFIX, firstHandHistoryId);
+        Path path = dir.resolve(name + SUFFIX);
+        FileChannel opened = null;
+        for (int n = 1; opened == null; n++) {
+            try {
+                opened = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                path = dir.resolve(name + "_" + n + SUFFIX);
+            }
+        }
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                opened.write(header);
+            }
+        } catch (IOException e) {
+            opened.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        channel = opened;
+
+        List<Path> rolled = new ArrayList<>(segments);
+        rolled.add(path);
+        segments = List.copyOf(rolled);
+        log.info("hand segment opened. path = {}", path);
+    }
+
+    /**
+     * 쓰다가 실패한 레코드를 잘라낸다. 자르지도 못하면 이 세그먼트는 닫고 다음 append 에서 새 세그먼트를 만든다.
+     * 잘린 레코드는 파일의 마지막에만 남으므로 읽는 쪽이 무시한다.
+     */
+    private void discardPartialRecord(long start, IOException cause) {
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            log.error("hand segment truncate failed, closing segment. position = {}", start, e);
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                cause.addSuppressed(closeFailure);
+            }
+            channel = null;
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.HudCacheStatsDto;
+import com.example.pokerv2.dto.HudDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 24/02/25 chan
+ * <p>
+ * HUD 조회 캐시. (Caffeine)
+ * <p>
+ * 테이블의 플레이어들이 상대 HUD 를 계속 조회하므로 user.id 별 HudDto 를 메모리에 들고 있는다.
+ * 로그인 아이디로 조회하는 경우를 위해 로그인 아이디 -> user.id 도 따로 들고 있는다.
+ * 최대 poker.hud.cache.max-size 개까지 들고, 마지막으로 쓴 지 poker.hud.cache.ttl 초가 지나면 버린다.
+ * <p>
+ * HudService 가 HUD 를 반영하면 트랜잭션이 커밋된 뒤에 반영된 값으로 바꾼다. (write-through) 롤백되면 바꾸지 않는다.
+ * 캐시의 HudDto 는 그대로 돌려주므로 받은 쪽에서 바꾸면 안 된다.
+ */
+@Component
+public class HudCache {
+
+    private final Cache<Long, HudDto> huds;
+    private final Cache<String, Long> userIds;
+
+    public HudCache(@Value("${poker.hud.cache.max-size:10000}") long maxSize,
+                    @Value("${poker.hud.cache.ttl:300}") long ttlSeconds) {
+        this.huds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * @param loader 캐시에 없을 때 DB 에서 읽는 함수. 던진 예외는 그대로 전달되고 캐시에 남지 않는다.
+     */
+    public HudDto get(Long userId, Function<Long, HudDto> loader) {
+        return huds.get(userId, loader);
+    }
+
+    public Long getUserId(String userId, Function<String, Long> loader) {
+        return userIds.get(userId, loader);
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋된 뒤에 바꾼다. 트랜잭션 밖에서 호출되면 바로 바꾼다.
+     */
+    public void putAll(List<HudDto> hudList) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(hudList);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(hudList);
+            }
+        });
+    }
+
+    public HudCacheStatsDto stats() {
+        CacheStats stats = huds.stats();
+        return new HudCacheStatsDto(huds.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+
+    private void put(List<HudDto> hudList) {
+        for (HudDto hud : hudList) {
+            huds.put(hud.getUserId(), hud);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.repository.HandHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/24 chan
+ * <p>
+ * 끝난 핸드를 받아서 게임 흐름 밖에서 HUD 를 반영하는 파이프라인.
+ * <p>
+ * 게임 흐름은 핸드가 끝날 때 (boardId, gameSeq) 만 넣고 바로 돌아간다.
+ * 하나의 스레드가 순서대로 꺼내서 HudService.apply 로 반영하므로 HUD 반영끼리는 겹치지 않는다.
+ * <p>
+ * 반영에 실패하면 RETRY_DELAY 뒤에 MAX_RETRY 번까지 다시 시도한다.
+ * 그래도 실패했거나 반영 전에 서버가 내려간 핸드는 hudApplied 가 false 로 남아있으므로 서버가 시작될 때 다시 반영한다. (at-least-once)
+ * 이미 반영한 핸드는 HudService 가 건너뛰므로 여러번 넘겨도 된다.
+ * <p>
+ * 24/02/29 chan
+ * 클러스터에서는 노드마다 이 파이프라인이 있고, 시작할 때 모든 노드가 같은 핸드를 다시 반영하려 할 수 있다.
+ * HudService 가 핸드를 조건부 update 로 선점하므로 한 노드만 반영한다. 같은 유저의 Hud 를 다른 노드가 먼저 커밋해서
+ * 낙관적 락으로 실패하면 반영과 선점이 같이 롤백되므로, 다시 반영(replay 포함)할 때 최신 값에 더한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HudEventPipeline {
+
+    private static final int MAX_RETRY = 3;
+    private static final long RETRY_DELAY = 5;
+
+    private final HudService hudService;
+    private final HandHistoryRepository handHistoryRepository;
+
+    @Value("${poker.hud.replay-on-start:true}")
+    private boolean replayOnStart;
+
+    private ScheduledThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("hud-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 끝난 핸드를 넣는다. 게임 흐름에서 호출하며 기다리지 않는다.
+     */
+    public void publishHandEnd(Long boardId, Long gameSeq) {
+        executor.execute(() -> apply(boardId, gameSeq, 0));
+    }
+
+    /**
+     * 서버가 시작되면 끝났지만 반영하지 못한 핸드를 다시 반영한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayNotApplied() {
+        if (!replayOnStart) {
+            return;
+        }
+
+        List<Long> handHistoryIds = handHistoryRepository.findHudNotAppliedIds();
+        if (!handHistoryIds.isEmpty()) {
+            log.info("replay hud. handHistory size = {}", handHistoryIds.size());
+        }
+        for (Long handHistoryId : handHistoryIds) {
+            executor.execute(() -> replay(handHistoryId, 0));
+        }
+    }
+
+    private void apply(Long boardId, Long gameSeq, int retry) {
+        try {
+            hudService.apply(boardId, gameSeq);
+        } catch (Exception e) {
+            if (retry >= MAX_RETRY || executor.isShutdown()) {
+                log.error("hud apply failed. boardId = {}, gameSeq = {}", boardId, gameSeq, e);
+                return;
+            }
+            log.warn("hud apply failed, retry. boardId = {}, gameSeq = {}, retry = {}", boardId, gameSeq, retry + 1);
+            executor.schedule(() -> apply(boardId, gameSeq, retry + 1), RETRY_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private void replay(Long handHistoryId, int retry) {
+        try {
+            hudService.replay(handHistoryId);
+        } catch (Exception e) {
+            if (retry >= MAX_RETRY || executor.isShutdown()) {
+                log.error("hud replay failed. handHistoryId = {}", handHistoryId, e);
+                return;
+            }
+            log.warn("hud replay failed, retry. handHistoryId = {}, retry = {}", handHistoryId, retry + 1);
+            executor.schedule(() -> replay(handHistoryId, retry + 1), RETRY_DELAY, TimeUnit.SECONDS);
+        }
+    }
+}
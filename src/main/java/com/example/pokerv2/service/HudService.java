@@ -1,33 +1,34 @@
 package com.example.pokerv2.service;
 
-import com.example.pokerv2.dto.*;
-import com.example.pokerv2.enums.PhaseStatus;
-import com.example.pokerv2.enums.PlayerAction;
+import com.example.pokerv2.dto.HudCacheStatsDto;
+import com.example.pokerv2.dto.HudDto;
+import com.example.pokerv2.enums.HudCounter;
 import com.example.pokerv2.error.CustomException;
 import com.example.pokerv2.error.ErrorCode;
-import com.example.pokerv2.model.*;
-import com.example.pokerv2.repository.BoardRepository;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.Hud;
 import com.example.pokerv2.repository.HandHistoryRepository;
 import com.example.pokerv2.repository.HudRepository;
 import com.example.pokerv2.repository.UserRepository;
+import com.example.pokerv2.utils.HudCalculatorUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HudService {
 
     private final HudRepository hudRepository;
-    private final BoardRepository boardRepository;
     private final HandHistoryRepository handHistoryRepository;
     private final UserRepository userRepository;
+    private final HudCache hudCache;
 
 
     /**
@@ -42,264 +43,88 @@ public class HudService {
      *     private int pfAggressiveCnt; -> 프리플랍. PhaseStatus가 플랍으로 변경되기 전에.
      *     private int wtf; -> 플랍. PhaseStatus가 변경된 직후
      *     private int wtsd; -> 리버 끝.
+     *
+     * 24/02/24 chan
+     * 게임 흐름에서는 HUD 를 세지 않는다. 핸드가 끝나면 HudEventPipeline 이 끝난 핸드를 넘겨주고,
+     * HandHistory 와 Action 기록으로 HudCalculatorUtils 가 증가분을 계산해서 한번에 저장한다.
+     * 반영한 핸드는 HandHistory.hudApplied 로 표시하므로 같은 핸드가 여러번 넘어와도 한번만 반영된다.
      */
 
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
+    /**
+     * 24/02/25 chan
+     * HudCache 에 있으면 DB 를 거치지 않는다. 캐시에 없을 때만 리포지토리 조회(각자의 읽기 트랜잭션)로 읽어서 올린다.
+     */
     public HudDto get(Long userId) {
-        Hud hud = hudRepository.findByUserId(userId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-
-        return new HudDto(hud);
+        return hudCache.get(userId, id -> new HudDto(hudRepository.findByUserId(id).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST))));
     }
 
-    @Transactional(isolation = Isolation.READ_COMMITTED, readOnly = true)
     public HudDto get(String userId) {
-        User user = userRepository.findByUserId(userId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-
-        return new HudDto(user.getHud());
+        Long id = hudCache.getUserId(userId, loginId -> userRepository.findByUserId(loginId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST)).getId());
+        return get(id);
     }
 
-    /**
-     * totalHands, wtf, wtsd 계산
-     * @param boardId
-     */
-    @Transactional
-    public void addCountAfterPhaseChange(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Player> players = board.getPlayers();
-        List<Hud> hudList = new ArrayList<>();
-
-        PhaseStatus phaseStatus = board.getPhaseStatus();
-
-        if(phaseStatus == PhaseStatus.SHOWDOWN) {
-            for (Player player : players) {
-                plusWentToShowDown(player);
-            }
-        } else if(phaseStatus == PhaseStatus.PRE_FLOP) {
-            for (Player player : players) {
-                plusTotalHands(player);
-            }
-        } else if(phaseStatus == PhaseStatus.FLOP) {
-            for (Player player : players) {
-                plusWentToFlop(player);
-            }
-        }
-
-        hudRepository.saveAll(hudList);
+    public HudCacheStatsDto getCacheStats() {
+        return hudCache.stats();
     }
 
     /**
-     * addCountBeforePhaseChange
+     * apply - 24/02/24 chan
+     * 끝난 핸드의 HUD 카운터를 반영한다.
      *
-     * Vpip, PfAggressiveCnt, Pfr 게산.
-     * @param boardId
+     * @return 이번 호출에서 반영했으면 true. 아직 끝나지 않았거나 이미 반영한 핸드면 false
      */
     @Transactional
-    public void addCountBeforePhaseChange(Long boardId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Player> players = board.getPlayers();
-
-        if(board.getPhaseStatus() == PhaseStatus.PRE_FLOP) {
-            Player player = players.get(getPlayerIdxByPos(board, board.getBettingPos()));
-            plusPfAggressiveCnt(player);
-            plusVpipCnt(board);
-            plusPfr(board);
-        }
+    public boolean apply(Long boardId, Long gameSeq) {
+        HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(boardId, gameSeq).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        return apply(handHistory);
     }
 
-
     /**
-     * addCountBeforeSaveAction
-     * cBet, 3bet 계산.
+     * replay - 24/02/24 chan
+     * 핸드 기록 id 로 HUD 카운터를 반영한다. 서버가 다시 시작될 때 반영하지 못한 핸드를 다시 반영하는 데 쓴다.
      */
     @Transactional
-    public void addCountBeforeSaveAction(BoardDto boardDto, String action) {
-        Board board = boardRepository.findById(boardDto.getId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-
-        if(boardDto.getPhaseStatus() == PhaseStatus.FLOP.ordinal()) {
-            if (action.equals(PlayerAction.RAISE.getActionDetail()) || action.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
-                if(board.getBettingSize() == 0) {
-                    plusCBet(boardDto);
-                }
-            }
-        }
-
-        if(board.getBettingSize() != 0 && boardDto.getPhaseStatus() != PhaseStatus.PRE_FLOP.ordinal()) {
-            if (action.equals(PlayerAction.RAISE.getActionDetail()) || action.equals(PlayerAction.ALL_IN_RAISE.getActionDetail())) {
-                plusThreeBet(board);
-            }
-        }
+    public boolean replay(Long handHistoryId) {
+        HandHistory handHistory = handHistoryRepository.findById(handHistoryId).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        return apply(handHistory);
     }
 
     /**
-     * wsd 계산.
-     * @param boardDto
+     * 테이블 유저들의 Hud 를 IN 쿼리 한번으로 읽고, 증가분을 더한 뒤 커밋할 때 한번에 update 한다.
+     * 커밋되면 HudCache 도 반영된 값으로 바꾼다.
+     * <p>
+     * 24/02/29 chan
+     * 핸드 하나의 HUD 쓰기는 여기서 끝난다. 유저마다 findByUserId, save 하지 않고, 증가분은 핸드 단위로 메모리에서 모은 뒤
+     * dirty checking 의 update 로 한번에 내보낸다. (JpaBatchConfig 의 JDBC 배치로 묶인다.)
+     * 이전의 HudAccumulator(게임 흐름에서 이벤트마다 모으던 것)는 핸드 기록으로 다시 계산하게 되면서 이 메서드로 합쳤다.
+     * 다른 노드가 같은 유저의 Hud 를 먼저 커밋했으면 Hud 의 @Version 으로 커밋이 실패하고, 선점도 같이 롤백되므로 HudEventPipeline 이 다시 반영한다.
      */
-    @Transactional
-    public void addCountAfterShowDown(BoardDto boardDto) {
-        List<PlayerDto> players = boardDto.getPlayers();
-
-        for (PlayerDto player : players) {
-            GameResultDto gameResult = player.getGameResult();
-            if(gameResult.isWinner()) {
-                Hud hud = hudRepository.findByUserId(player.getUserId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-                hud.setWsd(hud.getWsd() + 1);
-            }
-        }
-    }
-
-    private void plusThreeBet(Board board) {
-        int raiseIdx = getPlayerIdxByPos(board, board.getBettingPos());
-        List<Player> players = board.getPlayers();
-        if(raiseIdx >= 0 && raiseIdx < players.size()) {
-            Hud hud = players.get(raiseIdx).getUser().getHud();
-            hud.setThreeBet(hud.getThreeBet() + 1);
-        }
-    }
-
-    private void plusCBet(BoardDto boardDto) {
-        HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(boardDto.getId(), boardDto.getGameSeq()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Action> actionList = handHistory.getActionList();
-
-        List<Action> pfActionList = actionList.stream()
-                .filter(a -> a.getDetail().contains(PlayerAction.RAISE.getActionDetail()) && a.getPhaseStatus().equals(PhaseStatus.PRE_FLOP)).collect(Collectors.toList());
-
-        if(pfActionList.size() > 0) {
-            Action pfLastRaise = pfActionList.get(pfActionList.size() - 1);
-            if(boardDto.getBettingPos() == pfLastRaise.getPosition()) {
-                Hud hud = hudRepository.findByUserId(pfLastRaise.getUserId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-                hud.setCBet(hud.getCBet() + 1);
-            }
-        }
-    }
-
-    private void plusPfr(Board board) {
-        HandHistory handHistory = handHistoryRepository.findByBoardIdAndGameSeq(board.getId(), board.getGameSeq()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-        List<Action> actionList = handHistory.getActionList();
-        List<User> raiseUserList = new ArrayList<>();
-
-        for (Action action : actionList) {
-            if(action.getDetail().contains(PlayerAction.RAISE.getActionDetail())) {
-                User user = userRepository.findById(action.getUserId()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
-                if(!raiseUserList.contains(user)) {
-                    raiseUserList.add(user);
-                }
-            }
-        }
-
-        for (User user : raiseUserList) {
-            Hud hud = user.getHud();
-            hud.setPfr(hud.getPfr() + 1);
-        }
-    }
-
-    private void plusVpipCnt(Board board) {
-        List<Player> players = board.getPlayers();
-        List<Hud> hudList = new ArrayList<>();
-        int btnPlayerIdx = getPlayerIdxByPos(board, board.getBtn());
-        int sbPlayerIdx = (btnPlayerIdx + 1) % board.getTotalPlayer();
-        int bbPlayerIdx = (btnPlayerIdx + 2) % board.getTotalPlayer();
-
-        for(int i = 0; i < board.getTotalPlayer(); i++) {
-            Player player = players.get(i);
-            int phaseCallSize = player.getPhaseCallSize();
-            if(i == sbPlayerIdx) {
-                if(board.getBlind() * 0.5 < phaseCallSize) {
-                    Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-                    if(findHud.isPresent()) {
-                        Hud hud = findHud.get();
-                        hud.setVpip(hud.getVpip() + 1);
-                        hudList.add(hud);
-                    }
-                }
-            } else if(i == bbPlayerIdx) {
-                if(board.getBlind() < phaseCallSize) {
-                    Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-                    if(findHud.isPresent()) {
-                        Hud hud = findHud.get();
-                        hud.setVpip(hud.getVpip() + 1);
-                        hudList.add(hud);
-                    }
-                }
-            } else {
-                if(phaseCallSize > 0) {
-                    Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-                    if(findHud.isPresent()) {
-                        Hud hud = findHud.get();
-                        hud.setVpip(hud.getVpip() + 1);
-                        hudList.add(hud);
-                    }
+    private boolean apply(HandHistory handHistory) {
+        if(!handHistory.isFinish() || handHistory.isHudApplied()) {
+            return false;
+        }
+        // 24/02/29 chan 클러스터에서는 여러 노드가 같은 핸드를 다시 반영할 수 있으므로, 조건부 update 로 먼저 선점한 트랜잭션만 반영한다.
+        // 먼저 선점한 트랜잭션이 커밋하기 전이면 그 행 잠금을 기다렸다가 0 을 받는다. 롤백되면 다시 선점할 수 있다.
+        if(handHistoryRepository.claimHudApplied(handHistory.getId()) == 0) {
+            return false;
+        }
+
+        Map<Long, int[]> deltas = HudCalculatorUtils.calculate(handHistory);
+        HudCounter[] counters = HudCounter.values();
+        List<HudDto> hudList = new ArrayList<>(deltas.size());
+        for (Hud hud : hudRepository.findByUserIdIn(deltas.keySet())) {
+            int[] delta = deltas.get(hud.getUser().getId());
+            for (HudCounter counter : counters) {
+                if(delta[counter.ordinal()] != 0) {
+                    counter.add(hud, delta[counter.ordinal()]);
                 }
             }
+            hudList.add(new HudDto(hud));
         }
 
-        hudRepository.saveAll(hudList);
-    }
-
-    private void plusWentToShowDown(Player player) {
-        Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-
-        if(findHud.isPresent()) {
-            Hud hud = findHud.get();
-            hud.setWtsd(hud.getWtsd() + 1);
-        }
-    }
-
-    private void plusTotalHands(Player player) {
-        Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-
-        if(findHud.isPresent()) {
-            Hud hud = findHud.get();
-            hud.setTotalHands(hud.getTotalHands() + 1);
-            hudRepository.save(hud);
-        }
-    }
-
-    private void plusWentToFlop(Player player) {
-        Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-
-        if (findHud.isPresent()) {
-            Hud hud = findHud.get();
-            hud.setWtf(hud.getWtf() + 1);
-            hudRepository.save(hud);
-        }
-    }
-
-    private void plusTotalHands(BoardDto boardDto) {
-        List<PlayerDto> players = boardDto.getPlayers();
-        List<Hud> hudList = new ArrayList<>();
-        for (PlayerDto player : players) {
-            Optional<Hud> findHud = hudRepository.findByUserId(player.getUserId());
-
-            if(findHud.isPresent()) {
-                Hud hud = findHud.get();
-                hud.setTotalHands(hud.getTotalHands() + 1);
-                hudList.add(hud);
-            }
-        }
-        hudRepository.saveAll(hudList);
-    }
-
-    private void plusPfAggressiveCnt(Player player) {
-        Optional<Hud> findHud = hudRepository.findByUserId(player.getUser().getId());
-        if (findHud.isPresent()) {
-            Hud hud = findHud.get();
-            hud.setPfAggressiveCnt(hud.getPfAggressiveCnt() + 1);
-            hudRepository.save(hud);
-        }
-    }
-
-
-
-    private int getPlayerIdxByPos(Board board, int posNum) {
-        List<Player> players = board.getPlayers();
-
-        for (int i = 0; i < board.getTotalPlayer(); i++) {
-            Player player = players.get(i);
-            if (player.getPosition().getPosNum() == posNum)
-                return i;
-        }
-
-        return -1;
+        handHistory.setHudApplied(true);
+        hudCache.putAll(hudList);
+        return true;
     }
 }
@@ -0,0 +1,112 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.LobbyBoardDto;
+import com.example.pokerv2.dto.MessageDto;
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.enums.MessageType;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.TableCommandType;
+import com.example.pokerv2.repository.BoardRepository;
+import com.example.pokerv2.service.handleService.TableRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 로비 목록 읽기 모델. 블라인드별로 보드 id 순서의 LobbyBoardDto 를 메모리에 들고 있다.
+ * <p>
+ * 서버가 시작될 때 보드 테이블을 projection 으로 한번 읽고, 이후에는 게임 흐름이 입장, 퇴장, 핸드 시작/종료 때 넘겨주는
+ * 보드 스냅샷으로 한 줄씩 고친다. 바뀐 줄은 /topic/lobby/{blind} 로 보낸다. (LOBBY_UPDATE)
+ * 클라이언트는 처음에 getBoardList 로 전체를 받고, 이후에는 토픽의 줄을 boardId 로 덮어쓴다.
+ * <p>
+ * 같은 보드의 변경은 그 보드의 메일박스에서만 들어오므로 보드별 순서가 유지된다.
+ * <p>
+ * 여러 노드로 실행하면 보드의 변경은 owner 노드에서만 들어온다. owner 노드는 바뀐 줄을 TableRelay 로 다른 모든 노드에 보내고,
+ * 받은 노드는 apply 로 자기 읽기 모델에 반영한다. 그래서 어느 노드의 getBoardList 도 다른 노드가 가진 보드의 줄이 최신이다.
+ * 한 노드가 한 노드로 보내는 명령은 보낸 순서대로 도착하므로 보드별 순서도 유지된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbyService {
+
+    private static final String TOPIC_PREFIX = "/topic/lobby/";
+    private static final double AVG_POT_WEIGHT = 0.2;
+
+    private final BoardRepository boardRepository;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final TableRelay tableRelay;
+    private final Map<Integer, Map<Long, LobbyBoardDto>> boardsByBlind = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int size = 0;
+        for (Object[] row : boardRepository.findLobbyRows()) {
+            LobbyBoardDto board = new LobbyBoardDto((Long) row[0], (Integer) row[1], (Integer) row[2], ((PhaseStatus) row[3]).ordinal(), 0);
+            boards(board.getBlind()).putIfAbsent(board.getBoardId(), board);
+            size++;
+        }
+        log.info("lobby loaded. board size = {}", size);
+    }
+
+    public List<LobbyBoardDto> getBoardList(int blind) {
+        Map<Long, LobbyBoardDto> boards = boardsByBlind.get(blind);
+        return boards == null ? new ArrayList<>() : new ArrayList<>(boards.values());
+    }
+
+    /**
+     * 입장, 퇴장, 핸드 시작처럼 좌석 수나 페이즈가 바뀐 뒤에 호출한다.
+     */
+    public void update(BoardDto boardDto) {
+        put(boardDto, false);
+    }
+
+    /**
+     * 핸드가 끝난 뒤에 호출한다. 최종 팟을 평균 팟에 반영한다.
+     */
+    public void handEnd(BoardDto boardDto) {
+        put(boardDto, true);
+    }
+
+    /**
+     * 다른 노드(owner)에서 바뀐 줄을 반영한다. 토픽은 owner 노드가 이미 보냈으므로 다시 보내지 않는다.
+     */
+    public void apply(LobbyBoardDto board) {
+        boards(board.getBlind()).put(board.getBoardId(), board);
+    }
+
+    private void put(BoardDto boardDto, boolean handEnd) {
+        Map<Long, LobbyBoardDto> boards = boards(boardDto.getBlind());
+        LobbyBoardDto old = boards.get(boardDto.getId());
+
+        int avgPot = old == null ? 0 : old.getAvgPot();
+        if (handEnd) {
+            avgPot = avgPot == 0 ? boardDto.getPot() : (int) Math.round(avgPot * (1 - AVG_POT_WEIGHT) + boardDto.getPot() * AVG_POT_WEIGHT);
+        }
+
+        LobbyBoardDto board = new LobbyBoardDto(boardDto.getId(), boardDto.getBlind(), boardDto.getTotalPlayer(), boardDto.getPhaseStatus(), avgPot);
+        if (board.equals(old)) {
+            return;
+        }
+
+        boards.put(board.getBoardId(), board);
+        simpMessagingTemplate.convertAndSend(TOPIC_PREFIX + board.getBlind(), new MessageDto(MessageType.LOBBY_UPDATE.getDetail(), List.of(board)));
+        tableRelay.broadcast(TableCommandDto.builder().type(TableCommandType.LOBBY).boardId(board.getBoardId()).lobbyBoard(board).build());
+    }
+
+    private Map<Long, LobbyBoardDto> boards(int blind) {
+        return boardsByBlind.computeIfAbsent(blind, b -> new ConcurrentSkipListMap<>());
+    }
+}
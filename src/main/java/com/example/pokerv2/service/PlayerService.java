@@ -9,12 +9,14 @@ import com.example.pokerv2.model.Player;
 import com.example.pokerv2.model.User;
 import com.example.pokerv2.repository.PlayerRepository;
 import com.example.pokerv2.repository.UserRepository;
+import com.example.pokerv2.service.handleService.BoardBroadcaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,10 @@ public class PlayerService {
 
     private final UserRepository userRepository;
     private final PlayerRepository playerRepository;
+    private final TableStateStore tableStateStore;
+    private final TableDeckStore tableDeckStore;
+    private final SeatAllocator seatAllocator;
+    private final BoardBroadcaster boardBroadcaster;
 
     @Transactional
     public void setDisconnect(Long playerId) {
@@ -35,9 +41,15 @@ public class PlayerService {
             Board board = player.getBoard();
             if (board.getTotalPlayer() == 1) {
                 playerRepository.delete(player);
+                seatAllocator.vacateAfterCommit(board.getId(), player.getPosition().getPosNum(), player.getUser().getUserId());
+                tableStateStore.evict(board.getId());
+                tableDeckStore.evict(board.getId());
+                boardBroadcaster.evict(board.getId());
                 return;
             }
 
+            tableStateStore.applyPending(board);
+
             if (player.getStatus() == PlayerStatus.FOLD) {
                 player.setStatus(PlayerStatus.DISCONNECT_FOLD);
             } else if (player.getStatus() == PlayerStatus.PLAY) {
@@ -45,18 +57,42 @@ public class PlayerService {
             } else if (player.getStatus() == PlayerStatus.ALL_IN) {
                 player.setStatus(PlayerStatus.DISCONNECT_ALL_IN);
             }
+            tableStateStore.publish(board);
+        }
+    }
 
+    /**
+     * 24/02/16 chan
+     * 연결 상태 변경은 보드의 메일박스에서 실행해야 하므로 먼저 보드 id 를 조회한다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getBoardId(Long playerId) {
+        return playerRepository.findById(playerId).map(player -> player.getBoard().getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getBoardIds(Principal principal) {
+        User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
+        List<Long> boardIds = new ArrayList<>();
+        for (Player player : user.getPlayerList()) {
+            boardIds.add(player.getBoard().getId());
         }
+        return boardIds;
     }
 
     @Transactional
-    public void setConnect(Principal principal) {
+    public void setConnect(Principal principal, Long boardId) {
         User user = userRepository.findByUserId(principal.getName()).orElseThrow(() -> new CustomException(ErrorCode.BAD_REQUEST));
         List<Player> playerList = user.getPlayerList();
 
         for (Player player : playerList) {
             Board board = player.getBoard();
+            if (!board.getId().equals(boardId)) {
+                continue;
+            }
             if (board.getPhaseStatus().ordinal() >= PhaseStatus.PRE_FLOP.ordinal() && board.getPhaseStatus().ordinal() <= PhaseStatus.RIVER.ordinal()) {
+                // 메모리에만 반영된 액션 결과(status 포함)를 먼저 반영해야 연결 상태 변경이 덮어써지지 않는다.
+                tableStateStore.applyPending(board);
                 if (player.getStatus() == PlayerStatus.DISCONNECT_ALL_IN) {
                     player.setStatus(PlayerStatus.ALL_IN);
                 } else if (player.getStatus() == PlayerStatus.DISCONNECT_PLAYED) {
@@ -64,6 +100,7 @@ public class PlayerService {
                 } else if (player.getStatus() == PlayerStatus.DISCONNECT_FOLD) {
                     player.setStatus(PlayerStatus.FOLD);
                 }
+                tableStateStore.publish(board);
             }
         }
 
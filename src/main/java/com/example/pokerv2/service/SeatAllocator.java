@@ -0,0 +1,335 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.repository.BoardRepository;
+import com.example.pokerv2.service.handleService.TableRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 빠른 입장(joinRandom)의 좌석 배정 인덱스. 자리를 고를 때 DB 를 읽지 않는다.
+ * <p>
+ * 보드마다 좌석 상태를 int 하나에 담고 CAS 로만 바꾼다. 0~5 비트는 커밋된 좌석, 8~13 비트는 입장 트랜잭션이 진행중인 예약 좌석이다.
+ * 예약은 입장 트랜잭션이 커밋되면 커밋된 좌석으로 바뀌고, 롤백되면 풀린다. 같은 자리를 두 입장이 동시에 예약할 수 없다.
+ * <p>
+ * 블라인드마다 보드를 찬 좌석 수별 버킷에 나눠두고, 많이 찬 보드부터 고른다. (빈 보드는 마지막)
+ * 버킷 이동은 좌석을 바꾼 뒤에 하므로 잠깐 다른 버킷에 있을 수 있다. 고를 때 좌석 수가 버킷과 다르면 옮기고 넘어간다.
+ * <p>
+ * 서버가 시작될 때 보드와 플레이어 좌석을 projection 으로 한번 읽고, 이후에는 입장/퇴장/새 보드가 커밋될 때 반영한다.
+ * <p>
+ * 여러 노드로 실행하면 이 노드가 가진 보드(TableRouter)만 들고 있다. 보드의 입장/퇴장은 owner 노드에서만 일어나므로 인덱스가 DB 와 같게 유지된다.
+ * 다른 노드가 만든 보드는 owner 노드가 게임을 시작할 때 register 로 등록한다.
+ * 다른 노드가 가진 보드의 빈 자리는 여기서 찾지 않고, GameHandleService.joinRandomBoard 가 DB 에서 찾아 owner 노드로 입장을 보낸다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatAllocator {
+
+    private static final int SEAT_MASK = (1 << SeatMap.MAX_SEAT) - 1;
+    private static final int RESERVED_SHIFT = 8;
+
+    private final BoardRepository boardRepository;
+    private final TableRouter tableRouter;
+    private final Map<Long, Table> tables = new ConcurrentHashMap<>();
+    private final Map<Integer, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public static final class Reservation {
+        private final Table table;
+        private final int position;
+        private final String userId;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private Reservation(Table table, int position, String userId) {
+            this.table = table;
+            this.position = position;
+            this.userId = userId;
+        }
+
+        public Long getBoardId() {
+            return table.boardId;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Object[] row : boardRepository.findSeatRows()) {
+            if (!tableRouter.isLocal((Long) row[0])) {
+                continue;
+            }
+            Table table = table((Long) row[0], (Integer) row[1]);
+            if (row[2] != null) {
+                table.occupy(((Position) row[2]).getPosNum(), (String) row[3]);
+            }
+        }
+        for (Table table : tables.values()) {
+            bucket(table.blind).place(table);
+        }
+        log.info("seat index loaded. board size = {}", tables.size());
+    }
+
+    /**
+     * 블라인드가 같은 보드 중에서 가장 많이 찼고 빈 자리가 있으며 유저가 앉아있지 않은 보드의 자리를 예약한다.
+     *
+     * @return 예약한 자리. 입장할 보드가 없으면 null
+     */
+    public Reservation reserve(int blind, String userId) {
+        Bucket bucket = buckets.get(blind);
+        if (bucket == null) {
+            return null;
+        }
+
+        for (int fill = SeatMap.MAX_SEAT - 1; fill >= 0; fill--) {
+            for (Table table : bucket.byFill.get(fill)) {
+                if (table.fill() != fill) {
+                    bucket.place(table);
+                    continue;
+                }
+                Reservation reservation = reserve(table, userId);
+                if (reservation != null) {
+                    return reservation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 정해진 보드의 빈 자리를 예약한다. 인덱스에 없는 보드는 엔티티의 좌석으로 등록한다.
+     *
+     * @return 예약한 자리. 빈 자리가 없거나 유저가 이미 앉아있으면 null
+     */
+    public Reservation reserve(Board board, String userId) {
+        Table table = tables.get(board.getId());
+        if (table == null) {
+            table = register(board);
+        }
+        return reserve(table, userId);
+    }
+
+    /**
+     * 입장 트랜잭션이 커밋되면 예약을 확정하고, 롤백되면 푼다. 트랜잭션 안에서 호출해야 한다.
+     */
+    public void completeWithTransaction(Reservation reservation) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(reservation);
+                } else {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * 예약을 푼다. 이미 확정했거나 풀었으면 아무것도 하지 않는다.
+     */
+    public void release(Reservation reservation) {
+        if (!reservation.done.compareAndSet(false, true)) {
+            return;
+        }
+        Table table = reservation.table;
+        table.update(state -> state & ~(1 << (reservation.position + RESERVED_SHIFT)));
+        table.userIds.remove(reservation.userId);
+        bucket(table.blind).place(table);
+    }
+
+    /**
+     * 새 보드를 등록한다. 보드를 만든 트랜잭션이 커밋된 뒤에 등록한다.
+     */
+    public void registerAfterCommit(Board board) {
+        Long boardId = board.getId();
+        if (!tableRouter.isLocal(boardId)) {
+            return;
+        }
+        int blind = board.getBlind();
+        List<Integer> positions = new ArrayList<>();
+        List<String> userIds = new ArrayList<>();
+        for (Player player : board.getPlayers()) {
+            positions.add(player.getPosition().getPosNum());
+            userIds.add(player.getUser().getUserId());
+        }
+
+        afterCommit(() -> {
+            Table table = table(boardId, blind);
+            for (int i = 0; i < positions.size(); i++) {
+                table.occupy(positions.get(i), userIds.get(i));
+            }
+            bucket(blind).place(table);
+        });
+    }
+
+    /**
+     * 다른 노드가 만든 보드를 스냅샷으로 등록한다. 이미 있는 보드는 그대로 둔다.
+     */
+    public void register(BoardDto boardDto) {
+        if (tables.containsKey(boardDto.getId())) {
+            return;
+        }
+
+        Table table = table(boardDto.getId(), boardDto.getBlind());
+        for (PlayerDto player : boardDto.getPlayers()) {
+            table.occupy(player.getPosition(), player.getPlayerName());
+        }
+        bucket(table.blind).place(table);
+    }
+
+    /**
+     * 퇴장한 자리를 비운다. 퇴장한 트랜잭션이 커밋된 뒤에 비운다.
+     */
+    public void vacateAfterCommit(Long boardId, int position, String userId) {
+        afterCommit(() -> {
+            Table table = tables.get(boardId);
+            if (table == null) {
+                return;
+            }
+            table.update(state -> state & ~(1 << position));
+            table.userIds.remove(userId);
+            bucket(table.blind).place(table);
+        });
+    }
+
+    private Reservation reserve(Table table, String userId) {
+        if (!table.userIds.add(userId)) {
+            return null;
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(SeatMap.MAX_SEAT);
+        while (true) {
+            int state = table.seats.get();
+            int free = ~occupied(state) & SEAT_MASK;
+            if (free == 0) {
+                table.userIds.remove(userId);
+                return null;
+            }
+
+            int position = start;
+            while ((free & (1 << position)) == 0) {
+                position = (position + 1) % SeatMap.MAX_SEAT;
+            }
+            if (table.seats.compareAndSet(state, state | (1 << (position + RESERVED_SHIFT)))) {
+                bucket(table.blind).place(table);
+                return new Reservation(table, position, userId);
+            }
+        }
+    }
+
+    private void confirm(Reservation reservation) {
+        if (!reservation.done.compareAndSet(false, true)) {
+            return;
+        }
+        int position = reservation.position;
+        reservation.table.update(state -> (state & ~(1 << (position + RESERVED_SHIFT))) | (1 << position));
+    }
+
+    private Table register(Board board) {
+        Table table = table(board.getId(), board.getBlind());
+        for (Player player : board.getPlayers()) {
+            table.occupy(player.getPosition().getPosNum(), player.getUser().getUserId());
+        }
+        bucket(table.blind).place(table);
+        return table;
+    }
+
+    private Table table(Long boardId, int blind) {
+        return tables.computeIfAbsent(boardId, id -> new Table(id, blind));
+    }
+
+    private Bucket bucket(int blind) {
+        return buckets.computeIfAbsent(blind, b -> new Bucket());
+    }
+
+    private static int occupied(int state) {
+        return (state | (state >>> RESERVED_SHIFT)) & SEAT_MASK;
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private static final class Table {
+        private final Long boardId;
+        private final int blind;
+        private final AtomicInteger seats = new AtomicInteger();
+        // 앉아있거나 예약한 유저. 같은 보드에 두번 앉지 않도록 예약보다 먼저 넣는다.
+        private final Set<String> userIds = ConcurrentHashMap.newKeySet();
+
+        private Table(Long boardId, int blind) {
+            this.boardId = boardId;
+            this.blind = blind;
+        }
+
+        private int fill() {
+            return Integer.bitCount(occupied(seats.get()));
+        }
+
+        private void occupy(int position, String userId) {
+            update(state -> state | (1 << position));
+            userIds.add(userId);
+        }
+
+        private void update(IntUnaryOperator operator) {
+            seats.updateAndGet(operator);
+        }
+    }
+
+    private static final class Bucket {
+        private final List<Set<Table>> byFill = new ArrayList<>();
+
+        private Bucket() {
+            for (int i = 0; i <= SeatMap.MAX_SEAT; i++) {
+                byFill.add(ConcurrentHashMap.newKeySet());
+            }
+        }
+
+        /**
+         * 보드를 지금 좌석 수의 버킷으로 옮긴다.
+         */
+        private void place(Table table) {
+            int fill = table.fill();
+            for (int i = 0; i <= SeatMap.MAX_SEAT; i++) {
+                if (i != fill) {
+                    byFill.get(i).remove(table);
+                }
+            }
+            byFill.get(fill).add(table);
+        }
+    }
+}
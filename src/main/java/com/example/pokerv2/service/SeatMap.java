@@ -0,0 +1,87 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 보드 스냅샷의 좌석 인덱스. 포지션 -> 플레이어 인덱스, 유저 아이디 -> 포지션을 바로 찾는다.
+ * <p>
+ * 인덱스는 스냅샷의 players 순서이다. 보드의 players 는 포지션 순서로 유지하므로(@OrderBy, sitIn)
+ * 같은 시점의 Board 엔티티의 players 순서와도 같다.
+ * TableStateStore 가 플레이어 구성이 바뀌는 스냅샷(입장, 퇴장)을 publish 할 때 만들고, 액션 순서만 바뀔 때는 그대로 쓴다.
+ */
+public final class SeatMap {
+
+    public static final int MAX_SEAT = 6;
+
+    private final int[] idxByPos;
+    private final Map<String, Integer> posByUserId;
+
+    private SeatMap(int[] idxByPos, Map<String, Integer> posByUserId) {
+        this.idxByPos = idxByPos;
+        this.posByUserId = posByUserId;
+    }
+
+    public static SeatMap of(BoardDto board) {
+        int[] idxByPos = new int[MAX_SEAT];
+        Arrays.fill(idxByPos, -1);
+        Map<String, Integer> posByUserId = new HashMap<>();
+
+        List<PlayerDto> players = board.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            PlayerDto player = players.get(i);
+            idxByPos[player.getPosition()] = i;
+            posByUserId.put(player.getPlayerName(), player.getPosition());
+        }
+        return new SeatMap(idxByPos, posByUserId);
+    }
+
+    /**
+     * @return 포지션에 앉은 플레이어의 인덱스. 없으면 -1
+     */
+    public int indexOf(int posNum) {
+        if (posNum < 0 || posNum >= MAX_SEAT) {
+            return -1;
+        }
+        return idxByPos[posNum];
+    }
+
+    /**
+     * @return 유저가 앉은 포지션. 없으면 -1
+     */
+    public int positionOf(String userId) {
+        return posByUserId.getOrDefault(userId, -1);
+    }
+
+    public boolean contains(String userId) {
+        return posByUserId.containsKey(userId);
+    }
+
+    public int size() {
+        return posByUserId.size();
+    }
+
+    /**
+     * 스냅샷의 플레이어 구성과 같은지. 포지션과 유저가 모두 같으면 SeatMap 을 다시 만들지 않는다.
+     */
+    boolean matches(BoardDto board) {
+        List<PlayerDto> players = board.getPlayers();
+        if (players.size() != size()) {
+            return false;
+        }
+        for (int i = 0; i < players.size(); i++) {
+            PlayerDto player = players.get(i);
+            if (indexOf(player.getPosition()) != i || positionOf(player.getPlayerName()) != player.getPosition()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.utils.Deck;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 24/02/21 chan
+ * <p>
+ * 테이블별 덱 저장소.
+ * <p>
+ * 게임마다 덱을 새로 만들지 않고 테이블마다 하나를 재사용한다.
+ * 덱은 스레드에 안전하지 않지만, 딜링은 그 테이블의 메일박스(TableExecutor) 안에서만 일어나므로 동시에 쓰이지 않는다.
+ * <p>
+ * poker.deck.seed 를 주면 시드를 고정한 SplittableRandom 을 쓴다. (시뮬레이션, 부하 테스트용)
+ * 주지 않으면 SecureRandom 을 쓴다.
+ */
+@Component
+public class TableDeckStore {
+
+    private final Map<Long, Deck> decks = new ConcurrentHashMap<>();
+
+    @Value("${poker.deck.seed:#{null}}")
+    private Long seed;
+
+    public Deck get(Long boardId) {
+        return decks.computeIfAbsent(boardId, id -> seed == null ? Deck.secure() : Deck.seeded(seed ^ id));
+    }
+
+    public void evict(Long boardId) {
+        decks.remove(boardId);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.repository.BoardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 24/02/14 chan
+ * <p>
+ * 게임중인 보드의 상태를 메모리에 들고 있는 저장소.
+ * <p>
+ * 1. 게임 루프의 조회(isGameEnd, getBoard, isActionPlayerConnect ...)는 DB 를 거치지 않고 여기서 읽는다.
+ * 2. 보드를 변경하는 트랜잭션은 커밋된 뒤에 publish 로 스냅샷을 교체한다. 롤백되면 기존 스냅샷을 유지한다.
+ * 3. 액션 순서(actionPos, lastActionTime)는 메모리에만 반영하고(write-behind), 다음에 보드를 변경하는 트랜잭션이
+ *    applyPending 으로 엔티티에 반영해서 함께 저장한다. 페이즈 변경, 게임 종료는 항상 보드를 변경하므로 그 시점에는 DB 와 같아진다.
+ *    24/02/29 chan 플레이어 액션의 결과(팟, 베팅 위치/크기, 플레이어 money/phaseCallSize/status)도 update 로 메모리에만 반영한다.
+ *    액션마다 DB 를 읽거나 쓰지 않고, 페이즈나 핸드가 끝날 때 한번에 저장된다. 그 사이에 서버가 죽으면 진행중인 페이즈의 액션은 잃는다.
+ * <p>
+ * 스냅샷은 외부에 노출하지 않고 항상 복사본을 돌려준다.
+ * <p>
+ * 24/02/29 chan
+ * 스냅샷마다 SeatMap(포지션/유저 -> 플레이어 인덱스)을 함께 들고 있어서 게임 루프의 좌석 조회는 players 를 훑지 않는다.
+ */
+@Slf4j
+@Component
+public class TableStateStore {
+
+    private final BoardRepository boardRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Long, TableState> states = new ConcurrentHashMap<>();
+
+    public TableStateStore(BoardRepository boardRepository, PlatformTransactionManager transactionManager) {
+        this.boardRepository = boardRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @return 보드 스냅샷의 복사본. 메모리에 없으면 DB 에서 읽어서 올린다.
+     */
+    public BoardDto get(Long boardId) {
+        return new BoardDto(state(boardId).snapshot);
+    }
+
+    /**
+     * @return 현재 스냅샷의 좌석 인덱스. 불변이므로 복사하지 않는다.
+     */
+    public SeatMap seats(Long boardId) {
+        return state(boardId).seats;
+    }
+
+    /**
+     * 보드를 변경한 트랜잭션이 커밋되면 변경된 보드로 스냅샷을 교체한다.
+     * 트랜잭션 밖에서 호출되면 바로 교체한다.
+     */
+    public void publish(Board board) {
+        Long boardId = board.getId();
+        BoardDto snapshot = new BoardDto(board);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replace(boardId, snapshot);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replace(boardId, snapshot);
+            }
+        });
+    }
+
+    /**
+     * 메모리에만 반영된 액션 순서와 액션 결과를 엔티티에 반영한다. 보드를 변경하기 전에 호출해야 한다.
+     */
+    public void applyPending(Board board) {
+        TableState state = states.get(board.getId());
+        if (state == null || !state.dirty) {
+            return;
+        }
+
+        BoardDto snapshot = state.snapshot;
+        board.setActionPos(snapshot.getActionPos());
+        board.setLastActionTime(snapshot.getLastActionTime());
+        board.setPot(snapshot.getPot());
+        board.setBettingPos(snapshot.getBettingPos());
+        board.setBettingSize(snapshot.getBettingSize());
+        for (Player player : board.getPlayers()) {
+            int idx = state.seats.indexOf(player.getPosition().getPosNum());
+            if (idx == -1 || !snapshot.getPlayers().get(idx).getId().equals(player.getId())) {
+                continue;
+            }
+            PlayerDto pending = snapshot.getPlayers().get(idx);
+            player.setMoney(pending.getMoney());
+            player.setPhaseCallSize(pending.getPhaseCallSize());
+            player.setStatus(PlayerStatus.valueOf(pending.getStatus()));
+        }
+    }
+
+    /**
+     * 액션 순서를 메모리에만 반영한다. 다음에 보드를 변경하는 트랜잭션이 applyPending 으로 저장한다.
+     */
+    public BoardDto setActionPos(Long boardId, int actionPos, LocalDateTime lastActionTime) {
+        return update(boardId, snapshot -> {
+            snapshot.setActionPos(actionPos);
+            snapshot.setLastActionTime(lastActionTime);
+        });
+    }
+
+    /**
+     * 24/02/29 chan
+     * 스냅샷의 복사본을 바꿔서 교체하고, 다음에 보드를 변경하는 트랜잭션이 applyPending 으로 저장하도록 표시한다.
+     * 플레이어 구성은 바꾸면 안 된다. (SeatMap 을 그대로 쓴다.)
+     */
+    public BoardDto update(Long boardId, Consumer<BoardDto> change) {
+        BoardDto loaded = get(boardId);
+        TableState state = states.compute(boardId, (id, old) -> {
+            BoardDto snapshot = new BoardDto(old == null ? loaded : old.snapshot);
+            change.accept(snapshot);
+            return new TableState(snapshot, true, old == null ? SeatMap.of(snapshot) : old.seats);
+        });
+        return new BoardDto(state.snapshot);
+    }
+
+    public void evict(Long boardId) {
+        states.remove(boardId);
+    }
+
+    private TableState state(Long boardId) {
+        TableState state = states.get(boardId);
+        if (state == null) {
+            BoardDto loaded = readOnlyTransaction.execute(status -> load(boardId));
+            state = states.computeIfAbsent(boardId, id -> new TableState(loaded, false, SeatMap.of(loaded)));
+        }
+        return state;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 보드와 플레이어는 projection 한 쿼리로, totalCallSize 는 한 쿼리로 읽는다. Player, User 엔티티는 만들지 않는다.
+     */
+    private BoardDto load(Long boardId) {
+        List<Object[]> rows = boardRepository.findSnapshotRowsById(boardId);
+        if (rows.isEmpty()) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+
+        Board board = (Board) rows.get(0)[0];
+        List<PlayerDto> players = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[1] == null) {
+                continue;
+            }
+            players.add(new PlayerDto((Long) row[1], (Long) row[2], (String) row[3], boardId, ((Position) row[4]).ordinal(), (Integer) row[5],
+                    (Integer) row[6], (Integer) row[7], ((PlayerStatus) row[8]).ordinal(), (Integer) row[9], null, null));
+        }
+        return new BoardDto(board, players);
+    }
+
+    /**
+     * 플레이어 구성이 그대로면 이전 SeatMap 을 그대로 쓴다.
+     */
+    private void replace(Long boardId, BoardDto snapshot) {
+        states.compute(boardId, (id, old) ->
+                new TableState(snapshot, false, old != null && old.seats.matches(snapshot) ? old.seats : SeatMap.of(snapshot)));
+    }
+
+    private static final class TableState {
+        private final BoardDto snapshot;
+        private final boolean dirty;
+        private final SeatMap seats;
+
+        private TableState(BoardDto snapshot, boolean dirty, SeatMap seats) {
+            this.snapshot = snapshot;
+            this.dirty = dirty;
+            this.seats = seats;
+        }
+    }
+}
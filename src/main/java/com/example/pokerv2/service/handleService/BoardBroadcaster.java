@@ -0,0 +1,182 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.BoardSnapshotDto;
+import com.example.pokerv2.dto.MessageDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.MessageType;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.utils.BoardDiffUtils;
+import com.example.pokerv2.utils.BoardViewUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 24/02/18 chan
+ * <p>
+ * 보드 상태를 /topic/board/{boardId} 로 보낸다.
+ * <p>
+ * poker.broadcast.delta=false (기본값) 이면 기존처럼 매번 BoardDto 전체를 보낸다.
+ * true 이면 보드마다 seq 번호를 붙이고, 직전에 보낸 상태와 비교해서 바뀐 필드만 BoardDeltaDto 로 보낸다.
+ * 게임 결과가 담기는 메시지(SNAPSHOT_TYPES), 첫 메시지, snapshotInterval 번째 메시지는 BoardSnapshotDto 로 전체 상태를 보낸다.
+ * 클라이언트가 seq 누락을 발견하면 getSnapshot 으로 마지막 상태를 다시 받는다.
+ * <p>
+ * 보드별 메시지는 TableExecutor 의 메일박스 안에서 보내므로 seq 는 보낸 순서와 같다.
+ * <p>
+ * 24/02/19 chan
+ * poker.broadcast.hide-hole-cards=true 이면 홀카드를 가린 공개 상태(BoardViewUtils.publicView)만 직렬화해서 보낸다.
+ * 공개 상태는 메시지마다 한번만 바이트 배열로 직렬화하고, 토픽에는 그대로, 앉아있는 플레이어에게는
+ * 마지막 '}' 대신 자기 홀카드 조각(,"privateCards":{...}}) 을 이어붙여서 /user/queue/board/{boardId} 로 보낸다.
+ * 앉아있는 플레이어는 토픽 대신 유저 큐를 구독한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BoardBroadcaster {
+
+    private final static String TOPIC_PREFIX = "/topic/board/";
+    private final static String PRIVATE_QUEUE_PREFIX = "/queue/board/";
+    private static final Set<MessageType> SNAPSHOT_TYPES = EnumSet.of(MessageType.GAME_START, MessageType.SHOW_DOWN,
+            MessageType.ALL_IN_EQUITY, MessageType.GAME_END, MessageType.INIT_BOARD);
+    private static final Set<MessageType> SHOW_DOWN_TYPES = EnumSet.of(MessageType.SHOW_DOWN, MessageType.ALL_IN_EQUITY);
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, BroadcastState> states = new ConcurrentHashMap<>();
+
+    @Value("${poker.broadcast.delta:false}")
+    private boolean deltaEnabled;
+    @Value("${poker.broadcast.snapshot-interval:50}")
+    private int snapshotInterval;
+    @Value("${poker.broadcast.hide-hole-cards:false}")
+    private boolean hideHoleCards;
+
+    public void send(BoardDto boardDto, MessageType messageType) {
+        BoardDto view = hideHoleCards ? BoardViewUtils.publicView(boardDto, SHOW_DOWN_TYPES.contains(messageType)) : boardDto;
+        MessageDto message = new MessageDto(messageType.getDetail(), deltaEnabled ? nextPayload(view, messageType) : view);
+
+        if (!hideHoleCards) {
+            simpMessagingTemplate.convertAndSend(TOPIC_PREFIX + boardDto.getId(), message);
+            return;
+        }
+
+        sendPerSeat(boardDto, message);
+    }
+
+    /**
+     * 마지막으로 보낸 보드 상태와 seq. 아직 보낸 메시지가 없으면 seq 0 과 현재 상태를 돌려준다.
+     *
+     * @param current 홀카드가 모두 들어있는 현재 상태
+     * @param userId 요청한 사람. 홀카드를 가리는 경우 이 사람의 카드만 채운다.
+     */
+    public BoardSnapshotDto getSnapshot(BoardDto current, String userId) {
+        BoardSnapshotDto snapshot;
+        BroadcastState state = states.get(current.getId());
+        if (state == null || state.last == null) {
+            snapshot = new BoardSnapshotDto(state == null ? 0 : state.seq, hideHoleCards ? BoardViewUtils.publicView(current, false) : current);
+        } else {
+            synchronized (state) {
+                snapshot = new BoardSnapshotDto(state.seq, new BoardDto(state.last));
+            }
+        }
+
+        if (hideHoleCards) {
+            snapshot.setBoard(BoardViewUtils.privateView(snapshot.getBoard(), current, userId));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 24/02/29 chan
+     * 플레이어가 모두 나간 보드의 seq 와 마지막 상태를 지운다. 다시 보내면 seq 1 의 스냅샷부터 시작한다.
+     */
+    public void evict(Long boardId) {
+        states.remove(boardId);
+    }
+
+    /**
+     * HTTP 응답처럼 한 사람에게 보드를 돌려줄 때 쓰는 상태.
+     */
+    public BoardDto viewOf(BoardDto boardDto, String userId) {
+        if (!hideHoleCards) {
+            return boardDto;
+        }
+        return BoardViewUtils.privateView(BoardViewUtils.publicView(boardDto, false), boardDto, userId);
+    }
+
+    private Object nextPayload(BoardDto view, MessageType messageType) {
+        BroadcastState state = states.computeIfAbsent(view.getId(), id -> new BroadcastState());
+        synchronized (state) {
+            long seq = ++state.seq;
+            Object payload;
+            if (state.last == null || SNAPSHOT_TYPES.contains(messageType) || seq % snapshotInterval == 0) {
+                payload = new BoardSnapshotDto(seq, view);
+            } else {
+                payload = BoardDiffUtils.diff(state.last, view, seq);
+            }
+            state.last = new BoardDto(view);
+            return payload;
+        }
+    }
+
+    private void sendPerSeat(BoardDto boardDto, MessageDto message) {
+        byte[] shared;
+        try {
+            shared = objectMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            log.error("board message serialize failed. boardId = {}", boardDto.getId(), e);
+            throw new CustomException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+
+        sendBytes(TOPIC_PREFIX + boardDto.getId(), shared);
+
+        int publicLength = shared.length - 1;
+        String userPrefix = simpMessagingTemplate.getUserDestinationPrefix();
+        for (PlayerDto player : boardDto.getPlayers()) {
+            byte[] privateSegment = privateSegment(player);
+            byte[] payload = Arrays.copyOf(shared, publicLength + privateSegment.length);
+            System.arraycopy(privateSegment, 0, payload, publicLength, privateSegment.length);
+            sendBytes(userPrefix + player.getPlayerName() + PRIVATE_QUEUE_PREFIX + boardDto.getId(), payload);
+        }
+    }
+
+    private static byte[] privateSegment(PlayerDto player) {
+        return (",\"privateCards\":{\"playerId\":" + player.getId()
+                + ",\"card1\":" + player.getCard1()
+                + ",\"card2\":" + player.getCard2() + "}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 이미 직렬화된 JSON 이므로 메시지 컨버터를 거치지 않고 그대로 보낸다.
+     */
+    private void sendBytes(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        simpMessagingTemplate.send(destination, message);
+    }
+
+    private static final class BroadcastState {
+        private long seq;
+        private BoardDto last;
+    }
+}
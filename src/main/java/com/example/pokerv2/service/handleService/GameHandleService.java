@@ -4,20 +4,29 @@ import com.example.pokerv2.dto.*;
 import com.example.pokerv2.enums.MessageType;
 import com.example.pokerv2.enums.PhaseStatus;
 import com.example.pokerv2.enums.PlayerAction;
+import com.example.pokerv2.enums.TableCommandType;
+import com.example.pokerv2.enums.TimerType;
 import com.example.pokerv2.error.CustomException;
 import com.example.pokerv2.error.ErrorCode;
-import com.example.pokerv2.model.Board;
 import com.example.pokerv2.service.ActionService;
 import com.example.pokerv2.service.BoardService;
+import com.example.pokerv2.service.EquityService;
 import com.example.pokerv2.service.HandHistoryService;
-import com.example.pokerv2.service.HudService;
+import com.example.pokerv2.service.HudEventPipeline;
+import com.example.pokerv2.service.LobbyService;
+import com.example.pokerv2.service.PlayerService;
+import com.example.pokerv2.service.SeatAllocator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -27,107 +36,298 @@ public class GameHandleService {
     private final BoardService boardService;
     private final ActionService actionService;
     private final HandHistoryService handHistoryService;
-    private final HudService hudService;
+    private final HudEventPipeline hudEventPipeline;
+    private final LobbyService lobbyService;
+    private final SeatAllocator seatAllocator;
+    private final EquityService equityService;
+    private final GameTimer gameTimer;
+    private final TableExecutor tableExecutor;
+    private final BoardBroadcaster boardBroadcaster;
     private final SimpMessagingTemplate simpMessagingTemplate;
+    private final PlayerService playerService;
+    private final TableRouter tableRouter;
+    private final TableRelay tableRelay;
     private final static String ERROR_PREFIX = "/queue/error/";
 
-    private final static String TOPIC_PREFIX = "/topic/board/";
-
     private final static int ACTION_TIME = 10;
     private final static int RESULT_ANIMATION_TIME = 5;
-
+    private final static int NEXT_GAME_DELAY = 1;
+    private final static int REMOTE_BOARD_CANDIDATES = 5;
+
+    /**
+     * 24/02/16 chan
+     * 24/02/29 chan 입장할 보드와 자리는 좌석 배정 인덱스에서 DB 를 읽지 않고 예약한다.
+     * 예약한 보드의 입장은 그 보드의 메일박스에서 하므로 같은 보드의 입장은 한번에 하나씩 저장된다.
+     * 입장할 보드가 없으면 새 보드를 만든다.
+     * 24/02/29 chan 좌석 배정 인덱스에는 이 노드가 가진 보드만 있다. 새 보드의 owner 가 다른 노드이면 게임 시작은 owner 노드에서 한다.
+     * 클러스터에서는 이 노드의 보드에 자리가 없으면 새 보드를 만들기 전에 DB 에서 다른 노드의 빈 보드를 찾아 owner 노드에서 입장한다.
+     * 그렇지 않으면 노드마다 따로 새 보드를 만들어서 플레이어가 인원이 적은 보드 여러 개로 흩어진다.
+     */
     public BoardDto joinRandomBoard(int blind, int requestBb, Principal principal) {
 
-        BoardDto boardDto = boardService.joinRandom(blind, requestBb, principal);
-        sendUpdateBoardToPlayers(boardDto, MessageType.PLAYER_JOIN);
+        SeatAllocator.Reservation reservation = seatAllocator.reserve(blind, principal.getName());
+        if (reservation == null) {
+            BoardDto remote = joinRemoteBoard(blind, requestBb, principal);
+            if (remote != null) {
+                return remote;
+            }
+            BoardDto boardDto = boardService.createBoard(blind, requestBb, principal);
+            return boardBroadcaster.viewOf(TableExecutor.await(startMatchedBoard(boardDto)), principal.getName());
+        }
 
-        if (boardDto.getPhaseStatus() == PhaseStatus.WAITING.ordinal() && boardDto.getTotalPlayer() >= 2) {
-            boardDto = startGame(boardDto.getId());
+        try {
+            return tableExecutor.call(reservation.getBoardId(), () -> afterJoin(boardService.join(reservation, requestBb, principal), principal));
+        } catch (RuntimeException e) {
+            // 입장 트랜잭션이 시작되기 전에 실패하면 트랜잭션이 예약을 풀지 않는다. 이미 확정했거나 풀었으면 아무것도 하지 않는다.
+            seatAllocator.release(reservation);
+            throw e;
         }
+    }
 
-        return boardDto;
+    /**
+     * 24/02/29 chan
+     * 다른 노드가 가진 빈 보드에 owner 노드를 거쳐 입장한다. 그 사이에 자리가 찼으면 다음 보드를 시도한다.
+     *
+     * @return 입장한 보드. 클러스터가 아니거나 입장할 보드가 없으면 null
+     */
+    private BoardDto joinRemoteBoard(int blind, int requestBb, Principal principal) {
+        if (!tableRouter.isClustered()) {
+            return null;
+        }
+
+        for (Long boardId : boardService.getPlayableBoardIds(blind, principal.getName(), REMOTE_BOARD_CANDIDATES)) {
+            if (tableRouter.isLocal(boardId)) {
+                continue;
+            }
+            try {
+                return join(boardId, requestBb, principal);
+            } catch (CustomException e) {
+                if (e.getErrorCode() != ErrorCode.MAX_PLAYER_SIZE && e.getErrorCode() != ErrorCode.AlREADY_PLAYING_BOARD) {
+                    throw e;
+                }
+            }
+        }
+        return null;
     }
 
     public BoardDto join(Long boardId, int requestBb, Principal principal) {
-        BoardDto boardDto = boardService.join(boardId, requestBb, principal);
+        if (!tableRouter.isLocal(boardId)) {
+            TableCommandDto command = TableCommandDto.builder().type(TableCommandType.JOIN).boardId(boardId).userId(principal.getName()).requestBb(requestBb).build();
+            return tableRelay.call(boardId, command, BoardDto.class);
+        }
+        return TableExecutor.await(joinAsync(boardId, requestBb, principal));
+    }
+
+    public CompletableFuture<BoardDto> joinAsync(Long boardId, int requestBb, Principal principal) {
+        return tableExecutor.submit(boardId, () -> afterJoin(boardService.join(boardId, requestBb, principal), principal));
+    }
+
+    /**
+     * 24/02/29 chan
+     * 매치메이킹에서 예약한 자리에 앉는다. 매치메이킹 스레드가 기다리지 않도록 메일박스의 결과를 future 로 돌려준다.
+     */
+    public CompletableFuture<BoardDto> joinAsync(SeatAllocator.Reservation reservation, int requestBb, Principal principal) {
+        return tableExecutor.submit(reservation.getBoardId(), () -> afterJoin(boardService.join(reservation, requestBb, principal), principal))
+                .whenComplete((boardDto, e) -> {
+                    if (e != null) {
+                        seatAllocator.release(reservation);
+                    }
+                });
+    }
+
+    /**
+     * 24/02/29 chan
+     * 새로 만든 보드의 입장을 알리고 게임을 시작한다. 보기 전의 보드 전체를 돌려준다.
+     * owner 노드가 다른 노드이면 owner 노드에서 시작하고, owner 노드의 좌석 배정 인덱스에 보드를 등록한다.
+     */
+    public CompletableFuture<BoardDto> startMatchedBoard(BoardDto boardDto) {
+        if (!tableRouter.isLocal(boardDto.getId())) {
+            TableCommandDto command = TableCommandDto.builder().type(TableCommandType.START).boardId(boardDto.getId()).board(boardDto).build();
+            return tableRelay.submit(boardDto.getId(), command, BoardDto.class);
+        }
+
+        seatAllocator.register(boardDto);
+        return tableExecutor.submit(boardDto.getId(), () -> {
+            sendUpdateBoardToPlayers(boardDto, MessageType.PLAYER_JOIN);
+            lobbyService.update(boardService.getBoard(boardDto.getId()));
+            return startGameIfReady(boardDto);
+        });
+    }
+
+    private BoardDto afterJoin(BoardDto boardDto, Principal principal) {
         sendUpdateBoardToPlayers(boardDto, MessageType.PLAYER_JOIN);
+        lobbyService.update(boardService.getBoard(boardDto.getId()));
+        return boardBroadcaster.viewOf(startGameIfReady(boardDto), principal.getName());
+    }
 
-        if (boardDto.getPhaseStatus() == PhaseStatus.WAITING.ordinal() && boardDto.getTotalPlayer() >= 2) {
-            boardDto = startGame(boardDto.getId());
+    private BoardDto startGameIfReady(BoardDto boardDto) {
+        BoardDto board = boardService.getBoard(boardDto.getId());
+        if (board.getPhaseStatus() == PhaseStatus.WAITING.ordinal() && board.getTotalPlayer() >= 2) {
+            return startGame(boardDto.getId());
         }
 
         return boardDto;
     }
 
     public void action(BoardDto boardDto, String action, String userId) {
-        hudService.addCountBeforeSaveAction(boardDto, action);
+        if (!tableRouter.isLocal(boardDto.getId())) {
+            tableRelay.send(boardDto.getId(), TableCommandDto.builder().type(TableCommandType.ACTION).boardId(boardDto.getId()).board(boardDto).option(action).userId(userId).build());
+            return;
+        }
+        runOnTable(boardDto.getId(), userId, () -> handleAction(boardDto, action, userId));
+    }
+
+    public void exitPlayer(BoardDto boardDto, String userId) {
+        if (!tableRouter.isLocal(boardDto.getId())) {
+            tableRelay.send(boardDto.getId(), TableCommandDto.builder().type(TableCommandType.EXIT).boardId(boardDto.getId()).board(boardDto).userId(userId).build());
+            return;
+        }
+        runOnTable(boardDto.getId(), userId, () -> handleExitPlayer(boardDto, userId));
+    }
+
+    /**
+     * 24/02/29 chan
+     * 보드 스냅샷은 owner 노드의 TableStateStore 에만 최신으로 있으므로 다른 노드의 보드는 owner 노드에서 읽는다.
+     */
+    public BoardDto get(Long boardId, Principal principal) {
+        if (!tableRouter.isLocal(boardId)) {
+            TableCommandDto command = TableCommandDto.builder().type(TableCommandType.GET).boardId(boardId).userId(principal.getName()).build();
+            return tableRelay.call(boardId, command, BoardDto.class);
+        }
+        return boardService.get(boardId, principal);
+    }
+
+    public List<BoardDto> getContext(Principal principal) {
+        if (!tableRouter.isClustered()) {
+            return boardService.getContext(principal);
+        }
+
+        List<BoardDto> context = new ArrayList<>();
+        for (Long boardId : playerService.getBoardIds(principal)) {
+            context.add(get(boardId, principal));
+        }
+        return context;
+    }
+
+    /**
+     * 보드의 메일박스에서 작업을 실행한다. CustomException 은 요청한 플레이어의 에러 큐로 보낸다.
+     */
+    private void runOnTable(Long boardId, String userId, Runnable task) {
+        tableExecutor.execute(boardId, () -> {
+            try {
+                task.run();
+            } catch (CustomException e) {
+                sendErrorToPlayer(boardId, userId, e);
+            }
+        });
+    }
+
+    private void handleAction(BoardDto boardDto, String action, String userId) {
+        gameTimer.cancel(boardDto.getId(), TimerType.ACTION_TIMEOUT);
         actionService.saveAction(boardDto, action, userId);
-        Board board = boardService.saveBoardChanges(boardDto, action, userId);
+        Long boardId = boardService.saveBoardChanges(boardDto, action, userId).getId();
+        proceed(boardId);
+    }
+
+    /**
+     * 24/02/15 chan
+     * <p>
+     * 다음 액션 플레이어를 정하고, 페이즈가 끝났으면 다음 페이즈로 넘어간다.
+     * 액션 플레이어의 연결이 끊겨있으면 ACTION_TIME 뒤에 타임아웃을 예약하고 바로 반환한다.
+     */
+    private void proceed(Long boardId) {
         while (true) {
-            if (boardService.isGameEnd(board.getId())) {
-                endGame(board.getId());
-                break;
+            if (boardService.isGameEnd(boardId)) {
+                endGame(boardId);
+                return;
             }
-            board = boardService.setNextAction(board.getId());
+            BoardDto board = boardService.setNextAction(boardId);
 
             if (board.getActionPos() == -1) {
-                hudService.addCountBeforePhaseChange(board.getId());
-                handHistoryService.savePhaseHistory(board.getId());
-                if (boardDto.getPhaseStatus() != PhaseStatus.RIVER.ordinal()) {
-                    boardDto = boardService.nextPhase(board.getId());
-                    hudService.addCountAfterPhaseChange(board.getId());
-                    sendUpdateBoardToPlayers(board.getId(), MessageType.NEXT_PHASE_START);
+                handHistoryService.savePhaseHistory(boardId);
+                if (board.getPhaseStatus() != PhaseStatus.RIVER.ordinal()) {
+                    boardService.nextPhase(boardId);
+                    sendUpdateBoardToPlayers(boardId, MessageType.NEXT_PHASE_START);
                 } else {
-                    endGame(board.getId());
-                    break;
+                    endGame(boardId);
+                    return;
                 }
             } else {
-                sendUpdateBoardToPlayers(board.getId(), MessageType.NEXT_ACTION);
+                sendUpdateBoardToPlayers(boardId, MessageType.NEXT_ACTION);
             }
 
-            if (boardService.isGameEnd(board.getId())) {
-                endGame(board.getId());
-                break;
+            if (boardService.isGameEnd(boardId)) {
+                endGame(boardId);
+                return;
             }
 
-            if (boardService.isActionPlayerConnect(board.getId())) {
-                break;
+            if (boardService.isActionPlayerConnect(boardId)) {
+                return;
             }
 
-            waitDisconnectPlayer();
+            BoardDto waitingBoard = boardService.getBoard(boardId);
+            gameTimer.schedule(boardId, TimerType.ACTION_TIMEOUT, ACTION_TIME, TimeUnit.SECONDS,
+                    () -> actionTimeout(boardId, waitingBoard.getGameSeq(), waitingBoard.getActionPos()));
+            return;
+        }
+    }
 
-            if (boardService.isActionPlayerConnect(board.getId())) {
-                break;
-            } else {
-                timeOutDisconnectPlayer(board);
+    /**
+     * 연결이 끊긴 플레이어가 ACTION_TIME 안에 돌아오지 않으면 폴드시키고 자리에서 내보낸다.
+     */
+    private void actionTimeout(Long boardId, long gameSeq, int actionPos) {
+        BoardDto board = boardService.getBoard(boardId);
+        if (board.getGameSeq() != gameSeq || board.getActionPos() != actionPos || boardService.isActionPlayerConnect(boardId)) {
+            return;
+        }
 
-                if (boardService.isGameEnd(board.getId())) {
-                    endGame(board.getId());
-                    break;
-                } else {
-                    boardService.sitOut(boardDto, boardService.getCurrentActionUserId(board.getId()));
-                    sendUpdateBoardToPlayers(board.getId(), MessageType.PLAYER_EXIT);
-                }
-            }
+        String actionUserId = boardService.getCurrentActionUserId(boardId);
+        timeOutDisconnectPlayer(boardId);
+
+        if (boardService.isGameEnd(boardId)) {
+            endGame(boardId);
+        } else {
+            boardService.sitOut(board, actionUserId);
+            sendUpdateBoardToPlayers(boardId, MessageType.PLAYER_EXIT);
+            lobbyService.update(boardService.getBoard(boardId));
+            proceed(boardId);
         }
     }
 
-    private void timeOutDisconnectPlayer(Board board) {
+    private void timeOutDisconnectPlayer(Long boardId) {
         BoardDto boardDto;
-        boardDto = boardService.getBoard(board.getId());
-        actionService.saveAction(boardDto, PlayerAction.FOLD.getActionDetail(), boardService.getCurrentActionUserId(board.getId()));
-        board = boardService.saveBoardChanges(boardDto, PlayerAction.FOLD.getActionDetail(), boardService.getCurrentActionUserId(board.getId()));
+        boardDto = boardService.getBoard(boardId);
+        actionService.saveAction(boardDto, PlayerAction.FOLD.getActionDetail(), boardService.getCurrentActionUserId(boardId));
+        boardService.saveBoardChanges(boardDto, PlayerAction.FOLD.getActionDetail(), boardService.getCurrentActionUserId(boardId));
     }
 
-    public void exitPlayer(BoardDto boardDto, String userId) {
+    private void handleExitPlayer(BoardDto boardDto, String userId) {
 
         boardService.sitOut(boardDto, userId);
         sendUpdateBoardToPlayers(boardDto.getId(), MessageType.PLAYER_EXIT);
         boardDto = boardService.getBoard(boardDto.getId());
+        lobbyService.update(boardDto);
         if (boardDto.getPhaseStatus() >= PhaseStatus.PRE_FLOP.ordinal() && boardDto.getPhaseStatus() <= PhaseStatus.RIVER.ordinal() &&
                 boardService.isGameEnd(boardDto.getId())) {
             endGame(boardDto.getId());
         }
+        closeIfEmpty(boardDto.getId());
+    }
+
+    /**
+     * 24/02/29 chan
+     * 플레이어가 모두 나간 보드의 메모리 상태(타이머, 브로드캐스트 seq, 스냅샷, 덱)를 지운다.
+     * 매치메이킹으로 보드가 계속 만들어져도 메모리에는 플레이어가 있는 보드만 남는다. 다시 입장하면 DB 에서 읽는다.
+     */
+    private boolean closeIfEmpty(Long boardId) {
+        if (boardService.getBoard(boardId).getTotalPlayer() > 0) {
+            return false;
+        }
+
+        gameTimer.cancelAll(boardId);
+        boardBroadcaster.evict(boardId);
+        boardService.evict(boardId);
+        return true;
     }
 
     public BoardDto startGame(Long boardId) {
@@ -137,7 +337,7 @@ public class GameHandleService {
             sendUpdateBoardToPlayers(boardId, MessageType.GAME_START);
             handHistoryService.createHandHistory(boardId);
             actionService.saveAnteAction(boardId);
-            hudService.addCountAfterPhaseChange(boardId);
+            lobbyService.update(boardService.getBoard(boardId));
         }
 
         return boardService.getBoard(boardId);
@@ -148,12 +348,14 @@ public class GameHandleService {
         int resultAnimationCount = 0;
         BoardDto boardDto;
 
+        gameTimer.cancel(boardId, TimerType.ACTION_TIMEOUT);
         boardService.refundOverBet(boardId);
 
         if (boardService.isShowDown(boardId)) {
+            CompletableFuture<Map<Long, EquityDto>> allInEquity = equityService.calculateAllInEquity(boardService.getBoard(boardId));
             boardDto = boardService.showDown(boardId);
             sendUpdateBoardToPlayers(boardDto, MessageType.SHOW_DOWN);
-            hudService.addCountAfterShowDown(boardDto);
+            sendAllInEquityLater(boardDto, allInEquity);
             for (PlayerDto player : boardDto.getPlayers()) {
                 GameResultDto gameResult = player.getGameResult();
                 if (gameResult.isWinner()) {
@@ -169,14 +371,48 @@ public class GameHandleService {
         }
 
         handHistoryService.end(boardDto);
+        lobbyService.handEnd(boardDto);
 
-        try {
-            Thread.sleep(resultAnimationCount * RESULT_ANIMATION_TIME * 1000);
-        } catch (InterruptedException e) {
-            e.getStackTrace();
+        long gameSeq = boardDto.getGameSeq();
+        hudEventPipeline.publishHandEnd(boardId, gameSeq);
+        gameTimer.schedule(boardId, TimerType.RESULT_ANIMATION, (long) resultAnimationCount * RESULT_ANIMATION_TIME, TimeUnit.SECONDS,
+                () -> finishGame(boardId, gameSeq));
+    }
+
+    /**
+     * 24/02/29 chan
+     * 올인 에퀴티는 쇼다운을 먼저 보낸 뒤 계산이 끝나면 ALL_IN_EQUITY 로 따로 보낸다. 메일박스 스레드는 계산을 기다리지 않는다.
+     * 계산이 끝났을 때 보드가 이미 다음 상태로 넘어갔으면 보내지 않는다.
+     */
+    private void sendAllInEquityLater(BoardDto showDownBoard, CompletableFuture<Map<Long, EquityDto>> allInEquity) {
+        if (allInEquity == null) {
+            return;
         }
 
-        if (boardDto.getGameSeq() != boardService.getBoard(boardId).getGameSeq()) {
+        Long boardId = showDownBoard.getId();
+        allInEquity.whenComplete((equityMap, e) -> {
+            if (e != null) {
+                log.warn("all-in equity skipped. boardId = {}, cause = {}", boardId, e.toString());
+                return;
+            }
+            tableExecutor.execute(boardId, () -> {
+                BoardDto board = boardService.getBoard(boardId);
+                if (board.getGameSeq() != showDownBoard.getGameSeq() || board.getPhaseStatus() != showDownBoard.getPhaseStatus()) {
+                    return;
+                }
+                for (PlayerDto player : showDownBoard.getPlayers()) {
+                    player.setEquity(equityMap.get(player.getUserId()));
+                }
+                sendUpdateBoardToPlayers(showDownBoard, MessageType.ALL_IN_EQUITY);
+            });
+        });
+    }
+
+    /**
+     * 결과 애니메이션이 끝난 뒤 보드를 정리하고, NEXT_GAME_DELAY 뒤에 다음 게임을 예약한다.
+     */
+    private void finishGame(Long boardId, long gameSeq) {
+        if (gameSeq != boardService.getBoard(boardId).getGameSeq()) {
             return;
         }
 
@@ -190,34 +426,55 @@ public class GameHandleService {
         }
 
         sendUpdateBoardToPlayers(boardId, MessageType.INIT_BOARD);
-
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.getStackTrace();
-        }
-
-        if (boardDto.getGameSeq() != boardService.getBoard(boardId).getGameSeq()) {
+        lobbyService.update(boardService.getBoard(boardId));
+        if (closeIfEmpty(boardId)) {
             return;
         }
 
-        startGame(boardId);
+        gameTimer.schedule(boardId, TimerType.NEXT_GAME, NEXT_GAME_DELAY, TimeUnit.SECONDS, () -> {
+            if (gameSeq == boardService.getBoard(boardId).getGameSeq()) {
+                startGame(boardId);
+            }
+        });
     }
 
-    private static void waitDisconnectPlayer() {
-        try {
-            Thread.sleep(ACTION_TIME * 1000);
-        } catch (InterruptedException e) {
-            throw new CustomException(ErrorCode.INTERNAL_SERVER_ERROR);
+    /**
+     * 24/02/18 chan
+     * 보드를 구독중인 플레이어가 가진 마지막 상태. 메일박스에서 만들기 때문에 이후의 변경분과 seq 가 이어진다.
+     */
+    public BoardSnapshotDto getSnapshot(Long boardId, Principal principal) {
+        if (!tableRouter.isLocal(boardId)) {
+            TableCommandDto command = TableCommandDto.builder().type(TableCommandType.SNAPSHOT).boardId(boardId).userId(principal.getName()).build();
+            return tableRelay.call(boardId, command, BoardSnapshotDto.class);
         }
+        return TableExecutor.await(getSnapshotAsync(boardId, principal));
+    }
+
+    public CompletableFuture<BoardSnapshotDto> getSnapshotAsync(Long boardId, Principal principal) {
+        return tableExecutor.submit(boardId, () -> {
+            if (boardService.get(boardId, principal) == null) {
+                throw new CustomException(ErrorCode.BAD_REQUEST);
+            }
+            return boardBroadcaster.getSnapshot(boardService.getBoard(boardId), principal.getName());
+        });
     }
 
     private void sendUpdateBoardToPlayers(Long boardId, MessageType messageType) {
-        simpMessagingTemplate.convertAndSend(TOPIC_PREFIX + boardId, new MessageDto(messageType.getDetail(), boardService.getBoard(boardId)));
+        boardBroadcaster.send(boardService.getBoard(boardId), messageType);
     }
 
     private void sendUpdateBoardToPlayers(BoardDto boardDto, MessageType messageType) {
-        simpMessagingTemplate.convertAndSend(TOPIC_PREFIX + boardDto.getId(), new MessageDto(messageType.getDetail(), boardDto));
+        boardBroadcaster.send(boardDto, messageType);
+    }
+
+    private void sendErrorToPlayer(Long boardId, String userId, CustomException ex) {
+        for (PlayerDto player : boardService.getBoard(boardId).getPlayers()) {
+            if (player.getPlayerName().equals(userId)) {
+                simpMessagingTemplate.convertAndSend(ERROR_PREFIX + boardId + "/" + player.getUserId(), new MessageDto(MessageType.ERROR.toString(), ex.getMessage()));
+                return;
+            }
+        }
+        log.warn("board action failed. boardId = {}, userId = {}, error = {}", boardId, userId, ex.getErrorCode());
     }
 
     private void sendErrorToPlayer(Long boardId, Long userId, CustomException ex) {
@@ -0,0 +1,112 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.enums.TimerType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 24/02/15 chan
+ * <p>
+ * 액션 타임아웃, 결과 애니메이션 대기, 다음 게임 시작을 예약하는 타이머.
+ * <p>
+ * Thread.sleep 대신 ScheduledThreadPoolExecutor 에 예약하므로 기다리는 동안 스레드를 점유하지 않는다.
+ * 보드 id 와 타이머 종류마다 하나만 예약되며, 같은 종류를 다시 예약하거나 cancel 하면 기존 예약은 취소된다.
+ * <p>
+ * 24/02/16 chan
+ * 시간이 되면 작업은 TableExecutor 의 보드 메일박스에 들어가서 다른 게임 이벤트와 순서대로 실행된다.
+ * 메일박스에서 기다리는 동안 취소되면 실행하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameTimer {
+
+    private final TableExecutor tableExecutor;
+
+    @Value("${poker.timer.pool-size:2}")
+    private int poolSize;
+
+    private ScheduledThreadPoolExecutor scheduler;
+    private final Map<TimerKey, ScheduledTask> tasks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        scheduler = new ScheduledThreadPoolExecutor(poolSize, new CustomizableThreadFactory("game-timer-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public void schedule(Long boardId, TimerType type, long delay, TimeUnit unit, Runnable task) {
+        TimerKey key = new TimerKey(boardId, type);
+        tasks.compute(key, (k, old) -> {
+            if (old != null) {
+                old.cancelled = true;
+                old.future.cancel(false);
+            }
+            ScheduledTask scheduledTask = new ScheduledTask(key, task);
+            scheduledTask.future = scheduler.schedule(() -> tableExecutor.execute(boardId, scheduledTask), delay, unit);
+            return scheduledTask;
+        });
+    }
+
+    public void cancel(Long boardId, TimerType type) {
+        ScheduledTask task = tasks.remove(new TimerKey(boardId, type));
+        if (task != null) {
+            task.cancelled = true;
+            task.future.cancel(false);
+        }
+    }
+
+    public void cancelAll(Long boardId) {
+        for (TimerType type : TimerType.values()) {
+            cancel(boardId, type);
+        }
+    }
+
+    public boolean isScheduled(Long boardId, TimerType type) {
+        return tasks.containsKey(new TimerKey(boardId, type));
+    }
+
+    private record TimerKey(Long boardId, TimerType type) {
+    }
+
+    private final class ScheduledTask implements Runnable {
+        private final TimerKey key;
+        private final Runnable task;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
+
+        private ScheduledTask(TimerKey key, Runnable task) {
+            this.key = key;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            tasks.remove(key, this);
+            if (cancelled) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("timer task failed. boardId = {}, type = {}", key.boardId(), key.type(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.MessageDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.SeatRequestDto;
+import com.example.pokerv2.enums.MessageType;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.service.BoardService;
+import com.example.pokerv2.service.SeatAllocator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 빠른 입장 매치메이킹 큐. 블라인드별로 window-ms 동안 들어온 입장 요청을 모아서 한번에 앉힌다.
+ * <p>
+ * 1. 좌석 배정 인덱스에서 빈 자리가 있는 기존 보드를 먼저 채운다. (많이 찬 보드부터)
+ * 2. 남은 요청은 잔고가 있는 유저만 table-size 에 가깝게 고르게 나눠서 새 보드를 만든다. 보드와 플레이어는 한 트랜잭션에서 batch insert 한다.
+ * 3. 앉은 유저에게는 HTTP 응답과 함께 /user/queue/match 로 보드를 보낸다. (MATCHED)
+ *    보드에 자기 홀카드가 들어있으므로 유저 목적지로만 보내고, StompHandler 가 /queue/match/ 직접 구독을 막는다.
+ * <p>
+ * 요청이 몰릴 때 2인 보드가 여러 개 생기지 않고, 같은 인원을 더 적은 보드(타이머, 브로드캐스트, DB 행)로 받는다.
+ * 대신 모든 요청이 경합이 없을 때도 window-ms 만큼 늦게 앉는다. 그래서 기본은 꺼져 있고 (poker.matchmaking.enabled=false)
+ * 꺼져 있으면 요청마다 바로 joinRandomBoard 로 앉힌다. 빠른 입장이 몰리는 환경에서만 켠다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchmakingService {
+
+    public static final String MATCH_QUEUE = "/queue/match";
+
+    private final GameHandleService gameHandleService;
+    private final BoardService boardService;
+    private final SeatAllocator seatAllocator;
+    private final BoardBroadcaster boardBroadcaster;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+
+    @Value("${poker.matchmaking.enabled:false}")
+    private boolean enabled;
+
+    @Value("${poker.matchmaking.window-ms:300}")
+    private long windowMs;
+
+    @Value("${poker.matchmaking.table-size:6}")
+    private int tableSize;
+
+    private ScheduledThreadPoolExecutor scheduler;
+    private final Map<Integer, WaitingQueue> queues = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        scheduler = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("matchmaking-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 입장 요청을 큐에 넣는다. 앉으면 보드가 완료된다.
+     */
+    public CompletableFuture<BoardDto> join(int blind, int requestBb, Principal principal) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(gameHandleService.joinRandomBoard(blind, requestBb, principal));
+        }
+
+        Ticket ticket = new Ticket(principal, requestBb);
+        WaitingQueue queue = queues.computeIfAbsent(blind, b -> new WaitingQueue());
+        queue.tickets.offer(ticket);
+        if (queue.scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> flush(blind, queue), windowMs, TimeUnit.MILLISECONDS);
+        }
+        return ticket.future;
+    }
+
+    private void flush(int blind, WaitingQueue queue) {
+        // 비우기 전에 내려야 비운 뒤에 들어온 요청이 다음 window 를 예약한다.
+        queue.scheduled.set(false);
+        List<Ticket> batch = new ArrayList<>();
+        Ticket ticket;
+        while ((ticket = queue.tickets.poll()) != null) {
+            batch.add(ticket);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        match(blind, batch);
+    }
+
+    private void match(int blind, List<Ticket> batch) {
+        Map<String, Ticket> tickets = new LinkedHashMap<>();
+        for (Ticket ticket : batch) {
+            Ticket first = tickets.putIfAbsent(ticket.userId(), ticket);
+            if (first != null) {
+                // 같은 유저가 window 안에 다시 요청하면 처음 요청의 결과를 같이 받는다.
+                first.future.whenComplete((board, e) -> complete(ticket, board, e));
+            }
+        }
+
+        List<Ticket> waiting = new ArrayList<>();
+        for (Ticket ticket : tickets.values()) {
+            try {
+                SeatAllocator.Reservation reservation = seatAllocator.reserve(blind, ticket.userId());
+                if (reservation == null) {
+                    waiting.add(ticket);
+                    continue;
+                }
+                gameHandleService.joinAsync(reservation, ticket.requestBb, ticket.principal)
+                        .whenComplete((board, e) -> seated(ticket, board, e));
+            } catch (RuntimeException e) {
+                log.error("matchmaking join failed. blind = {}, userId = {}", blind, ticket.userId(), e);
+                ticket.future.completeExceptionally(e);
+            }
+        }
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        List<SeatRequestDto> requests = new ArrayList<>();
+        for (Ticket ticket : waiting) {
+            requests.add(new SeatRequestDto(ticket.userId(), ticket.requestBb));
+        }
+
+        List<BoardDto> boards;
+        try {
+            boards = boardService.createBoards(blind, requests, tableSize);
+        } catch (RuntimeException e) {
+            // 기존 보드에 앉는 중이거나 앉은 유저는 그대로 두고, 새 보드를 기다리던 유저만 실패시킨다.
+            log.error("matchmaking failed. blind = {}, size = {}", blind, waiting.size(), e);
+            for (Ticket ticket : waiting) {
+                ticket.future.completeExceptionally(e);
+            }
+            return;
+        }
+        Map<String, Ticket> unseated = new LinkedHashMap<>();
+        for (Ticket ticket : waiting) {
+            unseated.put(ticket.userId(), ticket);
+        }
+        for (BoardDto board : boards) {
+            List<Ticket> seatedTickets = new ArrayList<>();
+            for (PlayerDto player : board.getPlayers()) {
+                seatedTickets.add(unseated.remove(player.getPlayerName()));
+            }
+            gameHandleService.startMatchedBoard(board).whenComplete((started, e) -> {
+                BoardDto result = started;
+                if (e != null) {
+                    // 자리는 이미 커밋됐으므로 게임 시작에 실패해도 만든 보드로 응답한다.
+                    log.error("matched board start failed. boardId = {}", board.getId(), e);
+                    result = board;
+                }
+                for (Ticket ticket : seatedTickets) {
+                    seated(ticket, boardBroadcaster.viewOf(result, ticket.userId()), null);
+                }
+            });
+        }
+        for (Ticket ticket : unseated.values()) {
+            ticket.future.completeExceptionally(new CustomException(ErrorCode.NOT_ENOUGH_MONEY));
+        }
+    }
+
+    private void seated(Ticket ticket, BoardDto board, Throwable e) {
+        if (e == null) {
+            simpMessagingTemplate.convertAndSendToUser(ticket.userId(), MATCH_QUEUE, new MessageDto(MessageType.MATCHED.getDetail(), board));
+        }
+        complete(ticket, board, e);
+    }
+
+    private static void complete(Ticket ticket, BoardDto board, Throwable e) {
+        if (e == null) {
+            ticket.future.complete(board);
+            return;
+        }
+        ticket.future.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+
+    private static final class WaitingQueue {
+        private final Queue<Ticket> tickets = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    }
+
+    private static final class Ticket {
+        private final Principal principal;
+        private final int requestBb;
+        private final CompletableFuture<BoardDto> future = new CompletableFuture<>();
+
+        private Ticket(Principal principal, int requestBb) {
+            this.principal = principal;
+            this.requestBb = requestBb;
+        }
+
+        private String userId() {
+            return principal.getName();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.enums.TableCommandType;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.service.LobbyService;
+import com.example.pokerv2.service.PlayerService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 다른 노드에서 넘어온 보드 명령을 이 노드의 GameHandleService 로 실행한다.
+ * 브로커의 수신 스레드에서 호출되므로 DB 를 읽는 작업은 모두 보드의 메일박스에 넣고 future 를 돌려준다.
+ * <p>
+ * 노드마다 owner 계산이 다르면(노드 목록 설정이 다르면) 명령이 노드 사이를 오가지 않도록 거절한다.
+ * LOBBY 는 다른 노드의 보드 줄이므로 owner 를 확인하지 않고 로비 읽기 모델에 반영한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableCommandHandler {
+
+    private final GameHandleService gameHandleService;
+    private final TableRouter tableRouter;
+    private final TableRelay tableRelay;
+    private final TableExecutor tableExecutor;
+    private final PlayerService playerService;
+    private final LobbyService lobbyService;
+
+    @PostConstruct
+    public void init() {
+        tableRelay.setHandler(this::handle);
+    }
+
+    CompletableFuture<?> handle(TableCommandDto command) {
+        if (command.getType() == TableCommandType.LOBBY) {
+            lobbyService.apply(command.getLobbyBoard());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Long boardId = command.getBoardId();
+        if (!tableRouter.isLocal(boardId)) {
+            log.error("table command for other node. nodeId = {}, boardId = {}, owner = {}", tableRouter.getNodeId(), boardId, tableRouter.ownerOf(boardId));
+            return CompletableFuture.failedFuture(new CustomException(ErrorCode.BAD_REQUEST));
+        }
+
+        Principal principal = command::getUserId;
+        switch (command.getType()) {
+            case ACTION -> gameHandleService.action(command.getBoard(), command.getOption(), command.getUserId());
+            case EXIT -> gameHandleService.exitPlayer(command.getBoard(), command.getUserId());
+            case CONNECT -> tableExecutor.execute(boardId, () -> playerService.setConnect(principal, boardId));
+            case DISCONNECT -> tableExecutor.execute(boardId, () -> playerService.setDisconnect(command.getPlayerId()));
+            case JOIN -> {
+                return gameHandleService.joinAsync(boardId, command.getRequestBb(), principal);
+            }
+            case START -> {
+                return gameHandleService.startMatchedBoard(command.getBoard());
+            }
+            case GET -> {
+                return tableExecutor.submit(boardId, () -> gameHandleService.get(boardId, principal));
+            }
+            case SNAPSHOT -> {
+                return gameHandleService.getSnapshotAsync(boardId, principal);
+            }
+            default -> {
+                return CompletableFuture.failedFuture(new CustomException(ErrorCode.BAD_REQUEST));
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.pokerv2.service.handleService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 24/02/16 chan
+ * <p>
+ * 보드별 메일박스로 게임 이벤트를 직렬화하는 실행기. (table actor)
+ * <p>
+ * 액션, 퇴장, 연결/연결 끊김, 타이머 이벤트는 모두 보드 id 의 메일박스에 넣는다.
+ * 메일박스는 공유 스레드 풀에서 실행되지만 한 보드의 메일박스는 한번에 하나의 스레드만 비운다.
+ * 그래서 같은 보드의 이벤트는 들어온 순서대로 하나씩 처리되고, DB 락 없이도 서로 겹치지 않는다.
+ * <p>
+ * 한 메일박스가 스레드를 독점하지 않도록 DRAIN_BATCH 개를 처리하면 풀에 다시 제출한다.
+ * <p>
+ * 24/02/17 chan
+ * spring.threads.virtual.enabled=true 이면 고정 크기 풀 대신 메일박스를 비울 때마다 가상 스레드를 만든다. (Java 21 이상에서 실행해야 한다.)
+ * 게임 루프의 JDBC 대기, 에퀴티 대기가 플랫폼 스레드를 잡고 있지 않으므로 동시에 진행할 수 있는 테이블 수가 풀 크기에 묶이지 않는다.
+ * <p>
+ * 24/02/29 chan
+ * 메일박스는 비어서 멈추면 맵에서 지운다. 보드가 계속 만들어져도 맵에는 처리할 작업이 있는 보드만 남는다.
+ * 작업을 넣는 것과 지우는 것은 맵의 같은 키에 대한 compute 안에서 하므로, 지운 메일박스에 작업이 들어가거나
+ * 한 보드에 메일박스가 두 개 생겨서 동시에 실행되는 일은 없다.
+ */
+@Slf4j
+@Component
+public class TableExecutor {
+
+    private static final int DRAIN_BATCH = 32;
+
+    @Value("${poker.table.pool-size:0}")
+    private int poolSize;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Executor executor;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreads) {
+            executor = new VirtualThreadTaskExecutor("table-");
+            log.info("table executor runs on virtual threads");
+            return;
+        }
+
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors() * 2;
+        executor = Executors.newFixedThreadPool(size, new CustomizableThreadFactory("table-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * 보드의 메일박스에 작업을 넣는다. 작업에서 발생한 예외는 로그만 남긴다.
+     */
+    public void execute(Long boardId, Runnable task) {
+        Mailbox mailbox = mailboxes.compute(boardId, (id, old) -> {
+            Mailbox current = old == null ? new Mailbox(id) : old;
+            current.queue.offer(task);
+            return current;
+        });
+        mailbox.trySchedule();
+    }
+
+    public <T> CompletableFuture<T> submit(Long boardId, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(boardId, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 보드의 메일박스에서 작업을 실행하고 끝날 때까지 기다린다.
+     * 작업의 RuntimeException(CustomException) 은 그대로 다시 던진다.
+     * 메일박스 안에서 호출하면 교착상태가 되므로 HTTP 요청처럼 메일박스 밖에서만 호출해야 한다.
+     */
+    public <T> T call(Long boardId, Supplier<T> task) {
+        return await(submit(boardId, task));
+    }
+
+    /**
+     * 24/02/29 chan
+     * future 가 끝날 때까지 기다린다. 작업의 RuntimeException 은 그대로 다시 던진다.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    int mailboxSize() {
+        return mailboxes.size();
+    }
+
+    private final class Mailbox {
+        private final Long boardId;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean running = new AtomicBoolean(false);
+
+        private Mailbox(Long boardId) {
+            this.boardId = boardId;
+        }
+
+        private void trySchedule() {
+            if (running.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                for (int i = 0; i < DRAIN_BATCH && (task = queue.poll()) != null; i++) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.error("table task failed. boardId = {}", boardId, e);
+                    }
+                }
+            } finally {
+                running.set(false);
+                if (!queue.isEmpty()) {
+                    trySchedule();
+                } else {
+                    // 실행중이 아니고 비어있을 때만 지운다. 그 사이에 들어온 작업은 compute 안에서 queue 에 보인다.
+                    mailboxes.computeIfPresent(boardId, (id, current) ->
+                            current == this && queue.isEmpty() && !running.get() ? null : current);
+                }
+            }
+        }
+    }
+}
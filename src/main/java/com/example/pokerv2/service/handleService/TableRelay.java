@@ -0,0 +1,197 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.enums.TableCommandType;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 다른 노드가 가진 보드(TableRouter)로 명령을 넘기고, 이 노드가 가진 보드로 온 명령을 handler 에 넘긴다.
+ * <p>
+ * 명령은 TableTransport 로 owner 노드의 큐(/queue/poker.node.{nodeId})에 보낸다.
+ * 결과가 필요한 명령(HTTP 요청)은 correlationId 를 붙여 보내고, owner 노드가 보낸 REPLY 로 future 를 완료한다.
+ * owner 노드의 CustomException 은 ErrorCode 그대로 다시 던진다. call-timeout-ms 안에 REPLY 가 없으면 INTERNAL_SERVER_ERROR 이다.
+ * <p>
+ * 노드가 하나이면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class TableRelay {
+
+    public static final String NODE_QUEUE_PREFIX = "/queue/poker.node.";
+
+    private final TableRouter tableRouter;
+    private final TableTransport transport;
+    private final ObjectMapper objectMapper;
+    private final long callTimeoutMs;
+    private final Map<String, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private volatile Function<TableCommandDto, CompletableFuture<?>> handler;
+
+    @Autowired
+    public TableRelay(TableRouter tableRouter, ObjectProvider<TableTransport> transport, ObjectMapper objectMapper,
+                      @Value("${poker.cluster.call-timeout-ms:5000}") long callTimeoutMs) {
+        this(tableRouter, transport.getIfAvailable(), objectMapper, callTimeoutMs);
+    }
+
+    TableRelay(TableRouter tableRouter, TableTransport transport, ObjectMapper objectMapper, long callTimeoutMs) {
+        if (tableRouter.isClustered() && transport == null) {
+            throw new IllegalStateException("poker.cluster.nodes requires poker.stomp.relay.enabled=true");
+        }
+        this.tableRouter = tableRouter;
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.callTimeoutMs = callTimeoutMs;
+    }
+
+    /**
+     * 이 노드가 가진 보드로 온 명령을 처리한다. 결과가 필요 없는 명령은 완료된 future 를 돌려준다.
+     */
+    public void setHandler(Function<TableCommandDto, CompletableFuture<?>> handler) {
+        this.handler = handler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (tableRouter.isClustered()) {
+            transport.listen(tableRouter.getNodeId(), this::receive);
+            log.info("table relay started. nodeId = {}", tableRouter.getNodeId());
+        }
+    }
+
+    /**
+     * owner 노드로 명령을 보내기만 한다. 보내지 못하면 로그만 남긴다.
+     */
+    public void send(Long boardId, TableCommandDto command) {
+        try {
+            transport.send(tableRouter.ownerOf(boardId), command);
+        } catch (RuntimeException e) {
+            log.warn("table command dropped. boardId = {}, type = {}", boardId, command.getType(), e);
+        }
+    }
+
+    /**
+     * 24/02/29 chan
+     * 이 노드를 뺀 모든 노드로 명령을 보내기만 한다. 보내지 못한 노드는 로그만 남긴다. 노드가 하나이면 아무것도 하지 않는다.
+     */
+    public void broadcast(TableCommandDto command) {
+        if (!tableRouter.isClustered()) {
+            return;
+        }
+        for (String node : tableRouter.getNodes()) {
+            if (node.equals(tableRouter.getNodeId())) {
+                continue;
+            }
+            try {
+                transport.send(node, command);
+            } catch (RuntimeException e) {
+                log.warn("table command dropped. nodeId = {}, type = {}", node, command.getType(), e);
+            }
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Long boardId, TableCommandDto command, Class<T> type) {
+        String correlationId = UUID.randomUUID().toString();
+        command.setCorrelationId(correlationId);
+        command.setReplyTo(tableRouter.getNodeId());
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        pending.put(correlationId, future);
+        try {
+            transport.send(tableRouter.ownerOf(boardId), command);
+        } catch (RuntimeException e) {
+            log.warn("table command failed. boardId = {}, type = {}", boardId, command.getType(), e);
+            future.completeExceptionally(new CustomException(ErrorCode.INTERNAL_SERVER_ERROR));
+        }
+
+        return future.orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS).handle((result, e) -> {
+            pending.remove(correlationId);
+            if (e != null) {
+                throw unwrap(e) instanceof CustomException cause ? cause : new CustomException(ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+            return result == null ? null : objectMapper.convertValue(result, type);
+        });
+    }
+
+    /**
+     * owner 노드에서 명령을 실행하고 결과를 기다린다. 메일박스 밖(HTTP 요청)에서만 호출해야 한다.
+     */
+    public <T> T call(Long boardId, TableCommandDto command, Class<T> type) {
+        return TableExecutor.await(submit(boardId, command, type));
+    }
+
+    void receive(TableCommandDto command) {
+        if (command.getType() == TableCommandType.REPLY) {
+            CompletableFuture<Object> future = pending.get(command.getCorrelationId());
+            if (future == null) {
+                return;
+            }
+            if (command.getErrorCode() != null) {
+                future.completeExceptionally(new CustomException(ErrorCode.valueOf(command.getErrorCode())));
+            } else {
+                future.complete(command.getResult());
+            }
+            return;
+        }
+
+        CompletableFuture<?> future;
+        try {
+            future = handler.apply(command);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        if (command.getCorrelationId() == null) {
+            future.whenComplete((result, e) -> {
+                if (e != null) {
+                    log.warn("table command failed. boardId = {}, type = {}", command.getBoardId(), command.getType(), unwrap(e));
+                }
+            });
+            return;
+        }
+        future.whenComplete((result, e) -> reply(command, result, e));
+    }
+
+    private void reply(TableCommandDto command, Object result, Throwable e) {
+        TableCommandDto reply = TableCommandDto.builder()
+                .type(TableCommandType.REPLY)
+                .boardId(command.getBoardId())
+                .correlationId(command.getCorrelationId())
+                .build();
+        if (e == null) {
+            reply.setResult(result);
+        } else if (unwrap(e) instanceof CustomException cause) {
+            reply.setErrorCode(cause.getErrorCode().name());
+        } else {
+            log.error("table command failed. boardId = {}, type = {}", command.getBoardId(), command.getType(), unwrap(e));
+            reply.setErrorCode(ErrorCode.INTERNAL_SERVER_ERROR.name());
+        }
+
+        try {
+            transport.send(command.getReplyTo(), reply);
+        } catch (RuntimeException ex) {
+            log.warn("table reply dropped. boardId = {}, replyTo = {}", command.getBoardId(), command.getReplyTo(), ex);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.pokerv2.service.handleService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 보드를 가진 노드(owner)를 정한다. 보드의 모든 이벤트는 owner 노드의 TableExecutor 메일박스에서만 처리한다.
+ * <p>
+ * poker.cluster.nodes 에 모든 노드 id 를 같은 목록으로 설정하고, 노드마다 poker.cluster.node-id 를 다르게 준다.
+ * 노드 id 와 보드 id 의 해시가 가장 큰 노드가 owner 이다. (rendezvous hashing)
+ * 모든 노드가 따로 계산해도 같은 owner 가 나오고, 노드가 빠지면 그 노드의 보드만 다른 노드로 옮겨간다.
+ * <p>
+ * 노드 목록이 비어있거나 하나이면 모든 보드가 이 노드의 보드이다. (단일 인스턴스)
+ */
+@Component
+public class TableRouter {
+
+    private final String nodeId;
+    private final List<String> nodes;
+
+    public TableRouter(@Value("${poker.cluster.node-id:local}") String nodeId, @Value("${poker.cluster.nodes:}") String nodes) {
+        this.nodeId = nodeId;
+        List<String> nodeList = new ArrayList<>();
+        for (String node : nodes.split(",")) {
+            if (!node.isBlank()) {
+                nodeList.add(node.trim());
+            }
+        }
+        if (!nodeList.isEmpty() && !nodeList.contains(nodeId)) {
+            throw new IllegalStateException("poker.cluster.nodes does not contain node id " + nodeId);
+        }
+        this.nodes = Collections.unmodifiableList(nodeList);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isClustered() {
+        return nodes.size() > 1;
+    }
+
+    public String ownerOf(Long boardId) {
+        if (!isClustered()) {
+            return nodeId;
+        }
+
+        String owner = null;
+        long max = Long.MIN_VALUE;
+        for (String node : nodes) {
+            long score = mix(node.hashCode() * 0x9E3779B97F4A7C15L + boardId);
+            if (owner == null || score > max) {
+                owner = node;
+                max = score;
+            }
+        }
+        return owner;
+    }
+
+    public boolean isLocal(Long boardId) {
+        return !isClustered() || nodeId.equals(ownerOf(boardId));
+    }
+
+    // murmur3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.TableCommandDto;
+
+import java.util.function.Consumer;
+
+/**
+ * 24/02/29 chan
+ * 노드 사이의 보드 명령 전송. 노드마다 자기 id 의 큐 하나를 구독한다.
+ */
+public interface TableTransport {
+
+    /**
+     * 이 노드의 큐를 구독한다. 받은 명령은 listener 로 넘긴다. listener 에서 오래 걸리는 작업을 하면 안 된다.
+     */
+    void listen(String nodeId, Consumer<TableCommandDto> listener);
+
+    /**
+     * 노드의 큐로 명령을 보낸다. 보낼 수 없으면 RuntimeException 을 던진다.
+     */
+    void send(String nodeId, TableCommandDto command);
+}
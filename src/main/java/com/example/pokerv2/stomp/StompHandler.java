@@ -1,7 +1,14 @@
 package com.example.pokerv2.stomp;
 
 
+import com.example.pokerv2.config.WebSocketBrokerConfig;
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.enums.TableCommandType;
 import com.example.pokerv2.service.PlayerService;
+import com.example.pokerv2.service.handleService.MatchmakingService;
+import com.example.pokerv2.service.handleService.TableExecutor;
+import com.example.pokerv2.service.handleService.TableRelay;
+import com.example.pokerv2.service.handleService.TableRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -15,6 +22,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 
 @RequiredArgsConstructor
 @Component
@@ -23,12 +32,17 @@ public class StompHandler implements ChannelInterceptor {
 
     private final WebSocketAuthenticatorService webSocketAuthenticatorService;
     private final PlayerService playerLifeCycleService;
+    private final TableExecutor tableExecutor;
+    private final TableRouter tableRouter;
+    private final TableRelay tableRelay;
     private static final String USERNAME_HEADER = "userId";
     private static final String PASSWORD_HEADER = "password";
     private static final String DISCONNECT_OPTION = "disconnect_option";
     private static final String PLAYER_ID = "player_id";
     private static final String exitValue = "exit";
     private static final String disconnectValue = "disconnect";
+    private static final List<String> FORBIDDEN_SUBSCRIBE_PREFIXES = List.of(MatchmakingService.MATCH_QUEUE + "/",
+            WebSocketBrokerConfig.USER_DESTINATION_BROADCAST, WebSocketBrokerConfig.USER_REGISTRY_BROADCAST);
 
     @Override
     public Message<?> preSend(final Message<?> message, final MessageChannel channel) throws AuthenticationException {
@@ -41,7 +55,13 @@ public class StompHandler implements ChannelInterceptor {
                 final UsernamePasswordAuthenticationToken user = webSocketAuthenticatorService.getAuthenticatedOrFail(username, password);
                 accessor.setUser(user);
 
-                playerLifeCycleService.setConnect(user);
+                for (Long boardId : playerLifeCycleService.getBoardIds(user)) {
+                    if (tableRouter.isLocal(boardId)) {
+                        tableExecutor.execute(boardId, () -> playerLifeCycleService.setConnect(user, boardId));
+                    } else {
+                        tableRelay.send(boardId, TableCommandDto.builder().type(TableCommandType.CONNECT).boardId(boardId).userId(user.getName()).build());
+                    }
+                }
             } else {
                 throw new MessageDeliveryException("UNAUTHORIZED");
             }
@@ -52,10 +72,40 @@ public class StompHandler implements ChannelInterceptor {
             final String playerId = accessor.getFirstNativeHeader(PLAYER_ID);
 
             if(accessor.getUser() != null && disconnect_option != null && disconnect_option.equals(disconnectValue) && playerId != null) {
-                playerLifeCycleService.setDisconnect(Long.parseLong(playerId));
+                final Long disconnectPlayerId = Long.parseLong(playerId);
+                playerLifeCycleService.getBoardId(disconnectPlayerId).ifPresent(boardId -> {
+                    if (tableRouter.isLocal(boardId)) {
+                        tableExecutor.execute(boardId, () -> playerLifeCycleService.setDisconnect(disconnectPlayerId));
+                    } else {
+                        tableRelay.send(boardId, TableCommandDto.builder().type(TableCommandType.DISCONNECT).boardId(boardId).playerId(disconnectPlayerId).build());
+                    }
+                });
             }
         }
+
+        // 24/02/29 chan 노드 사이의 명령 큐는 클라이언트가 구독하거나 보낼 수 없다.
+        else if ((StompCommand.SUBSCRIBE == accessor.getCommand() || StompCommand.SEND == accessor.getCommand())
+                && accessor.getDestination() != null && accessor.getDestination().startsWith(TableRelay.NODE_QUEUE_PREFIX)) {
+            throw new MessageDeliveryException("FORBIDDEN");
+        }
+
+        // 24/02/29 chan 다른 유저의 개인 메시지가 지나가는 목적지는 구독할 수 없다. 자기 것은 /user/queue/... 로 받는다.
+        else if (StompCommand.SUBSCRIBE == accessor.getCommand() && isForbiddenSubscription(accessor.getDestination())) {
+            throw new MessageDeliveryException("FORBIDDEN");
+        }
         return message;
     }
 
+    private static boolean isForbiddenSubscription(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String prefix : FORBIDDEN_SUBSCRIBE_PREFIXES) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.pokerv2.stomp;
+
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.service.handleService.TableRelay;
+import com.example.pokerv2.service.handleService.TableTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 24/02/29 chan
+ * <p>
+ * 외부 STOMP 브로커(poker.stomp.relay)로 노드 사이의 보드 명령을 주고받는다.
+ * 클라이언트 relay 와 같은 브로커에 시스템 계정으로 세션 하나를 따로 연결하고, 자기 노드의 큐를 구독한다.
+ * 연결이 끊기면 reconnect-delay-ms 뒤에 다시 연결해서 구독한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "poker.stomp.relay.enabled", havingValue = "true")
+public class StompTableTransport implements TableTransport {
+
+    private final ReactorNettyTcpStompClient stompClient;
+    private final StompHeaders connectHeaders = new StompHeaders();
+    private final ScheduledExecutorService reconnectScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("table-relay-"));
+    private final long reconnectDelayMs;
+    private volatile StompSession session;
+    private volatile boolean closed;
+
+    public StompTableTransport(ObjectMapper objectMapper,
+                               @Value("${poker.stomp.relay.host:localhost}") String host,
+                               @Value("${poker.stomp.relay.port:61613}") int port,
+                               @Value("${poker.stomp.relay.system-login:guest}") String login,
+                               @Value("${poker.stomp.relay.system-passcode:guest}") String passcode,
+                               @Value("${poker.stomp.relay.virtual-host:}") String virtualHost,
+                               @Value("${poker.stomp.relay.reconnect-delay-ms:3000}") long reconnectDelayMs) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        this.stompClient = new ReactorNettyTcpStompClient(host, port);
+        this.stompClient.setMessageConverter(converter);
+        this.connectHeaders.setLogin(login);
+        this.connectHeaders.setPasscode(passcode);
+        if (StringUtils.hasText(virtualHost)) {
+            this.connectHeaders.setHost(virtualHost);
+        }
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        closed = true;
+        reconnectScheduler.shutdownNow();
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        stompClient.shutdown();
+    }
+
+    @Override
+    public void listen(String nodeId, Consumer<TableCommandDto> listener) {
+        connect(TableRelay.NODE_QUEUE_PREFIX + nodeId, listener);
+    }
+
+    @Override
+    public void send(String nodeId, TableCommandDto command) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            throw new IllegalStateException("table relay is not connected");
+        }
+        current.send(TableRelay.NODE_QUEUE_PREFIX + nodeId, command);
+    }
+
+    private void connect(String destination, Consumer<TableCommandDto> listener) {
+        if (closed) {
+            return;
+        }
+
+        stompClient.connectAsync(connectHeaders, new StompSessionHandlerAdapter() {
+            @Override
+            public void afterConnected(StompSession connected, StompHeaders headers) {
+                connected.subscribe(destination, new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return TableCommandDto.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        listener.accept((TableCommandDto) payload);
+                    }
+                });
+                session = connected;
+                log.info("table relay connected. destination = {}", destination);
+            }
+
+            @Override
+            public void handleException(StompSession s, StompCommand command, StompHeaders headers, byte[] payload, Throwable e) {
+                log.error("table relay frame failed. destination = {}", destination, e);
+            }
+
+            @Override
+            public void handleTransportError(StompSession s, Throwable e) {
+                // 연결하기 전의 실패는 connectAsync 의 future 에서 다시 연결한다.
+                if (session == s && !s.isConnected()) {
+                    log.warn("table relay disconnected. destination = {}", destination, e);
+                    reconnect(destination, listener);
+                }
+            }
+        }).exceptionally(e -> {
+            log.warn("table relay connect failed. destination = {}", destination, e);
+            reconnect(destination, listener);
+            return null;
+        });
+    }
+
+    private void reconnect(String destination, Consumer<TableCommandDto> listener) {
+        session = null;
+        if (!closed) {
+            reconnectScheduler.schedule(() -> connect(destination, listener), reconnectDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.BoardDeltaDto;
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDeltaDto;
+import com.example.pokerv2.dto.PlayerDto;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 24/02/18 chan
+ * <p>
+ * 두 보드 상태를 비교해서 바뀐 필드만 담은 BoardDeltaDto 를 만든다.
+ * 플레이어는 id 로 매칭한다. 새로 앉은 플레이어는 전체 필드를, 나간 플레이어는 removedPlayers 에 id 를 담는다.
+ * apply 는 클라이언트가 변경분을 적용하는 방식과 같으며, 서버에서는 테스트 용도로 쓴다.
+ */
+@Component
+public class BoardDiffUtils {
+
+    private BoardDiffUtils() {
+    }
+
+    public static BoardDeltaDto diff(BoardDto before, BoardDto after, long seq) {
+        BoardDeltaDto delta = new BoardDeltaDto(after.getId(), seq);
+        delta.setTotalPlayer(changed(before.getTotalPlayer(), after.getTotalPlayer()));
+        delta.setBtn(changed(before.getBtn(), after.getBtn()));
+        delta.setPot(changed(before.getPot(), after.getPot()));
+        delta.setBettingPos(changed(before.getBettingPos(), after.getBettingPos()));
+        delta.setActionPos(changed(before.getActionPos(), after.getActionPos()));
+        delta.setPhaseStatus(changed(before.getPhaseStatus(), after.getPhaseStatus()));
+        delta.setBettingSize(changed(before.getBettingSize(), after.getBettingSize()));
+        delta.setCommunityCard1(changed(before.getCommunityCard1(), after.getCommunityCard1()));
+        delta.setCommunityCard2(changed(before.getCommunityCard2(), after.getCommunityCard2()));
+        delta.setCommunityCard3(changed(before.getCommunityCard3(), after.getCommunityCard3()));
+        delta.setCommunityCard4(changed(before.getCommunityCard4(), after.getCommunityCard4()));
+        delta.setCommunityCard5(changed(before.getCommunityCard5(), after.getCommunityCard5()));
+        delta.setGameSeq(changed(before.getGameSeq(), after.getGameSeq()));
+        delta.setLastActionTime(changed(before.getLastActionTime(), after.getLastActionTime()));
+        delta.setTotalCallSize(changed(before.getTotalCallSize(), after.getTotalCallSize()));
+
+        Map<Long, PlayerDto> beforePlayers = new HashMap<>();
+        for (PlayerDto player : before.getPlayers()) {
+            beforePlayers.put(player.getId(), player);
+        }
+
+        for (PlayerDto player : after.getPlayers()) {
+            PlayerDto beforePlayer = beforePlayers.remove(player.getId());
+            if (beforePlayer == null) {
+                delta.getPlayers().add(new PlayerDeltaDto(player));
+                continue;
+            }
+
+            PlayerDeltaDto playerDelta = new PlayerDeltaDto(player.getId());
+            playerDelta.setPosition(changed(beforePlayer.getPosition(), player.getPosition()));
+            playerDelta.setMoney(changed(beforePlayer.getMoney(), player.getMoney()));
+            playerDelta.setCard1(changed(beforePlayer.getCard1(), player.getCard1()));
+            playerDelta.setCard2(changed(beforePlayer.getCard2(), player.getCard2()));
+            playerDelta.setStatus(changed(beforePlayer.getStatus(), player.getStatus()));
+            playerDelta.setPhaseCallSize(changed(beforePlayer.getPhaseCallSize(), player.getPhaseCallSize()));
+            if (!playerDelta.isEmpty()) {
+                delta.getPlayers().add(playerDelta);
+            }
+        }
+
+        delta.getRemovedPlayers().addAll(beforePlayers.keySet());
+        return delta;
+    }
+
+    public static BoardDto apply(BoardDto board, BoardDeltaDto delta) {
+        BoardDto result = new BoardDto(board);
+        if (delta.getTotalPlayer() != null) result.setTotalPlayer(delta.getTotalPlayer());
+        if (delta.getBtn() != null) result.setBtn(delta.getBtn());
+        if (delta.getPot() != null) result.setPot(delta.getPot());
+        if (delta.getBettingPos() != null) result.setBettingPos(delta.getBettingPos());
+        if (delta.getActionPos() != null) result.setActionPos(delta.getActionPos());
+        if (delta.getPhaseStatus() != null) result.setPhaseStatus(delta.getPhaseStatus());
+        if (delta.getBettingSize() != null) result.setBettingSize(delta.getBettingSize());
+        if (delta.getCommunityCard1() != null) result.setCommunityCard1(delta.getCommunityCard1());
+        if (delta.getCommunityCard2() != null) result.setCommunityCard2(delta.getCommunityCard2());
+        if (delta.getCommunityCard3() != null) result.setCommunityCard3(delta.getCommunityCard3());
+        if (delta.getCommunityCard4() != null) result.setCommunityCard4(delta.getCommunityCard4());
+        if (delta.getCommunityCard5() != null) result.setCommunityCard5(delta.getCommunityCard5());
+        if (delta.getGameSeq() != null) result.setGameSeq(delta.getGameSeq());
+        if (delta.getLastActionTime() != null) result.setLastActionTime(delta.getLastActionTime());
+        if (delta.getTotalCallSize() != null) result.setTotalCallSize(new ArrayList<>(delta.getTotalCallSize()));
+
+        List<PlayerDto> players = result.getPlayers();
+        players.removeIf(player -> delta.getRemovedPlayers().contains(player.getId()));
+        for (PlayerDeltaDto playerDelta : delta.getPlayers()) {
+            PlayerDto player = players.stream().filter(p -> p.getId().equals(playerDelta.getId())).findFirst().orElse(null);
+            if (player == null) {
+                player = new PlayerDto();
+                player.setId(playerDelta.getId());
+                player.setBoardId(result.getId());
+                players.add(player);
+            }
+            if (playerDelta.getUserId() != null) player.setUserId(playerDelta.getUserId());
+            if (playerDelta.getPlayerName() != null) player.setPlayerName(playerDelta.getPlayerName());
+            if (playerDelta.getPosition() != null) player.setPosition(playerDelta.getPosition());
+            if (playerDelta.getMoney() != null) player.setMoney(playerDelta.getMoney());
+            if (playerDelta.getCard1() != null) player.setCard1(playerDelta.getCard1());
+            if (playerDelta.getCard2() != null) player.setCard2(playerDelta.getCard2());
+            if (playerDelta.getStatus() != null) player.setStatus(playerDelta.getStatus());
+            if (playerDelta.getPhaseCallSize() != null) player.setPhaseCallSize(playerDelta.getPhaseCallSize());
+        }
+        players.sort(Comparator.comparingInt(PlayerDto::getPosition));
+        return result;
+    }
+
+    private static <T> T changed(T before, T after) {
+        return Objects.equals(before, after) ? null : after;
+    }
+}
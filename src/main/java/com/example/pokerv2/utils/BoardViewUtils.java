@@ -0,0 +1,58 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.PlayerStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * 24/02/19 chan
+ * <p>
+ * 플레이어별로 볼 수 있는 보드 상태를 만든다.
+ * <p>
+ * publicView : 모든 플레이어의 홀카드를 HIDDEN_CARD 로 가린다. 쇼다운에서는 폴드하지 않은 플레이어의 카드만 공개한다.
+ * privateView : publicView 에 자기 자신의 홀카드만 채운다.
+ */
+@Component
+public class BoardViewUtils {
+
+    public static final int HIDDEN_CARD = -1;
+
+    private BoardViewUtils() {
+    }
+
+    public static BoardDto publicView(BoardDto board, boolean showDown) {
+        BoardDto view = new BoardDto(board);
+        for (PlayerDto player : view.getPlayers()) {
+            if (!showDown || isFolded(player)) {
+                player.setCard1(HIDDEN_CARD);
+                player.setCard2(HIDDEN_CARD);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * @param view 가려진 보드 상태
+     * @param board 홀카드가 모두 들어있는 보드 상태
+     * @param userId 보는 사람의 userId (로그인 아이디)
+     */
+    public static BoardDto privateView(BoardDto view, BoardDto board, String userId) {
+        BoardDto result = new BoardDto(view);
+        for (PlayerDto player : board.getPlayers()) {
+            if (player.getPlayerName().equals(userId)) {
+                for (PlayerDto viewPlayer : result.getPlayers()) {
+                    if (viewPlayer.getId().equals(player.getId())) {
+                        viewPlayer.setCard1(player.getCard1());
+                        viewPlayer.setCard2(player.getCard2());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFolded(PlayerDto player) {
+        return player.getStatus() == PlayerStatus.FOLD.getStatusNum() || player.getStatus() == PlayerStatus.DISCONNECT_FOLD.getStatusNum();
+    }
+}
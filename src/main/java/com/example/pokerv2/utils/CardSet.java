@@ -0,0 +1,97 @@
+package com.example.pokerv2.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 24/02/07 chan
+ * <p>
+ * 52비트 long 카드 집합.
+ * <p>
+ * CardUtils 의 카드 값(rank + 13 * suit)을 그대로 비트 번호로 쓴다.
+ * 그러므로 모양별로 13비트씩 잘라내면 그 모양의 rank 마스크가 되고, 네 모양을 OR 하면 전체 rank 마스크가 된다.
+ * <p>
+ * 객체를 만들지 않도록 long 값을 직접 다루는 static 메서드만 제공한다.
+ */
+public final class CardSet {
+
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << 52) - 1;
+
+    private static final int RANK_SIZE = 13;
+    private static final int RANK_MASK = (1 << RANK_SIZE) - 1;
+
+    private CardSet() {
+    }
+
+    public static long of(int card) {
+        return 1L << card;
+    }
+
+    public static long of(int c1, int c2) {
+        return (1L << c1) | (1L << c2);
+    }
+
+    public static long of(int... cards) {
+        long cardSet = EMPTY;
+        for (int card : cards) {
+            cardSet |= 1L << card;
+        }
+        return cardSet;
+    }
+
+    public static long fromList(List<Integer> cards) {
+        long cardSet = EMPTY;
+        for (int card : cards) {
+            cardSet |= 1L << card;
+        }
+        return cardSet;
+    }
+
+    public static long add(long cardSet, int card) {
+        return cardSet | (1L << card);
+    }
+
+    public static long remove(long cardSet, int card) {
+        return cardSet & ~(1L << card);
+    }
+
+    public static boolean contains(long cardSet, int card) {
+        return (cardSet & (1L << card)) != 0L;
+    }
+
+    public static int size(long cardSet) {
+        return Long.bitCount(cardSet);
+    }
+
+    /**
+     * @return 집합에서 가장 작은 카드 값. 빈 집합이면 -1
+     */
+    public static int first(long cardSet) {
+        return cardSet == EMPTY ? -1 : Long.numberOfTrailingZeros(cardSet);
+    }
+
+    /**
+     * @param suit 0 : 스페이드, 1 : 다이아, 2 : 하트, 3 : 클로버
+     * @return 해당 모양의 13비트 rank 마스크
+     */
+    public static int suitMask(long cardSet, int suit) {
+        return (int) ((cardSet >>> RANK_SIZE * suit) & RANK_MASK);
+    }
+
+    /**
+     * @return 모양에 상관없이 집합에 존재하는 rank 들의 13비트 마스크
+     */
+    public static int rankMask(long cardSet) {
+        return suitMask(cardSet, 0) | suitMask(cardSet, 1) | suitMask(cardSet, 2) | suitMask(cardSet, 3);
+    }
+
+    public static List<Integer> toList(long cardSet) {
+        List<Integer> cards = new ArrayList<>(size(cardSet));
+        while (cardSet != EMPTY) {
+            cards.add(Long.numberOfTrailingZeros(cardSet));
+            cardSet &= cardSet - 1;
+        }
+        return cards;
+    }
+}
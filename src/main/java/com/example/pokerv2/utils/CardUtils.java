@@ -24,18 +24,13 @@ public class CardUtils {
     private static final Set<String> VALID_RANKS = new HashSet<>(Set.of("2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"));
     private static final Set<String> VALID_SUITS = Set.of("s", "d", "h", "c");
 
-
+    private static final Comparator<Integer> RANK_COMPARATOR = (o1, o2) -> o2 % 13 - o1 % 13;
 
     private CardUtils(){
     }
 
     public static Comparator<Integer> rankComparator(){
-        return new Comparator<Integer>() {
-            @Override
-            public int compare(Integer o1, Integer o2) {
-                return o2 % 13 - o1 % 13;
-            }
-        };
+        return RANK_COMPARATOR;
     }
 
     public static void decodeCardList(List<Integer> cards) {
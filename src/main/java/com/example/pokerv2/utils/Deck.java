@@ -0,0 +1,68 @@
+package com.example.pokerv2.utils;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 24/02/21 chan
+ * <p>
+ * 52장 카드 덱.
+ * <p>
+ * int[52] 하나를 계속 재사용하고, 카드를 한장 뽑을 때마다 남은 카드 중 하나를 골라 앞으로 옮긴다. (부분 Fisher-Yates)
+ * 그러므로 카드 한장에 난수 한번, 교환 한번이고 객체를 만들지 않는다.
+ * 배열의 순서가 어떻든 남은 카드 중에서 균등하게 고르므로, 새 게임마다 배열을 초기화할 필요 없이 reset 만 하면 된다.
+ * <p>
+ * 난수 생성기는 바꿔 끼울 수 있다. 실제 게임은 secure(), 시뮬레이션이나 테스트는 시드를 준 SplittableRandom 을 쓴다.
+ * <p>
+ * 스레드에 안전하지 않다. 테이블마다 하나씩 두고 그 테이블의 메일박스 안에서만 쓴다.
+ */
+public final class Deck {
+
+    public static final int SIZE = 52;
+
+    private final int[] cards = new int[SIZE];
+    private final RandomGenerator random;
+    private int dealt;
+
+    public Deck(RandomGenerator random) {
+        this.random = random;
+        for (int i = 0; i < SIZE; i++) {
+            cards[i] = i;
+        }
+    }
+
+    public static Deck secure() {
+        return new Deck(new SecureRandom());
+    }
+
+    public static Deck seeded(long seed) {
+        return new Deck(new SplittableRandom(seed));
+    }
+
+    /**
+     * 뽑은 카드를 모두 덱에 돌려놓는다.
+     */
+    public void reset() {
+        dealt = 0;
+    }
+
+    /**
+     * @return 남은 카드 중 균등하게 고른 한장
+     * @throws IllegalStateException 남은 카드가 없는 경우
+     */
+    public int deal() {
+        if (dealt == SIZE) {
+            throw new IllegalStateException("Deck is empty");
+        }
+        int j = dealt + random.nextInt(SIZE - dealt);
+        int card = cards[j];
+        cards[j] = cards[dealt];
+        cards[dealt++] = card;
+        return card;
+    }
+
+    public int remaining() {
+        return SIZE - dealt;
+    }
+}
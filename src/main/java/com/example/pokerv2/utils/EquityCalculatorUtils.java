@@ -0,0 +1,291 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.EquityDto;
+import com.example.pokerv2.dto.EquityResultDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 24/02/10 chan
+ * <p>
+ * 2~6명의 핸드와 공개된 커뮤니티 카드로 승률(win), 무승부 확률(tie), 에퀴티를 계산하는 유틸 클래스.
+ * <p>
+ * 남은 카드로 만들 수 있는 런아웃 수가 exhaustiveLimit 이하이면 모두 열거하고,
+ * 그보다 많으면 sampleSize 만큼 몬테카를로 샘플링을 한다.
+ * 두 방법 모두 ForkJoinPool 에서 작업을 나눠 계산한 뒤 합친다.
+ * <p>
+ * 24/02/29 chan
+ * 나눈 작업은 시작할 때마다 cancelled 를 확인하고, 취소됐으면 CancellationException 으로 멈춘다.
+ * ForkJoinTask.cancel 은 이미 실행중인 하위 작업을 멈추지 않으므로 계산을 포기할 때는 cancelled 로 알린다.
+ */
+@Component
+public class EquityCalculatorUtils {
+
+    private static final int COMMUNITY_CARD_SIZE = 5;
+    private static final int MONTE_CARLO_CHUNK = 10000;
+
+    private EquityCalculatorUtils() {
+    }
+
+    /**
+     * calculate
+     *
+     * @param pool 계산을 나눠서 실행할 ForkJoinPool
+     * @param hands 플레이어별 홀카드 2장. (hands[i][0], hands[i][1])
+     * @param communityCards 공개된 커뮤니티 카드. (0~5장)
+     * @param sampleSize 몬테카를로 샘플 수
+     * @param exhaustiveLimit 이 수 이하의 런아웃은 모두 열거한다.
+     * @param seed 몬테카를로 난수 시드
+     * @return 플레이어 순서대로의 에퀴티
+     * @throws IllegalArgumentException 플레이어 수, 카드 수, 중복 카드가 올바르지 않은 경우
+     */
+    public static EquityResultDto calculate(ForkJoinPool pool, int[][] hands, int[] communityCards,
+                                            int sampleSize, long exhaustiveLimit, long seed) {
+        return calculate(pool, hands, communityCards, sampleSize, exhaustiveLimit, seed, () -> false);
+    }
+
+    /**
+     * @param cancelled true 가 되면 남은 작업을 시작하지 않는다.
+     * @throws CancellationException 계산 도중 cancelled 가 true 가 된 경우
+     */
+    public static EquityResultDto calculate(ForkJoinPool pool, int[][] hands, int[] communityCards,
+                                            int sampleSize, long exhaustiveLimit, long seed, BooleanSupplier cancelled) {
+        if (hands.length < 2 || hands.length > 6 || communityCards.length > COMMUNITY_CARD_SIZE) {
+            throw new IllegalArgumentException("Invalid player or community card size");
+        }
+
+        long boardSet = CardSet.EMPTY;
+        long usedCards = CardSet.EMPTY;
+        for (int card : communityCards) {
+            usedCards = addUnique(usedCards, card);
+            boardSet = CardSet.add(boardSet, card);
+        }
+
+        long[] holeSets = new long[hands.length];
+        for (int i = 0; i < hands.length; i++) {
+            if (hands[i].length != 2) {
+                throw new IllegalArgumentException("Invalid hole card size");
+            }
+            usedCards = addUnique(usedCards, hands[i][0]);
+            usedCards = addUnique(usedCards, hands[i][1]);
+            holeSets[i] = CardSet.of(hands[i][0], hands[i][1]);
+        }
+
+        int[] deck = toArray(CardSet.FULL_DECK & ~usedCards);
+        int need = COMMUNITY_CARD_SIZE - communityCards.length;
+        long combinations = combinations(deck.length, need);
+
+        Tally tally;
+        boolean exhaustive = combinations <= exhaustiveLimit;
+        if (exhaustive) {
+            tally = pool.invoke(new ExhaustiveTask(holeSets, boardSet, deck, need, 0, need == 0 ? 1 : deck.length, cancelled));
+        } else {
+            tally = pool.invoke(new MonteCarloTask(holeSets, boardSet, deck, need, sampleSize, new SplittableRandom(seed), cancelled));
+        }
+
+        List<EquityDto> equities = new ArrayList<>(hands.length);
+        for (int i = 0; i < hands.length; i++) {
+            equities.add(new EquityDto(
+                    (double) tally.wins[i] / tally.trials,
+                    (double) tally.ties[i] / tally.trials,
+                    tally.equity[i] / tally.trials));
+        }
+
+        return new EquityResultDto(equities, tally.trials, exhaustive);
+    }
+
+    static long combinations(int n, int k) {
+        long result = 1L;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) / (i + 1);
+        }
+        return result;
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("equity calculation cancelled");
+        }
+    }
+
+    private static long addUnique(long usedCards, int card) {
+        if (card < 0 || card >= 52 || CardSet.contains(usedCards, card)) {
+            throw new IllegalArgumentException("Invalid or duplicated card: " + card);
+        }
+        return CardSet.add(usedCards, card);
+    }
+
+    private static int[] toArray(long cardSet) {
+        int[] cards = new int[CardSet.size(cardSet)];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = Long.numberOfTrailingZeros(cardSet);
+            cardSet &= cardSet - 1;
+        }
+        return cards;
+    }
+
+    /**
+     * 플레이어별 승리, 무승부, 에퀴티 누적값.
+     */
+    private static final class Tally {
+        private final long[] wins;
+        private final long[] ties;
+        private final double[] equity;
+        private final long[] handValues;
+        private long trials;
+
+        private Tally(int playerSize) {
+            this.wins = new long[playerSize];
+            this.ties = new long[playerSize];
+            this.equity = new double[playerSize];
+            this.handValues = new long[playerSize];
+        }
+
+        private void record(long[] holeSets, long runout) {
+            long best = -1L;
+            int bestCount = 0;
+            for (int i = 0; i < holeSets.length; i++) {
+                long value = HandEvaluatorUtils.evaluate(runout | holeSets[i]);
+                handValues[i] = value;
+                if (value > best) {
+                    best = value;
+                    bestCount = 1;
+                } else if (value == best) {
+                    bestCount++;
+                }
+            }
+
+            for (int i = 0; i < holeSets.length; i++) {
+                if (handValues[i] == best) {
+                    if (bestCount == 1) {
+                        wins[i]++;
+                    } else {
+                        ties[i]++;
+                    }
+                    equity[i] += 1.0 / bestCount;
+                }
+            }
+            trials++;
+        }
+
+        private Tally merge(Tally other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                ties[i] += other.ties[i];
+                equity[i] += other.equity[i];
+            }
+            trials += other.trials;
+            return this;
+        }
+    }
+
+    /**
+     * 남은 카드로 만들 수 있는 모든 런아웃을 첫번째 카드의 인덱스 구간으로 나눠서 열거한다.
+     */
+    private static final class ExhaustiveTask extends RecursiveTask<Tally> {
+        private final long[] holeSets;
+        private final long boardSet;
+        private final int[] deck;
+        private final int need;
+        private final int from;
+        private final int to;
+        private final BooleanSupplier cancelled;
+
+        private ExhaustiveTask(long[] holeSets, long boardSet, int[] deck, int need, int from, int to, BooleanSupplier cancelled) {
+            this.holeSets = holeSets;
+            this.boardSet = boardSet;
+            this.deck = deck;
+            this.need = need;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Tally compute() {
+            checkCancelled(cancelled);
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                ExhaustiveTask left = new ExhaustiveTask(holeSets, boardSet, deck, need, from, mid, cancelled);
+                left.fork();
+                Tally right = new ExhaustiveTask(holeSets, boardSet, deck, need, mid, to, cancelled).compute();
+                return left.join().merge(right);
+            }
+
+            Tally tally = new Tally(holeSets.length);
+            if (need == 0) {
+                tally.record(holeSets, boardSet);
+            } else {
+                enumerate(tally, boardSet | CardSet.of(deck[from]), from + 1, need - 1);
+            }
+            return tally;
+        }
+
+        private void enumerate(Tally tally, long runout, int start, int remain) {
+            if (remain == 0) {
+                tally.record(holeSets, runout);
+                return;
+            }
+            for (int i = start; i <= deck.length - remain; i++) {
+                enumerate(tally, runout | CardSet.of(deck[i]), i + 1, remain - 1);
+            }
+        }
+    }
+
+    /**
+     * 샘플을 MONTE_CARLO_CHUNK 단위로 나누고, 작업마다 분할한 SplittableRandom 으로 부분 셔플을 한다.
+     */
+    private static final class MonteCarloTask extends RecursiveTask<Tally> {
+        private final long[] holeSets;
+        private final long boardSet;
+        private final int[] deck;
+        private final int need;
+        private final int samples;
+        private final SplittableRandom random;
+        private final BooleanSupplier cancelled;
+
+        private MonteCarloTask(long[] holeSets, long boardSet, int[] deck, int need, int samples, SplittableRandom random, BooleanSupplier cancelled) {
+            this.holeSets = holeSets;
+            this.boardSet = boardSet;
+            this.deck = deck;
+            this.need = need;
+            this.samples = samples;
+            this.random = random;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Tally compute() {
+            checkCancelled(cancelled);
+            if (samples > MONTE_CARLO_CHUNK) {
+                int half = samples >>> 1;
+                MonteCarloTask left = new MonteCarloTask(holeSets, boardSet, deck, need, half, random.split(), cancelled);
+                left.fork();
+                Tally right = new MonteCarloTask(holeSets, boardSet, deck, need, samples - half, random, cancelled).compute();
+                return left.join().merge(right);
+            }
+
+            Tally tally = new Tally(holeSets.length);
+            int[] cards = deck.clone();
+            for (int n = 0; n < samples; n++) {
+                long runout = boardSet;
+                for (int i = 0; i < need; i++) {
+                    int j = i + random.nextInt(cards.length - i);
+                    int card = cards[j];
+                    cards[j] = cards[i];
+                    cards[i] = card;
+                    runout |= CardSet.of(card);
+                }
+                tally.record(holeSets, runout);
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.pokerv2.utils;
+
+import org.springframework.stereotype.Component;
+
+import static com.example.pokerv2.utils.HandCalculatorUtils.*;
+
+/**
+ * 24/02/05 chan
+ * <p>
+ * 룩업 테이블 기반 7장 핸드 평가기.
+ * <p>
+ * 카드 인코딩은 CardUtils 와 같다. (rank = card % 13, suit = card / 13)
+ * 7장의 카드는 CardSet(52비트 long)으로 모으고, 모양별로 13비트씩 잘라낸 rank 마스크로 평가한다.
+ * <p>
+ * 13비트 rank 마스크(8192가지)에 대해 스트레이트, 플러시, 상위 5장 밸류를 미리 계산해두고
+ * 페어/트리플/포카드는 모양별 마스크의 비트 연산으로 구한다.
+ * 호출마다 객체를 생성하지 않으며, 반환값은 HandCalculatorUtils 의 *_VALUE_PREFIX 스케일을 그대로 따른다.
+ */
+@Component
+public class HandEvaluatorUtils {
+
+    static final long CATEGORY_DIVIDER = 10000000000L;
+
+    private static final int RANK_SIZE = 13;
+    private static final int RANK_MASK = (1 << RANK_SIZE) - 1;
+    private static final int WHEEL_MASK = 0b1_0000_0000_1111;
+    private static final int WHEEL_HIGH_RANK = 3;
+
+    /**
+     * rank 마스크 -> 스트레이트의 가장 높은 rank. 스트레이트가 없으면 -1. (백스트레이트는 5의 rank 인 3)
+     */
+    private static final byte[] STRAIGHT_HIGH = new byte[1 << RANK_SIZE];
+
+    /**
+     * rank 마스크 -> 상위 5개 rank 의 하이카드 밸류. (첫번째 카드 * 10^8 + ... + 다섯번째 카드)
+     */
+    private static final long[] TOP_FIVE_VALUE = new long[1 << RANK_SIZE];
+
+    /**
+     * 한 모양의 rank 마스크 -> 로티플/스티플/플러시 밸류. 5장 미만이면 0.
+     */
+    private static final long[] FLUSH_VALUE = new long[1 << RANK_SIZE];
+
+    static {
+        for (int mask = 0; mask <= RANK_MASK; mask++) {
+            STRAIGHT_HIGH[mask] = (byte) findStraightHigh(mask);
+            TOP_FIVE_VALUE[mask] = topRanksValue(mask, 5);
+        }
+
+        for (int mask = 0; mask <= RANK_MASK; mask++) {
+            if (Integer.bitCount(mask) < 5) {
+                continue;
+            }
+
+            int straightHigh = STRAIGHT_HIGH[mask];
+            if (straightHigh == RANK_SIZE - 1) {
+                FLUSH_VALUE[mask] = ROYAL_FLUSH_VALUE_PREFIX;
+            } else if (straightHigh != -1) {
+                FLUSH_VALUE[mask] = STRAIGHT_FLUSH_VALUE_PREFIX + straightHigh;
+            } else {
+                FLUSH_VALUE[mask] = FLUSH_VALUE_PREFIX + TOP_FIVE_VALUE[mask];
+            }
+        }
+    }
+
+    private HandEvaluatorUtils() {
+    }
+
+    public static long evaluate(int c1, int c2, int c3, int c4, int c5, int c6, int c7) {
+        return evaluate((1L << c1) | (1L << c2) | (1L << c3) | (1L << c4) | (1L << c5) | (1L << c6) | (1L << c7));
+    }
+
+    public static long evaluate(int[] cards) {
+        return evaluate(CardSet.of(cards));
+    }
+
+    /**
+     * evaluate
+     *
+     * @param cardSet CardSet 으로 표현된 5~7장의 카드.
+     * @return 핸드의 밸류
+     */
+    public static long evaluate(long cardSet) {
+        int spade = CardSet.suitMask(cardSet, 0);
+        int diamond = CardSet.suitMask(cardSet, 1);
+        int heart = CardSet.suitMask(cardSet, 2);
+        int club = CardSet.suitMask(cardSet, 3);
+
+        // 7장 중 5장이 한 모양이면 포카드, 풀하우스가 나올 수 없으므로 플러시 계열을 먼저 본다.
+        long flushValue = Math.max(Math.max(FLUSH_VALUE[spade], FLUSH_VALUE[diamond]), Math.max(FLUSH_VALUE[heart], FLUSH_VALUE[club]));
+        if (flushValue != 0L) {
+            return flushValue;
+        }
+
+        int ranks = spade | diamond | heart | club;
+        int quads = spade & diamond & heart & club;
+        if (quads != 0) {
+            int quadRank = highestRank(quads);
+            return FOUR_OF_A_KIND_VALUE_PREFIX + (quadRank + 1) * 100L + highestRank(ranks & ~quads) + 1;
+        }
+
+        int oddCount = spade ^ diamond ^ heart ^ club;
+        int pairs = ranks ^ oddCount;
+        int trips = ((spade & diamond) | (heart & club)) & ((spade & heart) | (diamond & club));
+
+        if (trips != 0) {
+            int tripRank = highestRank(trips);
+            int fullHousePair = pairs | (trips & ~(1 << tripRank));
+            if (fullHousePair != 0) {
+                return FULL_HOUSE_VALUE_PREFIX + (tripRank + 1) * 100L + highestRank(fullHousePair) + 1;
+            }
+        }
+
+        int straightHigh = STRAIGHT_HIGH[ranks];
+        if (straightHigh != -1) {
+            return STRAIGHT_VALUE_PREFIX + straightValue(straightHigh);
+        }
+
+        if (trips != 0) {
+            int tripRank = highestRank(trips);
+            return THREE_OF_A_KIND_VALUE_PREFIX + (tripRank + 1) * 10000L + topRanksValue(ranks & ~trips, 2);
+        }
+
+        if (Integer.bitCount(pairs) >= 2) {
+            int highPair = highestRank(pairs);
+            int lowPair = highestRank(pairs & ~(1 << highPair));
+            int kickers = ranks & ~(1 << highPair) & ~(1 << lowPair);
+            return TWO_PAIR_VALUE_PREFIX + (highPair + 1) * 10000L + (lowPair + 1) * 100L + highestRank(kickers) + 1;
+        }
+
+        if (pairs != 0) {
+            int pairRank = highestRank(pairs);
+            return ONE_PAIR_VALUE_PREFIX + (pairRank + 1) * 1000000L + topRanksValue(ranks & ~pairs, 3);
+        }
+
+        return TOP_FIVE_VALUE[ranks];
+    }
+
+    /**
+     * straightValue
+     * <p>
+     * 기존 평가기와 같은 스케일(가장 높은 rank - 2)을 유지하고, 백스트레이트는 가장 낮은 스트레이트가 되도록 1을 준다.
+     *
+     * @param straightHigh 스트레이트의 가장 높은 rank
+     */
+    static long straightValue(int straightHigh) {
+        return straightHigh == WHEEL_HIGH_RANK ? 1 : straightHigh - 2;
+    }
+
+    static int straightHighByValue(long straightValue) {
+        return straightValue == 1 ? WHEEL_HIGH_RANK : (int) straightValue + 2;
+    }
+
+    private static int highestRank(int rankMask) {
+        return 31 - Integer.numberOfLeadingZeros(rankMask);
+    }
+
+    /**
+     * 상위 count 개의 rank 를 두자리씩 이어붙인 밸류. 마지막 카드가 1의 자리가 된다.
+     */
+    private static long topRanksValue(int rankMask, int count) {
+        long value = 0L;
+        for (int i = 0; i < count; i++) {
+            value *= 100L;
+            if (rankMask != 0) {
+                int rank = highestRank(rankMask);
+                value += rank + 1;
+                rankMask &= ~(1 << rank);
+            }
+        }
+        return value;
+    }
+
+    private static int findStraightHigh(int rankMask) {
+        for (int high = RANK_SIZE - 1; high >= 4; high--) {
+            int straight = 0b11111 << (high - 4);
+            if ((rankMask & straight) == straight) {
+                return high;
+            }
+        }
+
+        if ((rankMask & WHEEL_MASK) == WHEEL_MASK) {
+            return WHEEL_HIGH_RANK;
+        }
+
+        return -1;
+    }
+}
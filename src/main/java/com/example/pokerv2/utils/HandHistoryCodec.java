@@ -0,0 +1,373 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.ActionDto;
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.UserDto;
+import com.example.pokerv2.enums.PlayerAction;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 24/02/27 chan
+ * <p>
+ * 끝난 핸드 하나를 varint 로 압축한 바이트 배열로 바꾸고 다시 HandHistoryDto 로 되돌리는 유틸 클래스.
+ * <p>
+ * 형식 (VERSION 1)
+ * 1. version, boardId, gameSeq, btnPosition, 페이즈별 팟 4개, 커뮤니티 카드 5장
+ * 2. 좌석 수, 좌석마다 userId, position, 카드 2장
+ * 3. 쇼다운 유저 id 목록, 승자 유저 id 목록
+ * 4. 액션 수, 액션마다 좌석 번호, (페이즈 << 3 | 종류), 종류에 따른 금액
+ * <p>
+ * 정수는 zigzag varint, id 는 varlong 으로 쓴다. 액션의 유저는 좌석 번호로 쓰고, 좌석에 없는 유저면 좌석 수를 쓰고 userId, position 을 따로 쓴다.
+ * 액션 내용은 "call 3bb", "raise 9bb", "Ante 0.5bb" 같은 ActionService 의 형식이면 금액만 쓰고, 그 외에는 문자열 그대로 쓴다.
+ * <p>
+ * 되돌린 HandHistoryDto 의 userList 에는 id 만 있고, 액션의 id 는 없다. (actionNo 는 순서대로 다시 매긴다.)
+ */
+@Component
+public class HandHistoryCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FOLD = 0;
+    private static final int CHECK = 1;
+    private static final int CALL = 2;
+    private static final int RAISE = 3;
+    private static final int ANTE = 4;
+    private static final int RAW = 5;
+
+    private static final String BB = "bb";
+    private static final String ANTE_PREFIX = "Ante ";
+
+    private HandHistoryCodec() {
+    }
+
+    public static byte[] encode(HandHistoryDto hand) {
+        Writer w = new Writer();
+        w.writeInt(VERSION);
+        w.writeLong(hand.getBoardId() == null ? 0 : hand.getBoardId());
+        w.writeLong(hand.getGameSeq() == null ? 0 : hand.getGameSeq());
+        w.writeInt(hand.getBtnPosition());
+        w.writeInt(hand.getPotAmountPf());
+        w.writeInt(hand.getPotAmountFlop());
+        w.writeInt(hand.getPotAmountTurn());
+        w.writeInt(hand.getPotAmountRiver());
+        w.writeInt(hand.getCommunityCard1());
+        w.writeInt(hand.getCommunityCard2());
+        w.writeInt(hand.getCommunityCard3());
+        w.writeInt(hand.getCommunityCard4());
+        w.writeInt(hand.getCommunityCard5());
+
+        List<UserDto> userList = hand.getUserList();
+        int seatSize = userList.size();
+        long[] seatUserIds = new long[seatSize];
+        w.writeInt(seatSize);
+        for (int i = 0; i < seatSize; i++) {
+            seatUserIds[i] = userList.get(i).getId();
+            w.writeLong(seatUserIds[i]);
+            w.writeInt(hand.getPosList().get(i));
+            w.writeInt(hand.getCardList().get(i * 2));
+            w.writeInt(hand.getCardList().get(i * 2 + 1));
+        }
+
+        writeIds(w, hand.getShowDownUserIdList());
+        writeIds(w, hand.getWinnerUserIdList());
+
+        w.writeInt(hand.getActionList().size());
+        for (ActionDto action : hand.getActionList()) {
+            int seat = seatOf(seatUserIds, action.getUserId());
+            w.writeInt(seat);
+            if (seat == seatSize) {
+                w.writeLong(action.getUserId());
+                w.writeInt(action.getActPosition());
+            }
+
+            String detail = action.getDetail();
+            int type = typeOf(detail);
+            w.writeInt(action.getPhaseStatus() << 3 | type);
+            if (type == CALL || type == RAISE) {
+                w.writeInt(Integer.parseInt(detail.substring(detail.indexOf(' ') + 1, detail.length() - BB.length())));
+            } else if (type == ANTE) {
+                w.writeInt(parseHalfBb(detail));
+            } else if (type == RAW) {
+                w.writeString(detail);
+            }
+        }
+
+        return w.toByteArray();
+    }
+
+    public static HandHistoryDto decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * 24/02/28 chan
+     * data 의 position 부터 limit 까지를 복사하지 않고 읽는다. (세그먼트 파일을 map 한 버퍼를 그대로 넘길 수 있다.)
+     */
+    public static HandHistoryDto decode(ByteBuffer data) {
+        Reader r = open(data);
+
+        HandHistoryDto hand = new HandHistoryDto();
+        hand.setBoardId(r.readLong());
+        hand.setGameSeq(r.readLong());
+        hand.setBtnPosition(r.readInt());
+        hand.setPotAmountPf(r.readInt());
+        hand.setPotAmountFlop(r.readInt());
+        hand.setPotAmountTurn(r.readInt());
+        hand.setPotAmountRiver(r.readInt());
+        hand.setCommunityCard1(r.readInt());
+        hand.setCommunityCard2(r.readInt());
+        hand.setCommunityCard3(r.readInt());
+        hand.setCommunityCard4(r.readInt());
+        hand.setCommunityCard5(r.readInt());
+
+        int seatSize = r.readInt();
+        List<UserDto> userList = new ArrayList<>(seatSize);
+        List<Integer> posList = new ArrayList<>(seatSize);
+        List<Integer> cardList = new ArrayList<>(seatSize * 2);
+        for (int i = 0; i < seatSize; i++) {
+            UserDto user = new UserDto();
+            user.setId(r.readLong());
+            userList.add(user);
+            posList.add(r.readInt());
+            cardList.add(r.readInt());
+            cardList.add(r.readInt());
+        }
+        hand.setUserList(userList);
+        hand.setPosList(posList);
+        hand.setCardList(cardList);
+        hand.setShowDownUserIdList(readIds(r));
+        hand.setWinnerUserIdList(readIds(r));
+
+        int actionSize = r.readInt();
+        List<ActionDto> actionList = new ArrayList<>(actionSize);
+        for (int i = 0; i < actionSize; i++) {
+            ActionDto action = new ActionDto();
+            action.setActionNo(i);
+            int seat = r.readInt();
+            if (seat == seatSize) {
+                action.setUserId(r.readLong());
+                action.setActPosition(r.readInt());
+            } else {
+                action.setUserId(userList.get(seat).getId());
+                action.setActPosition(posList.get(seat));
+            }
+
+            int phaseAndType = r.readInt();
+            action.setPhaseStatus(phaseAndType >>> 3);
+            switch (phaseAndType & 7) {
+                case FOLD -> action.setDetail(PlayerAction.FOLD.getActionDetail());
+                case CHECK -> action.setDetail(PlayerAction.CHECK.getActionDetail());
+                case CALL -> action.setDetail(PlayerAction.CALL.getActionDetail() + " " + r.readInt() + BB);
+                case RAISE -> action.setDetail(PlayerAction.RAISE.getActionDetail() + " " + r.readInt() + BB);
+                case ANTE -> action.setDetail(ANTE_PREFIX + formatHalfBb(r.readInt()) + BB);
+                case RAW -> action.setDetail(r.readString());
+                default -> throw new IllegalArgumentException("unknown action type: " + (phaseAndType & 7));
+            }
+            actionList.add(action);
+        }
+        hand.setActionList(actionList);
+
+        return hand;
+    }
+
+    /**
+     * 24/02/28 chan
+     * 인덱스를 만들 때 쓴다. 핸드 전체를 되돌리지 않고 boardId 만 읽는다.
+     */
+    public static long readBoardId(ByteBuffer data) {
+        return open(data).readLong();
+    }
+
+    /**
+     * 24/02/28 chan
+     * 인덱스를 만들 때 쓴다. 핸드 전체를 되돌리지 않고 좌석의 userId 만 읽는다.
+     */
+    public static long[] readUserIds(ByteBuffer data) {
+        Reader r = open(data);
+        r.readLong();
+        r.readLong();
+        for (int i = 0; i < 10; i++) {
+            r.readInt();
+        }
+
+        long[] userIds = new long[r.readInt()];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = r.readLong();
+            r.readInt();
+            r.readInt();
+            r.readInt();
+        }
+        return userIds;
+    }
+
+    private static Reader open(ByteBuffer data) {
+        Reader r = new Reader(data);
+        int version = r.readInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unknown hand history version: " + version);
+        }
+        return r;
+    }
+
+    private static int typeOf(String detail) {
+        if (detail.equals(PlayerAction.FOLD.getActionDetail())) {
+            return FOLD;
+        }
+        if (detail.equals(PlayerAction.CHECK.getActionDetail())) {
+            return CHECK;
+        }
+        if (isBbAmount(detail, PlayerAction.CALL.getActionDetail() + " ")) {
+            return CALL;
+        }
+        if (isBbAmount(detail, PlayerAction.RAISE.getActionDetail() + " ")) {
+            return RAISE;
+        }
+        if (detail.startsWith(ANTE_PREFIX) && detail.endsWith(BB) && parseHalfBb(detail) >= 0) {
+            return ANTE;
+        }
+        return RAW;
+    }
+
+    /**
+     * "call 3bb" 처럼 prefix 뒤에 0 으로 시작하지 않는 음이 아닌 정수와 bb 가 오는지. 다시 만들었을 때 같은 문자열이어야 금액만 쓴다.
+     */
+    private static boolean isBbAmount(String detail, String prefix) {
+        if (!detail.startsWith(prefix) || !detail.endsWith(BB)) {
+            return false;
+        }
+        String amount = detail.substring(prefix.length(), detail.length() - BB.length());
+        if (amount.isEmpty() || amount.length() > 9 || (amount.length() > 1 && amount.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < amount.length(); i++) {
+            if (!Character.isDigit(amount.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return "Ante 0.5bb" -> 1, "Ante 1bb" -> 2. 다시 만들었을 때 같은 문자열이 아니면 -1
+     */
+    private static int parseHalfBb(String detail) {
+        String amount = detail.substring(ANTE_PREFIX.length(), detail.length() - BB.length());
+        for (int halfBb = 0; halfBb <= 4; halfBb++) {
+            if (formatHalfBb(halfBb).equals(amount)) {
+                return halfBb;
+            }
+        }
+        return -1;
+    }
+
+    private static String formatHalfBb(int halfBb) {
+        return halfBb % 2 == 0 ? String.valueOf(halfBb / 2) : (halfBb / 2) + ".5";
+    }
+
+    private static int seatOf(long[] seatUserIds, Long userId) {
+        for (int i = 0; i < seatUserIds.length; i++) {
+            if (userId != null && seatUserIds[i] == userId) {
+                return i;
+            }
+        }
+        return seatUserIds.length;
+    }
+
+    private static void writeIds(Writer w, List<Long> ids) {
+        w.writeInt(ids.size());
+        for (Long id : ids) {
+            w.writeLong(id);
+        }
+    }
+
+    private static List<Long> readIds(Reader r) {
+        int size = r.readInt();
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(r.readLong());
+        }
+        return ids;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+
+        private void writeInt(int value) {
+            writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        private void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        private byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer data;
+
+        /**
+         * data 의 position 부터 limit 까지 읽는다. data 의 position 은 바꾸지 않는다.
+         */
+        private Reader(ByteBuffer data) {
+            this.data = data.duplicate();
+        }
+
+        private int readInt() {
+            long raw = readVarLong();
+            return (int) (raw >>> 1) ^ -(int) (raw & 1);
+        }
+
+        private long readLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private String readString() {
+            int length = readInt();
+            if (length < 0 || length > data.remaining()) {
+                throw new IllegalArgumentException("truncated hand history");
+            }
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!data.hasRemaining()) {
+                    throw new IllegalArgumentException("truncated hand history");
+                }
+                byte b = data.get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+    }
+}
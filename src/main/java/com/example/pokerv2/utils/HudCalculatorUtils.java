@@ -0,0 +1,174 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.ActionDto;
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.UserDto;
+import com.example.pokerv2.enums.HudCounter;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerAction;
+import com.example.pokerv2.model.Action;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.UserHandHistory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 24/02/24 chan
+ * <p>
+ * 끝난 핸드의 HandHistory 와 Action 기록만으로 유저별 HUD 카운터 증가분을 계산하는 유틸 클래스.
+ * <p>
+ * 게임 중에 보드 상태를 보고 세던 것을 액션 기록으로 다시 센다.
+ * 같은 핸드는 언제 다시 계산해도 같은 결과가 나오므로 핸드 기록에서 HUD 를 다시 쌓을 수 있다.
+ * <p>
+ * totalHands : 핸드에 참여한 유저
+ * vpip : 프리플랍에서 콜이나 레이즈를 한 유저. (블라인드는 제외)
+ * pfr : 프리플랍에서 레이즈를 한 유저
+ * pfAggressiveCnt : 프리플랍에서 마지막으로 레이즈한 유저
+ * threeBet : 같은 페이즈에서 앞선 레이즈에 다시 레이즈한 횟수
+ * cBet : 프리플랍 마지막 레이저가 플랍에서 처음으로 베팅한 경우
+ * wtf : 플랍까지 간 핸드에서 프리플랍에 폴드하지 않은 유저
+ * wtsd, wsd : 쇼다운까지 간 유저, 쇼다운에서 이긴 유저
+ */
+@Component
+public class HudCalculatorUtils {
+
+    private static final int COUNTER_SIZE = HudCounter.values().length;
+
+    private HudCalculatorUtils() {
+    }
+
+    /**
+     * @return userId -> HudCounter.ordinal() 별 증가분. 핸드에 참여한 유저 순서대로 담는다.
+     */
+    public static Map<Long, int[]> calculate(HandHistory handHistory) {
+        List<Long> userIds = new ArrayList<>(handHistory.getUserList().size());
+        for (UserHandHistory userHandHistory : handHistory.getUserList()) {
+            userIds.add(userHandHistory.getUser().getId());
+        }
+
+        List<Action> actionList = handHistory.getActionList();
+        Long[] actionUserIds = new Long[actionList.size()];
+        PhaseStatus[] actionPhases = new PhaseStatus[actionList.size()];
+        String[] actionDetails = new String[actionList.size()];
+        for (int i = 0; i < actionList.size(); i++) {
+            Action action = actionList.get(i);
+            actionUserIds[i] = action.getUserId();
+            actionPhases[i] = action.getPhaseStatus();
+            actionDetails[i] = action.getDetail();
+        }
+
+        return calculate(userIds, actionUserIds, actionPhases, actionDetails, handHistory.getShowDownUserIdList(), handHistory.getWinnerUserIdList());
+    }
+
+    /**
+     * 24/02/28 chan
+     * 세그먼트 파일에서 되돌린 핸드처럼 엔티티가 없는 경우.
+     */
+    public static Map<Long, int[]> calculate(HandHistoryDto hand) {
+        List<Long> userIds = new ArrayList<>(hand.getUserList().size());
+        for (UserDto user : hand.getUserList()) {
+            userIds.add(user.getId());
+        }
+
+        List<ActionDto> actionList = hand.getActionList();
+        Long[] actionUserIds = new Long[actionList.size()];
+        PhaseStatus[] actionPhases = new PhaseStatus[actionList.size()];
+        String[] actionDetails = new String[actionList.size()];
+        for (int i = 0; i < actionList.size(); i++) {
+            ActionDto action = actionList.get(i);
+            actionUserIds[i] = action.getUserId();
+            actionPhases[i] = PhaseStatus.valueOf(action.getPhaseStatus());
+            actionDetails[i] = action.getDetail();
+        }
+
+        return calculate(userIds, actionUserIds, actionPhases, actionDetails, hand.getShowDownUserIdList(), hand.getWinnerUserIdList());
+    }
+
+    private static Map<Long, int[]> calculate(List<Long> userIds, Long[] actionUserIds, PhaseStatus[] actionPhases, String[] actionDetails,
+                                              List<Long> showDownUserIdList, List<Long> winnerUserIdList) {
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            add(deltas, userId, HudCounter.TOTAL_HANDS);
+        }
+
+        Set<Long> vpipUsers = new HashSet<>();
+        Set<Long> pfrUsers = new HashSet<>();
+        Set<Long> pfFoldUsers = new HashSet<>();
+        Long pfLastRaiser = null;
+        boolean reachedFlop = false;
+        PhaseStatus phase = PhaseStatus.PRE_FLOP;
+        int phaseRaiseCnt = 0;
+
+        for (int i = 0; i < actionDetails.length; i++) {
+            if (actionPhases[i] != phase) {
+                phase = actionPhases[i];
+                phaseRaiseCnt = 0;
+            }
+            if (phase.ordinal() >= PhaseStatus.FLOP.ordinal()) {
+                reachedFlop = true;
+            }
+
+            String detail = actionDetails[i];
+            Long userId = actionUserIds[i];
+            boolean raise = detail.startsWith(PlayerAction.RAISE.getActionDetail());
+
+            if (phase == PhaseStatus.PRE_FLOP) {
+                if (raise || detail.startsWith(PlayerAction.CALL.getActionDetail())) {
+                    vpipUsers.add(userId);
+                }
+                if (raise) {
+                    pfrUsers.add(userId);
+                    pfLastRaiser = userId;
+                }
+                if (detail.equals(PlayerAction.FOLD.getActionDetail())) {
+                    pfFoldUsers.add(userId);
+                }
+            }
+
+            if (raise) {
+                if (phaseRaiseCnt > 0) {
+                    add(deltas, userId, HudCounter.THREE_BET);
+                } else if (phase == PhaseStatus.FLOP && userId.equals(pfLastRaiser)) {
+                    add(deltas, userId, HudCounter.C_BET);
+                }
+                phaseRaiseCnt++;
+            }
+        }
+
+        for (Long userId : vpipUsers) {
+            add(deltas, userId, HudCounter.VPIP);
+        }
+        for (Long userId : pfrUsers) {
+            add(deltas, userId, HudCounter.PFR);
+        }
+        if (pfLastRaiser != null) {
+            add(deltas, pfLastRaiser, HudCounter.PF_AGGRESSIVE_CNT);
+        }
+
+        if (reachedFlop || !showDownUserIdList.isEmpty()) {
+            for (Long userId : userIds) {
+                if (!pfFoldUsers.contains(userId)) {
+                    add(deltas, userId, HudCounter.WTF);
+                }
+            }
+        }
+        for (Long userId : showDownUserIdList) {
+            add(deltas, userId, HudCounter.WTSD);
+        }
+        for (Long userId : winnerUserIdList) {
+            add(deltas, userId, HudCounter.WSD);
+        }
+
+        return deltas;
+    }
+
+    private static void add(Map<Long, int[]> deltas, Long userId, HudCounter counter) {
+        deltas.computeIfAbsent(userId, u -> new int[COUNTER_SIZE])[counter.ordinal()]++;
+    }
+}
@@ -3,10 +3,14 @@ package com.example.pokerv2.utils;
 import com.example.pokerv2.dto.BoardDto;
 import com.example.pokerv2.dto.GameResultDto;
 import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.PotLayerDto;
+import com.example.pokerv2.dto.PotResultDto;
+import com.example.pokerv2.enums.PlayerStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -17,137 +21,179 @@ public class PotDistributorUtils {
      *
      * 쇼다운 시 승자에 따라 팟을 분배하는 유틸 클래스
      *
+     * 24/02/22 chan
+     * 플레이어별 총 베팅 금액(totalCallSize)을 한번 정렬하고, 금액이 달라지는 지점마다 팟 층을 쌓는다.
+     * 각 층은 그 금액 이상 베팅했고 폴드하지 않은 플레이어 중 핸드가 가장 강한 플레이어가 가져간다.
+     * 1. 같은 핸드면 똑같이 나누고, 나누어 떨어지지 않는 칩은 버튼 왼쪽부터 한개씩 준다.
+     * 2. 혼자만 베팅한 층(콜 받지 못한 베팅)은 그 플레이어에게 돌려준다.
+     * 3. 가져갈 플레이어가 없는 층(폴드한 플레이어만 낸 금액)은 바로 아래 층에 합친다.
+     * 계산은 플레이어 수 크기의 기본형 배열로만 하고, 결과는 PotResultDto 로 돌려준다.
      */
 
-    private static final Comparator<PlayerDto> HAND_VALUE_COMPARATOR = Comparator
-            .comparingLong(p -> p.getGameResult().getHandValue());
+    private static final int MAX_PLAYER = 6;
 
     private PotDistributorUtils() {}
 
-    public static void calculate(BoardDto boardDto) {
+    /**
+     * 팟을 분배하고 플레이어별 GameResultDto 에 획득 금액, 돌려받은 금액, 승리 여부를 쓴다.
+     * 분배 결과는 BoardDto.potResult 에도 담는다.
+     */
+    public static PotResultDto calculate(BoardDto boardDto) {
+        PotResultDto potResult = distribute(boardDto);
         List<PlayerDto> players = boardDto.getPlayers();
-        players.sort(HAND_VALUE_COMPARATOR.reversed());
 
-        Map<Long, Integer> handStrongCount = new HashMap<>();
-
-        for(int i = 0; i < players.size(); i++) {
+        for (int i = 0; i < players.size(); i++) {
             GameResultDto gameResult = players.get(i).getGameResult();
-            if(handStrongCount.containsKey(gameResult.getHandValue())){
-                handStrongCount.replace(gameResult.getHandValue(), handStrongCount.get(gameResult.getHandValue()) + 1);
-            } else {
-                handStrongCount.put(gameResult.getHandValue(), 1);
+            if (gameResult == null) {
+                continue;
             }
+            int earnedMoney = potResult.getEarnedMoney()[i];
+            gameResult.setEarnedMoney(earnedMoney);
+            gameResult.setRefundedMoney(potResult.getRefundedMoney()[i]);
+            gameResult.setWinner(earnedMoney > 0);
         }
 
-        for(int i = 0; i < boardDto.getTotalPlayer()-1; i++) {
-            PlayerDto winPlayer = players.get(i);
-            Integer sameHandPlayerSize = handStrongCount.get(winPlayer.getGameResult().getHandValue());
-            if(sameHandPlayerSize == 1) {
-                distributeOnePlayer(boardDto, i);
-            } else {
-                distributeDrawPlayers(boardDto, i, winPlayer.getGameResult().getHandValue());
-                i = i + sameHandPlayerSize - 1;
-            }
-
-            if(boardDto.getPot() < boardDto.getTotalPlayer()) {
-                break;
-            }
-        }
+        boardDto.setPotResult(potResult);
+        return potResult;
     }
 
-    private static void distributeOnePlayer(BoardDto boardDto, int winPlayerIdx) {
+    /**
+     * BoardDto 를 바꾸지 않고 분배 결과만 계산한다.
+     */
+    public static PotResultDto distribute(BoardDto boardDto) {
         List<PlayerDto> players = boardDto.getPlayers();
-        PlayerDto winPlayer = players.get(winPlayerIdx);
-        List<Integer> totalCallSize = new ArrayList<>(boardDto.getTotalCallSize());
-        int wpTotalCallSize = totalCallSize.get(winPlayerIdx);
-        GameResultDto gameResult = winPlayer.getGameResult();
-
-        for(int j = winPlayerIdx +1; j < boardDto.getTotalPlayer(); j++) {
-            PlayerDto losePlayer = players.get(j);
-            int lpTotalCallSize = totalCallSize.get(j);
-            int takePotAmount = 0;
-            if(wpTotalCallSize <= lpTotalCallSize) {
-                takePotAmount = wpTotalCallSize;
-            }
-            else {
-                takePotAmount = lpTotalCallSize;
+        int n = players.size();
+        int[] contribution = new int[n];
+        long[] handValue = new long[n];
+        int[] position = new int[n];
+        int liveMask = 0;
+        int[] idxByPos = {-1, -1, -1, -1, -1, -1};
+
+        for (int i = 0; i < n; i++) {
+            PlayerDto player = players.get(i);
+            contribution[i] = boardDto.getTotalCallSize().get(i);
+            handValue[i] = player.getGameResult() == null ? 0L : player.getGameResult().getHandValue();
+            position[i] = player.getPosition();
+            idxByPos[position[i]] = i;
+            if (isLive(player)) {
+                liveMask |= 1 << i;
             }
-            totalCallSize.set(j, totalCallSize.get(j) - takePotAmount);
-            boardDto.setPot(boardDto.getPot() - takePotAmount);
-            gameResult.setEarnedMoney(gameResult.getEarnedMoney() + takePotAmount);
         }
-        gameResult.setEarnedMoney(gameResult.getEarnedMoney() + totalCallSize.get(winPlayerIdx));
-        totalCallSize.set(winPlayerIdx, 0);
 
-        if (winPlayer.getGameResult().getEarnedMoney() != 0){
-            winPlayer.getGameResult().setWinner(true);
+        int[] order = sortByContribution(contribution);
+
+        // 층 쌓기
+        int[] layerCap = new int[n];
+        int[] layerAmount = new int[n];
+        int[] layerMask = new int[n];
+        int[] layerRefundIdx = new int[n];
+        int layerSize = 0;
+        int prevCap = 0;
+        int carry = 0;
+        // 아직 층을 다 채우지 않은(베팅 금액이 cap 이상인) 플레이어
+        int remainMask = (1 << n) - 1;
+
+        for (int k = 0; k < n; k++) {
+            int cap = contribution[order[k]];
+            if (cap != prevCap) {
+                int amount = (n - k) * (cap - prevCap);
+                prevCap = cap;
+
+                if (n - k == 1) {
+                    layerCap[layerSize] = cap;
+                    layerAmount[layerSize] = amount;
+                    layerMask[layerSize] = remainMask;
+                    layerRefundIdx[layerSize++] = order[k];
+                } else if ((remainMask & liveMask) == 0) {
+                    if (layerSize > 0) {
+                        layerAmount[layerSize - 1] += amount;
+                    } else {
+                        carry += amount;
+                    }
+                } else {
+                    layerCap[layerSize] = cap;
+                    layerAmount[layerSize] = amount + carry;
+                    layerMask[layerSize] = remainMask & liveMask;
+                    layerRefundIdx[layerSize++] = -1;
+                    carry = 0;
+                }
+            }
+            remainMask &= ~(1 << order[k]);
         }
 
-        boardDto.setTotalCallSize(totalCallSize);
-    }
-
-    private static void distributeDrawPlayers(BoardDto boardDto, int firstPlayerIdx, long handValue) {
-        List<PlayerDto> winPlayerList = new ArrayList<>();
-        List<Integer> winPlayerTotalCallSize = new ArrayList<>();
-
-        List<PlayerDto> players = boardDto.getPlayers();
-        List<Integer> totalCallSize = new ArrayList<>(boardDto.getTotalCallSize());
+        if (carry > 0) {
+            log.warn("pot has no eligible player. boardId = {}, amount = {}", boardDto.getId(), carry);
+        }
 
-        for(int i = firstPlayerIdx; i < players.size(); i++){
-            PlayerDto playerDto = players.get(i);
-            if(playerDto.getGameResult().getHandValue() == handValue){
-                winPlayerList.add(playerDto);
-                winPlayerTotalCallSize.add(boardDto.getTotalCallSize().get(i));
+        // 층 분배
+        int[] earnedMoney = new int[n];
+        int[] refundedMoney = new int[n];
+        int[] winners = new int[n];
+        List<PotLayerDto> pots = new ArrayList<>(layerSize);
+
+        for (int l = 0; l < layerSize; l++) {
+            int refundIdx = layerRefundIdx[l];
+            if (refundIdx != -1) {
+                refundedMoney[refundIdx] += layerAmount[l];
+                int[] refundPosition = {position[refundIdx]};
+                pots.add(new PotLayerDto(layerCap[l], layerAmount[l], refundPosition, refundPosition, true));
+                continue;
             }
-        }
-        Collections.sort(winPlayerTotalCallSize);
-        List<PlayerDto> sortedWinPlayerList = new ArrayList<>();
-        for (int wpTotalCallSize : winPlayerTotalCallSize) {
-            for (PlayerDto playerDto : winPlayerList) {
-                if (boardDto.getTotalCallSize().get(players.indexOf(playerDto)) == wpTotalCallSize) {
-                    sortedWinPlayerList.add(playerDto);
-                    break;
+
+            long best = -1L;
+            for (int i = 0; i < n; i++) {
+                if ((layerMask[l] & (1 << i)) != 0 && handValue[i] > best) {
+                    best = handValue[i];
                 }
             }
-        }
 
-        winPlayerList = sortedWinPlayerList;
-
-        for(int i = firstPlayerIdx + winPlayerList.size(); i < players.size(); i++) {
-            PlayerDto losePlayer = players.get(i);
-            for(int j = 0; j < winPlayerList.size(); j++) {
-                PlayerDto winPlayer = winPlayerList.get(j);;
-                GameResultDto wpGameResult = winPlayer.getGameResult();
-                int takePotAmount;
-
-                if(winPlayerTotalCallSize.get(j) <= totalCallSize.get(i) / (winPlayerList.size() - j)) {
-                    takePotAmount = winPlayerTotalCallSize.get(j);
-                    winPlayer.setMoney(winPlayer.getMoney() + takePotAmount);
-                    totalCallSize.set(i, totalCallSize.get(i) - takePotAmount);
-                    boardDto.setPot(boardDto.getPot() - takePotAmount);
-                    wpGameResult.setEarnedMoney(wpGameResult.getEarnedMoney() + takePotAmount);
+            int winnerSize = 0;
+            int eligibleSize = 0;
+            int[] eligiblePositions = new int[Integer.bitCount(layerMask[l])];
+            for (int s = 1; s <= MAX_PLAYER; s++) {
+                int idx = idxByPos[(boardDto.getBtn() + s) % MAX_PLAYER];
+                if (idx == -1 || (layerMask[l] & (1 << idx)) == 0) {
+                    continue;
                 }
-                else {
-                    takePotAmount = totalCallSize.get(i) / (winPlayerList.size() - j);
-                    for(int k = j; k < winPlayerList.size(); k++) {
-                        PlayerDto drawPlayer = winPlayerList.get(k);
-                        drawPlayer.setMoney(drawPlayer.getMoney() + takePotAmount);
-                        boardDto.setPot(boardDto.getPot() - takePotAmount);
-                        drawPlayer.getGameResult().setEarnedMoney(drawPlayer.getGameResult().getEarnedMoney() + takePotAmount);
-                    }
-                    break;
+                eligiblePositions[eligibleSize++] = position[idx];
+                if (handValue[idx] == best) {
+                    winners[winnerSize++] = idx;
                 }
             }
-        }
 
-        for(int i = 0; i < winPlayerList.size(); i++){
-            PlayerDto winPlayer = winPlayerList.get(i);
-            GameResultDto wpGameResult = winPlayer.getGameResult();
-            if(wpGameResult.getEarnedMoney() > 0) {
-                wpGameResult.setWinner(true);
+            int share = layerAmount[l] / winnerSize;
+            int oddChips = layerAmount[l] % winnerSize;
+            int[] winnerPositions = new int[winnerSize];
+            for (int w = 0; w < winnerSize; w++) {
+                earnedMoney[winners[w]] += share + (w < oddChips ? 1 : 0);
+                winnerPositions[w] = position[winners[w]];
             }
+
+            pots.add(new PotLayerDto(layerCap[l], layerAmount[l], eligiblePositions, winnerPositions, false));
         }
 
-        boardDto.setTotalCallSize(totalCallSize);
+        return new PotResultDto(pots, earnedMoney, refundedMoney);
+    }
+
+    private static boolean isLive(PlayerDto player) {
+        int status = player.getStatus();
+        return status != PlayerStatus.FOLD.getStatusNum() && status != PlayerStatus.DISCONNECT_FOLD.getStatusNum();
+    }
+
+    /**
+     * @return 베팅 금액 오름차순의 플레이어 인덱스. 플레이어가 최대 6명이라 삽입 정렬을 쓴다.
+     */
+    private static int[] sortByContribution(int[] contribution) {
+        int[] order = new int[contribution.length];
+        for (int i = 0; i < order.length; i++) {
+            int idx = i;
+            int j = i - 1;
+            while (j >= 0 && contribution[order[j]] > contribution[idx]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = idx;
+        }
+        return order;
     }
 }
@@ -0,0 +1,104 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.SeatRequestDto;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.model.User;
+import com.example.pokerv2.repository.BoardRepository;
+import com.example.pokerv2.repository.UserRepository;
+import com.example.pokerv2.utils.BoardViewUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoardServiceTest {
+
+    @Test
+    @DisplayName("홀카드를 가리는 경우 보드 목록에 홀카드가 없는지 테스트")
+    void boardListHidesHoleCards() {
+
+        //given
+        BoardRepository boardRepository = mock(BoardRepository.class);
+        when(boardRepository.findByBlind(1000)).thenReturn(List.of(board(1L), board(2L)));
+        BoardService boardService = new BoardService(boardRepository, null, null, null, null, null);
+        ReflectionTestUtils.setField(boardService, "hideHoleCards", true);
+
+        //when
+        List<BoardDto> boards = boardService.getBoardList(1000);
+
+        //then
+        assertThat(boards).hasSize(2);
+        for (BoardDto board : boards) {
+            assertThat(board.getPlayers()).hasSize(2);
+            for (PlayerDto player : board.getPlayers()) {
+                assertThat(player.getCard1()).isEqualTo(BoardViewUtils.HIDDEN_CARD);
+                assertThat(player.getCard2()).isEqualTo(BoardViewUtils.HIDDEN_CARD);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("잔고가 부족한 유저를 빼고 남은 유저로 보드를 고르게 나누는지 테스트")
+    void createBoardsRebalance() {
+
+        //given
+        UserRepository userRepository = mock(UserRepository.class);
+        List<SeatRequestDto> requests = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            requests.add(new SeatRequestDto("user" + i, 100));
+            // user0 ~ user3 은 바이인 금액이 부족하다.
+            users.add(User.builder().id((long) i).userId("user" + i).money(i < 4 ? 50000 : 100000).build());
+        }
+        when(userRepository.findByUserIdIn(anyCollection())).thenReturn(users);
+        BoardService boardService = new BoardService(mock(BoardRepository.class), userRepository, null,
+                mock(TableStateStore.class), null, mock(SeatAllocator.class));
+
+        //when
+        List<BoardDto> boards = boardService.createBoards(1000, requests, 6);
+
+        //then
+        assertThat(boards).hasSize(1);
+        assertThat(boards.get(0).getPlayers()).extracting(PlayerDto::getPlayerName)
+                .containsExactlyInAnyOrder("user4", "user5", "user6");
+        assertThat(users.get(0).getMoney()).isEqualTo(50000);
+        assertThat(users.get(4).getMoney()).isZero();
+    }
+
+    @Test
+    @DisplayName("인원을 가장 적은 보드 수로 고르게 나누는지 테스트")
+    void tableSizes() {
+
+        //when, then
+        assertThat(BoardService.tableSizes(0, 6)).isEmpty();
+        assertThat(BoardService.tableSizes(1, 6)).containsExactly(1);
+        assertThat(BoardService.tableSizes(6, 6)).containsExactly(6);
+        assertThat(BoardService.tableSizes(7, 6)).containsExactly(4, 3);
+        assertThat(BoardService.tableSizes(13, 6)).containsExactly(5, 4, 4);
+        assertThat(BoardService.tableSizes(24, 6)).containsExactly(6, 6, 6, 6);
+    }
+
+    private static Board board(Long id) {
+        Board board = Board.builder().id(id).blind(1000).phaseStatus(PhaseStatus.FLOP).gameSeq(1L).build();
+        int[] positions = {Position.SB.getPosNum(), Position.BB.getPosNum()};
+        for (int i = 0; i < positions.length; i++) {
+            User user = User.builder().id(id * 10 + i).userId("user" + id + i).build();
+            board.getPlayers().add(Player.builder().id(id * 10 + i).board(board).user(user).money(1000)
+                    .position(Position.getPositionByNumber(positions[i])).status(PlayerStatus.PLAY)
+                    .card1(10 + i * 2).card2(11 + i * 2).build());
+        }
+        board.setTotalPlayer(positions.length);
+        return board;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.HandHistoryPageDto;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.User;
+import com.example.pokerv2.repository.BoardRepository;
+import com.example.pokerv2.repository.HandHistoryRepository;
+import com.example.pokerv2.repository.UserHandHistoryRepository;
+import com.example.pokerv2.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HandHistoryServiceTest {
+
+    @Test
+    @DisplayName("핸드가 여러개인 페이지도 컬렉션마다 IN 쿼리 한번으로 읽고, 승자 목록도 같이 읽는지 테스트")
+    void getPageFetchesEveryCollectionOnce() {
+
+        //given
+        HandHistoryRepository handHistoryRepository = mock(HandHistoryRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUserId("user1")).thenReturn(Optional.of(User.builder().id(1L).userId("user1").build()));
+
+        List<HandHistory> page = new ArrayList<>();
+        for (long id = 4; id >= 1; id--) {
+            HandHistory handHistory = HandHistory.builder().id(id).boardId(1L).gameSeq(id).finish(true).build();
+            handHistory.getWinnerUserIdList().add(1L);
+            page.add(handHistory);
+        }
+        when(handHistoryRepository.findPageByUserId(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(page);
+        HandHistoryService handHistoryService = new HandHistoryService(handHistoryRepository, mock(BoardRepository.class), userRepository,
+                mock(UserHandHistoryRepository.class), mock(ActionService.class), mock(TableStateStore.class));
+
+        //when
+        HandHistoryPageDto result = handHistoryService.getPage("user1", null, 3);
+
+        //then
+        List<Long> ids = List.of(4L, 3L, 2L);
+        assertThat(result.getHandHistoryList()).hasSize(3);
+        assertThat(result.getNextCursor()).isEqualTo(2L);
+        assertThat(result.getHandHistoryList().get(0).getWinnerUserIdList()).containsExactly(1L);
+        verify(handHistoryRepository).findPageByUserId(eq(1L), eq(Long.MAX_VALUE), any());
+        verify(handHistoryRepository).fetchActionList(ids);
+        verify(handHistoryRepository).fetchPosList(ids);
+        verify(handHistoryRepository).fetchCardList(ids);
+        verify(handHistoryRepository).fetchShowDownUserIdList(ids);
+        verify(handHistoryRepository).fetchWinnerUserIdList(ids);
+        verify(handHistoryRepository).findUserRowsByHandHistoryIds(ids);
+        verifyNoMoreInteractions(handHistoryRepository);
+    }
+}
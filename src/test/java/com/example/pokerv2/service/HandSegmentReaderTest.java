@@ -0,0 +1,343 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.ActionDto;
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.UserDto;
+import com.example.pokerv2.enums.HudCounter;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.utils.HandHistoryCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HandSegmentReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private HandSegmentStore store;
+    private HandSegmentReader reader;
+
+    @BeforeEach
+    void init() throws IOException {
+        store = new HandSegmentStore();
+        ReflectionTestUtils.setField(store, "segmentDir", dir.toString());
+        ReflectionTestUtils.setField(store, "segmentSize", 256L);
+        store.init();
+        reader = new HandSegmentReader(store);
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        store.destroy();
+    }
+
+    @Test
+    @DisplayName("여러 세그먼트에 걸친 핸드를 순서대로 읽고 인덱스로 찾는지 테스트")
+    void readAndFind() {
+
+        //given
+        for (long handHistoryId = 1; handHistoryId <= 10; handHistoryId++) {
+            store.append(handHistoryId, HandHistoryCodec.encode(hand(handHistoryId % 2 + 1, 10L, handHistoryId <= 5 ? 20L : 30L)));
+        }
+
+        //when
+        List<Long> handHistoryIds = new ArrayList<>();
+        Iterator<HandHistoryDto> hands = reader.iterator();
+        while (hands.hasNext()) {
+            handHistoryIds.add(hands.next().getId());
+        }
+
+        //then
+        assertThat(store.segments()).hasSizeGreaterThan(1);
+        assertThat(handHistoryIds).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(reader.findByHandHistoryId(7L)).hasValueSatisfying(hand -> assertThat(hand.getBoardId()).isEqualTo(2L));
+        assertThat(reader.findByHandHistoryId(11L)).isEmpty();
+        assertThat(reader.findByBoardId(1L)).extracting(HandHistoryDto::getId).containsExactly(2L, 4L, 6L, 8L, 10L);
+        assertThat(reader.findByUserId(10L)).hasSize(10);
+        assertThat(reader.findByUserId(30L)).extracting(HandHistoryDto::getId).containsExactly(6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("세그먼트 끝의 잘린 레코드는 무시하고, 이어 쓴 레코드는 다시 읽는지 테스트")
+    void truncatedTail() throws IOException {
+
+        //given
+        store.append(1L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+        Path segment = store.segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(HandSegmentStore.RECORD_HEADER_SIZE + 3).putInt(100).putLong(2L).flip());
+        }
+
+        //when, then
+        assertThat(reader.findByUserId(10L)).extracting(HandHistoryDto::getId).containsExactly(1L);
+        assertThat(reader.findByHandHistoryId(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("읽은 뒤에 이어 쓴 핸드를 읽고, 마지막이 아닌 세그먼트는 파일을 다시 열지 않는지 테스트")
+    void appendAfterRead() throws IOException {
+
+        //given
+        for (long handHistoryId = 1; handHistoryId <= 3; handHistoryId++) {
+            store.append(handHistoryId, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+        }
+        assertThat(reader.findByUserId(10L)).hasSize(3);
+
+        //when
+        for (long handHistoryId = 4; handHistoryId <= 10; handHistoryId++) {
+            store.append(handHistoryId, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+            assertThat(reader.contains(handHistoryId)).isTrue();
+        }
+        List<Path> segments = store.segments();
+        // 마지막이 아닌 세그먼트는 한번 읽은 뒤로 파일을 열지 않으므로 지워도 매핑으로 읽는다.
+        for (Path segment : segments.subList(0, segments.size() - 1)) {
+            Files.delete(segment);
+        }
+
+        //then
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(reader.findByUserId(10L)).extracting(HandHistoryDto::getId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    @DisplayName("레코드를 쓰다가 실패하면 쓴 만큼 잘라내서 다음 레코드가 어긋나지 않는지 테스트")
+    void partialWriteIsTruncated() throws IOException {
+
+        //given
+        store.append(1L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+        FileChannel channel = (FileChannel) ReflectionTestUtils.getField(store, "channel");
+        long size = channel.size();
+        ReflectionTestUtils.setField(store, "channel", new FailingChannel(channel, 5));
+
+        //when
+        assertThatThrownBy(() -> store.append(2L, HandHistoryCodec.encode(hand(1L, 10L, 20L))))
+                .isInstanceOf(UncheckedIOException.class);
+        long sizeAfterFailure = channel.size();
+        store.append(3L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+
+        //then
+        assertThat(sizeAfterFailure).isEqualTo(size);
+        assertThat(reader.findByUserId(10L)).extracting(HandHistoryDto::getId).containsExactly(1L, 3L);
+        assertThat(reader.findByHandHistoryId(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("다시 시작한 뒤 첫 핸드 id 가 같은 세그먼트가 있으면 이어 쓰지 않고 새 파일을 만드는지 테스트")
+    void rollDoesNotReopenExistingSegment() throws IOException {
+
+        //given
+        store.append(1L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+        Path existing = store.segments().get(0);
+        try (FileChannel channel = FileChannel.open(existing, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(HandSegmentStore.RECORD_HEADER_SIZE + 3).putInt(100).putLong(2L).flip());
+        }
+        long existingSize = Files.size(existing);
+        store.destroy();
+
+        //when
+        store = new HandSegmentStore();
+        ReflectionTestUtils.setField(store, "segmentDir", dir.toString());
+        ReflectionTestUtils.setField(store, "segmentSize", 256L);
+        store.init();
+        store.append(1L, HandHistoryCodec.encode(hand(2L, 10L, 20L)));
+
+        //then
+        List<Path> segments = store.segments();
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(1)).isNotEqualTo(existing);
+        assertThat(segments.get(1).getFileName().toString()).endsWith("_1" + HandSegmentStore.SUFFIX);
+        assertThat(Files.size(existing)).isEqualTo(existingSize);
+        assertThat(new HandSegmentReader(store).findByBoardId(2L)).extracting(HandHistoryDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("세그먼트의 모든 핸드로 HUD 를 다시 계산하는지 테스트")
+    void recomputeHud() {
+
+        //given
+        store.append(1L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+        store.append(2L, HandHistoryCodec.encode(hand(1L, 10L, 20L)));
+
+        //when
+        Map<Long, int[]> totals = reader.recomputeHud();
+
+        //then
+        assertThat(totals.get(10L)[HudCounter.TOTAL_HANDS.ordinal()]).isEqualTo(2);
+        assertThat(totals.get(10L)[HudCounter.PFR.ordinal()]).isEqualTo(2);
+        assertThat(totals.get(20L)[HudCounter.VPIP.ordinal()]).isEqualTo(0);
+    }
+
+    private static HandHistoryDto hand(Long boardId, Long raiserId, Long folderId) {
+        HandHistoryDto hand = new HandHistoryDto();
+        hand.setBoardId(boardId);
+        hand.setGameSeq(1L);
+        hand.setBtnPosition(0);
+        hand.setPotAmountPf(3000);
+        hand.setPotAmountFlop(0);
+        hand.setPotAmountTurn(0);
+        hand.setPotAmountRiver(0);
+        hand.setCommunityCard1(-1);
+        hand.setCommunityCard2(-1);
+        hand.setCommunityCard3(-1);
+        hand.setCommunityCard4(-1);
+        hand.setCommunityCard5(-1);
+
+        List<UserDto> userList = new ArrayList<>();
+        for (Long userId : new Long[]{raiserId, folderId}) {
+            UserDto user = new UserDto();
+            user.setId(userId);
+            userList.add(user);
+        }
+        hand.setUserList(userList);
+        hand.setPosList(new ArrayList<>(List.of(0, 1)));
+        hand.setCardList(new ArrayList<>(List.of(1, 2, 3, 4)));
+        hand.setShowDownUserIdList(new ArrayList<>());
+        hand.setWinnerUserIdList(new ArrayList<>(List.of(raiserId)));
+
+        List<ActionDto> actionList = new ArrayList<>();
+        actionList.add(action(raiserId, 0, "raise 3bb"));
+        actionList.add(action(folderId, 1, "fold"));
+        hand.setActionList(actionList);
+        return hand;
+    }
+
+    /**
+     * limit 바이트만 쓰고 한번 실패하는 채널. 나머지는 delegate 에 넘긴다.
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final int limit;
+        private boolean failed;
+
+        private FailingChannel(FileChannel delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failed) {
+                return delegate.write(src);
+            }
+            failed = true;
+            ByteBuffer partial = src.duplicate();
+            partial.limit(partial.position() + Math.min(limit, partial.remaining()));
+            delegate.write(partial);
+            throw new IOException("disk full");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static ActionDto action(Long userId, int position, String detail) {
+        ActionDto action = new ActionDto();
+        action.setUserId(userId);
+        action.setActPosition(position);
+        action.setPhaseStatus(PhaseStatus.PRE_FLOP.ordinal());
+        action.setDetail(detail);
+        return action;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.model.Action;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.Hud;
+import com.example.pokerv2.model.User;
+import com.example.pokerv2.model.UserHandHistory;
+import com.example.pokerv2.repository.HandHistoryRepository;
+import com.example.pokerv2.repository.HudRepository;
+import com.example.pokerv2.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HudServiceTest {
+
+    @Test
+    @DisplayName("핸드 하나의 HUD 를 IN 쿼리 한번으로 읽어서 한번에 반영하고, 같은 핸드는 다시 반영하지 않는지 테스트")
+    void applyOncePerHand() {
+
+        //given
+        HandHistory handHistory = HandHistory.builder().id(1L).boardId(1L).gameSeq(1L).finish(true).build();
+        List<Hud> huds = new ArrayList<>();
+        for (long userId = 1; userId <= 3; userId++) {
+            User user = User.builder().id(userId).userId(String.valueOf(userId)).build();
+            handHistory.getUserList().add(UserHandHistory.builder().user(user).handHistory(handHistory).build());
+            huds.add(Hud.builder().id(userId).user(user).build());
+        }
+        addAction(handHistory, 2L, "Ante 0.5bb");
+        addAction(handHistory, 3L, "Ante 1bb");
+        addAction(handHistory, 1L, "raise 3bb");
+        addAction(handHistory, 2L, "fold");
+        addAction(handHistory, 3L, "fold");
+
+        HudRepository hudRepository = mock(HudRepository.class);
+        HandHistoryRepository handHistoryRepository = mock(HandHistoryRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(handHistoryRepository.findByBoardIdAndGameSeq(1L, 1L)).thenReturn(Optional.of(handHistory));
+        when(hudRepository.findByUserIdIn(anyCollection())).thenReturn(huds);
+        when(handHistoryRepository.claimHudApplied(1L)).thenReturn(1);
+        HudService hudService = new HudService(hudRepository, handHistoryRepository, userRepository, new HudCache(100, 60));
+
+        //when
+        boolean first = hudService.apply(1L, 1L);
+        boolean second = hudService.apply(1L, 1L);
+
+        //then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(handHistory.isHudApplied()).isTrue();
+        verify(hudRepository, times(1)).findByUserIdIn(anyCollection());
+        verify(hudRepository, never()).findByUserId(any());
+        verify(hudRepository, never()).save(any());
+        verifyNoInteractions(userRepository);
+        for (Hud hud : huds) {
+            assertThat(hud.getTotalHands()).isEqualTo(1);
+        }
+        assertThat(huds.get(0).getPfr()).isEqualTo(1);
+        // 커밋 뒤의 캐시에서 읽으므로 다시 조회하지 않는다.
+        assertThat(hudService.get(1L).getPfr()).isEqualTo(1);
+        verify(hudRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 선점한 핸드는 Hud 를 읽지도 더하지도 않는지 테스트")
+    void applyClaimedByOtherNode() {
+
+        //given
+        HandHistory handHistory = HandHistory.builder().id(1L).boardId(1L).gameSeq(1L).finish(true).build();
+        User user = User.builder().id(1L).userId("1").build();
+        handHistory.getUserList().add(UserHandHistory.builder().user(user).handHistory(handHistory).build());
+        addAction(handHistory, 1L, "raise 3bb");
+
+        HudRepository hudRepository = mock(HudRepository.class);
+        HandHistoryRepository handHistoryRepository = mock(HandHistoryRepository.class);
+        when(handHistoryRepository.findById(1L)).thenReturn(Optional.of(handHistory));
+        when(handHistoryRepository.claimHudApplied(1L)).thenReturn(0);
+        HudService hudService = new HudService(hudRepository, handHistoryRepository, mock(UserRepository.class), new HudCache(100, 60));
+
+        //when
+        boolean applied = hudService.replay(1L);
+
+        //then
+        assertThat(applied).isFalse();
+        verify(handHistoryRepository).claimHudApplied(1L);
+        verifyNoInteractions(hudRepository);
+    }
+
+    private static void addAction(HandHistory handHistory, Long userId, String detail) {
+        List<Action> actionList = handHistory.getActionList();
+        actionList.add(Action.builder().actionNo(actionList.size()).userId(userId).phaseStatus(PhaseStatus.PRE_FLOP)
+                .detail(detail).handHistory(handHistory).build());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.model.User;
+import com.example.pokerv2.service.handleService.TableRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SeatAllocatorTest {
+
+    @Test
+    @DisplayName("가장 많이 찬 보드의 빈 자리를 예약하는지 테스트")
+    void reserveFullestBoard() {
+
+        //given
+        SeatAllocator allocator = new SeatAllocator(null, new TableRouter("local", ""));
+        allocator.registerAfterCommit(board(1L, 1000, new int[]{0}, new String[]{"a"}));
+        allocator.registerAfterCommit(board(2L, 1000, new int[]{0, 2, 4}, new String[]{"b", "c", "d"}));
+        allocator.registerAfterCommit(board(3L, 2000, new int[]{0, 1, 2, 3}, new String[]{"e", "f", "g", "h"}));
+
+        //when
+        SeatAllocator.Reservation reservation = allocator.reserve(1000, "x");
+
+        //then
+        assertThat(reservation.getBoardId()).isEqualTo(2L);
+        assertThat(reservation.getPosition()).isIn(1, 3, 5);
+        assertThat(allocator.reserve(500, "x")).isNull();
+    }
+
+    @Test
+    @DisplayName("이미 앉은 보드와 가득 찬 보드는 고르지 않는지 테스트")
+    void skipSeatedAndFullBoard() {
+
+        //given
+        SeatAllocator allocator = new SeatAllocator(null, new TableRouter("local", ""));
+        allocator.registerAfterCommit(board(1L, 1000, new int[]{0, 1, 2, 3, 4, 5}, new String[]{"a", "b", "c", "d", "e", "f"}));
+        allocator.registerAfterCommit(board(2L, 1000, new int[]{0, 1}, new String[]{"x", "g"}));
+
+        //when, then
+        assertThat(allocator.reserve(1000, "x")).isNull();
+        assertThat(allocator.reserve(1000, "y").getBoardId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("푼 예약과 비운 자리를 다시 예약할 수 있는지 테스트")
+    void releaseAndVacate() {
+
+        //given
+        SeatAllocator allocator = new SeatAllocator(null, new TableRouter("local", ""));
+        allocator.registerAfterCommit(board(1L, 1000, new int[]{0, 1, 2, 3, 4}, new String[]{"a", "b", "c", "d", "e"}));
+
+        //when
+        SeatAllocator.Reservation reservation = allocator.reserve(1000, "x");
+        SeatAllocator.Reservation full = allocator.reserve(1000, "y");
+        allocator.release(reservation);
+        allocator.release(reservation);
+        SeatAllocator.Reservation retry = allocator.reserve(1000, "y");
+        allocator.vacateAfterCommit(1L, 2, "c");
+        SeatAllocator.Reservation vacated = allocator.reserve(1000, "x");
+
+        //then
+        assertThat(reservation.getPosition()).isEqualTo(5);
+        assertThat(full).isNull();
+        assertThat(retry.getPosition()).isEqualTo(5);
+        assertThat(vacated.getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("동시에 예약해도 같은 자리를 두번 주지 않는지 테스트")
+    void concurrentReserve() throws InterruptedException {
+
+        //given
+        SeatAllocator allocator = new SeatAllocator(null, new TableRouter("local", ""));
+        for (long id = 1; id <= 10; id++) {
+            allocator.registerAfterCommit(board(id, 1000, new int[]{}, new String[]{}));
+        }
+        int threads = 8;
+        int users = 100;
+        Set<String> seats = ConcurrentHashMap.newKeySet();
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        for (int i = 0; i < users; i++) {
+            String userId = "u" + i;
+            executor.submit(() -> {
+                start.await();
+                SeatAllocator.Reservation reservation = allocator.reserve(1000, userId);
+                if (reservation == null) {
+                    failed.add(userId);
+                } else if (!seats.add(reservation.getBoardId() + ":" + reservation.getPosition())) {
+                    failed.add("duplicate " + userId);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then
+        assertThat(seats).hasSize(60);
+        assertThat(failed).hasSize(users - 60);
+        assertThat(failed).noneMatch(userId -> userId.startsWith("duplicate"));
+    }
+
+    private static Board board(Long id, int blind, int[] positions, String[] userIds) {
+        Board board = Board.builder().id(id).blind(blind).build();
+        for (int i = 0; i < positions.length; i++) {
+            User user = User.builder().userId(userIds[i]).build();
+            board.getPlayers().add(Player.builder().board(board).user(user).position(Position.getPositionByNumber(positions[i])).build());
+        }
+        board.setTotalPlayer(positions.length);
+        return board;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SeatMapTest {
+
+    @Test
+    @DisplayName("포지션과 유저 아이디로 좌석을 찾는지 테스트")
+    void lookup() {
+
+        //given
+        BoardDto board = board(new int[]{0, 3, 5}, new String[]{"a", "b", "c"});
+
+        //when
+        SeatMap seats = SeatMap.of(board);
+
+        //then
+        assertThat(seats.size()).isEqualTo(3);
+        assertThat(seats.indexOf(0)).isEqualTo(0);
+        assertThat(seats.indexOf(3)).isEqualTo(1);
+        assertThat(seats.indexOf(5)).isEqualTo(2);
+        assertThat(seats.indexOf(1)).isEqualTo(-1);
+        assertThat(seats.indexOf(-1)).isEqualTo(-1);
+        assertThat(seats.indexOf(6)).isEqualTo(-1);
+        assertThat(seats.positionOf("b")).isEqualTo(3);
+        assertThat(seats.positionOf("d")).isEqualTo(-1);
+        assertThat(seats.contains("c")).isTrue();
+        assertThat(seats.contains("d")).isFalse();
+    }
+
+    @Test
+    @DisplayName("플레이어 구성이 같을 때만 같은 좌석으로 보는지 테스트")
+    void matches() {
+
+        //given
+        SeatMap seats = SeatMap.of(board(new int[]{0, 3, 5}, new String[]{"a", "b", "c"}));
+
+        //when, then
+        assertThat(seats.matches(board(new int[]{0, 3, 5}, new String[]{"a", "b", "c"}))).isTrue();
+        assertThat(seats.matches(board(new int[]{0, 3}, new String[]{"a", "b"}))).isFalse();
+        assertThat(seats.matches(board(new int[]{0, 3, 5}, new String[]{"a", "c", "b"}))).isFalse();
+        assertThat(seats.matches(board(new int[]{0, 2, 5}, new String[]{"a", "b", "c"}))).isFalse();
+    }
+
+    private static BoardDto board(int[] positions, String[] userIds) {
+        List<PlayerDto> players = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            PlayerDto player = new PlayerDto();
+            player.setPosition(positions[i]);
+            player.setPlayerName(userIds[i]);
+            players.add(player);
+        }
+        BoardDto board = new BoardDto();
+        board.setTotalPlayer(players.size());
+        board.setPlayers(players);
+        return board;
+    }
+}
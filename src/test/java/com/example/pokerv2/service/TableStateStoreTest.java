@@ -0,0 +1,80 @@
+package com.example.pokerv2.service;
+
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TableStateStoreTest {
+
+    @Test
+    @DisplayName("메모리에만 반영한 액션 결과를 다음에 보드를 변경할 때 엔티티에 반영하는지 테스트")
+    void applyPendingAction() {
+
+        //given
+        TableStateStore store = new TableStateStore(null, null);
+        store.publish(board());
+
+        //when
+        store.update(1L, snapshot -> {
+            snapshot.setPot(300);
+            snapshot.setBettingSize(200);
+            snapshot.setBettingPos(Position.BB.getPosNum());
+            snapshot.getPlayers().get(1).setMoney(700);
+            snapshot.getPlayers().get(1).setPhaseCallSize(200);
+            snapshot.getPlayers().get(1).setStatus(PlayerStatus.ALL_IN.getStatusNum());
+        });
+        Board pending = board();
+        store.applyPending(pending);
+
+        //then
+        assertThat(store.get(1L).getPot()).isEqualTo(300);
+        assertThat(pending.getPot()).isEqualTo(300);
+        assertThat(pending.getBettingSize()).isEqualTo(200);
+        assertThat(pending.getBettingPos()).isEqualTo(Position.BB.getPosNum());
+        assertThat(pending.getPlayers().get(0).getMoney()).isEqualTo(1000);
+        assertThat(pending.getPlayers().get(1).getMoney()).isEqualTo(700);
+        assertThat(pending.getPlayers().get(1).getPhaseCallSize()).isEqualTo(200);
+        assertThat(pending.getPlayers().get(1).getStatus()).isEqualTo(PlayerStatus.ALL_IN);
+    }
+
+    @Test
+    @DisplayName("보드를 저장해서 스냅샷을 교체하면 더이상 반영하지 않는지 테스트")
+    void publishClearsPending() {
+
+        //given
+        TableStateStore store = new TableStateStore(null, null);
+        store.publish(board());
+        store.update(1L, snapshot -> snapshot.setPot(300));
+
+        //when
+        Board saved = board();
+        store.applyPending(saved);
+        store.publish(saved);
+        Board changed = board();
+        changed.setPot(500);
+        store.applyPending(changed);
+
+        //then
+        assertThat(changed.getPot()).isEqualTo(500);
+        assertThat(store.get(1L).getPot()).isEqualTo(300);
+    }
+
+    private static Board board() {
+        Board board = Board.builder().id(1L).blind(1000).phaseStatus(PhaseStatus.PRE_FLOP).gameSeq(1L).build();
+        int[] positions = {Position.SB.getPosNum(), Position.BB.getPosNum()};
+        for (int i = 0; i < positions.length; i++) {
+            User user = User.builder().id((long) i + 1).userId("user" + i).build();
+            board.getPlayers().add(Player.builder().id((long) i + 1).board(board).user(user).money(1000)
+                    .position(Position.getPositionByNumber(positions[i])).status(PlayerStatus.PLAY).build());
+        }
+        board.setTotalPlayer(positions.length);
+        return board;
+    }
+}
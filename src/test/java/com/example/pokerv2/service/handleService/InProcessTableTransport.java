@@ -0,0 +1,51 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.TableCommandDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 테스트용 브로커 대역. 한 JVM 안의 여러 노드가 공유한다.
+ * 실제 브로커처럼 명령을 JSON 으로 직렬화해서 다른 스레드에서 넘긴다.
+ */
+class InProcessTableTransport implements TableTransport {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Consumer<TableCommandDto>> listeners = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    InProcessTableTransport(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void listen(String nodeId, Consumer<TableCommandDto> listener) {
+        listeners.put(nodeId, listener);
+    }
+
+    @Override
+    public void send(String nodeId, TableCommandDto command) {
+        Consumer<TableCommandDto> listener = listeners.get(nodeId);
+        if (listener == null) {
+            throw new IllegalStateException("no listener. nodeId = " + nodeId);
+        }
+        try {
+            byte[] frame = objectMapper.writeValueAsBytes(command);
+            TableCommandDto received = objectMapper.readValue(frame, TableCommandDto.class);
+            executor.execute(() -> listener.accept(received));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.MessageDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.SeatRequestDto;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.example.pokerv2.service.BoardService;
+import com.example.pokerv2.service.SeatAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MatchmakingServiceTest {
+
+    private static final int BLIND = 1000;
+
+    private GameHandleService gameHandleService;
+    private BoardService boardService;
+    private SeatAllocator seatAllocator;
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private MatchmakingService matchmakingService;
+
+    @BeforeEach
+    void init() {
+        gameHandleService = mock(GameHandleService.class);
+        boardService = mock(BoardService.class);
+        seatAllocator = mock(SeatAllocator.class);
+        simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+        BoardBroadcaster boardBroadcaster = mock(BoardBroadcaster.class);
+        when(boardBroadcaster.viewOf(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gameHandleService.startMatchedBoard(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        matchmakingService = new MatchmakingService(gameHandleService, boardService, seatAllocator, boardBroadcaster, simpMessagingTemplate);
+        ReflectionTestUtils.setField(matchmakingService, "enabled", true);
+        ReflectionTestUtils.setField(matchmakingService, "windowMs", 100L);
+        ReflectionTestUtils.setField(matchmakingService, "tableSize", 6);
+        matchmakingService.init();
+    }
+
+    @AfterEach
+    void destroy() {
+        matchmakingService.destroy();
+    }
+
+    @Test
+    @DisplayName("window 안에 들어온 요청을 한번에 새 보드로 앉히는지 테스트")
+    void windowBatching() throws Exception {
+
+        //given
+        when(boardService.createBoards(eq(BLIND), anyList(), eq(6))).thenAnswer(invocation -> List.of(board(1L, names(invocation.getArgument(1)))));
+
+        //when
+        CompletableFuture<BoardDto> user1 = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> user2 = matchmakingService.join(BLIND, 100, principal("user2"));
+        CompletableFuture<BoardDto> user3 = matchmakingService.join(BLIND, 100, principal("user3"));
+
+        //then
+        assertThat(get(user1).getId()).isEqualTo(1L);
+        assertThat(get(user2).getId()).isEqualTo(1L);
+        assertThat(get(user3).getId()).isEqualTo(1L);
+        ArgumentCaptor<List<SeatRequestDto>> requests = captor();
+        verify(boardService, times(1)).createBoards(eq(BLIND), requests.capture(), eq(6));
+        assertThat(names(requests.getValue())).containsExactly("user1", "user2", "user3");
+        // 홀카드가 든 보드는 유저 목적지로만 보낸다.
+        verify(simpMessagingTemplate, timeout(1000)).convertAndSendToUser(eq("user1"), eq(MatchmakingService.MATCH_QUEUE), any(MessageDto.class));
+        verify(simpMessagingTemplate, never()).convertAndSend(startsWith("/queue/match"), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("빈 자리가 있는 기존 보드를 먼저 채우고 남은 요청만 새 보드로 앉히는지 테스트")
+    void fillExistingBoardFirst() throws Exception {
+
+        //given
+        SeatAllocator.Reservation reservation = mock(SeatAllocator.Reservation.class);
+        when(seatAllocator.reserve(BLIND, "user1")).thenReturn(reservation);
+        when(gameHandleService.joinAsync(eq(reservation), eq(100), any())).thenReturn(CompletableFuture.completedFuture(board(7L, List.of("user1"))));
+        when(boardService.createBoards(eq(BLIND), anyList(), eq(6))).thenAnswer(invocation -> List.of(board(8L, names(invocation.getArgument(1)))));
+
+        //when
+        CompletableFuture<BoardDto> user1 = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> user2 = matchmakingService.join(BLIND, 100, principal("user2"));
+
+        //then
+        assertThat(get(user1).getId()).isEqualTo(7L);
+        assertThat(get(user2).getId()).isEqualTo(8L);
+        ArgumentCaptor<List<SeatRequestDto>> requests = captor();
+        verify(boardService).createBoards(eq(BLIND), requests.capture(), eq(6));
+        assertThat(names(requests.getValue())).containsExactly("user2");
+    }
+
+    @Test
+    @DisplayName("같은 유저가 window 안에 여러번 요청하면 한번만 앉히고 같은 결과를 받는지 테스트")
+    void duplicateTicket() throws Exception {
+
+        //given
+        when(boardService.createBoards(eq(BLIND), anyList(), eq(6))).thenAnswer(invocation -> List.of(board(1L, names(invocation.getArgument(1)))));
+
+        //when
+        CompletableFuture<BoardDto> first = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> second = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> user2 = matchmakingService.join(BLIND, 100, principal("user2"));
+
+        //then
+        assertThat(get(first).getId()).isEqualTo(1L);
+        assertThat(get(second)).isEqualTo(get(first));
+        assertThat(get(user2).getId()).isEqualTo(1L);
+        ArgumentCaptor<List<SeatRequestDto>> requests = captor();
+        verify(boardService).createBoards(eq(BLIND), requests.capture(), eq(6));
+        assertThat(names(requests.getValue())).containsExactly("user1", "user2");
+        verify(seatAllocator, times(1)).reserve(BLIND, "user1");
+    }
+
+    @Test
+    @DisplayName("잔고가 부족해서 앉지 못한 유저만 NOT_ENOUGH_MONEY 로 실패하는지 테스트")
+    void notEnoughMoney() throws Exception {
+
+        //given
+        when(boardService.createBoards(eq(BLIND), anyList(), eq(6))).thenReturn(List.of(board(1L, List.of("user1", "user3"))));
+
+        //when
+        CompletableFuture<BoardDto> user1 = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> user2 = matchmakingService.join(BLIND, 100, principal("user2"));
+        CompletableFuture<BoardDto> user3 = matchmakingService.join(BLIND, 100, principal("user3"));
+
+        //then
+        assertThat(get(user1).getId()).isEqualTo(1L);
+        assertThat(get(user3).getId()).isEqualTo(1L);
+        assertThatThrownBy(() -> get(user2))
+                .hasCauseInstanceOf(CustomException.class)
+                .satisfies(e -> assertThat(((CustomException) e.getCause()).getErrorCode()).isEqualTo(ErrorCode.NOT_ENOUGH_MONEY));
+    }
+
+    @Test
+    @DisplayName("새 보드를 만들지 못하면 새 보드를 기다리던 유저만 실패하는지 테스트")
+    void createBoardsFailure() throws Exception {
+
+        //given
+        SeatAllocator.Reservation reservation = mock(SeatAllocator.Reservation.class);
+        when(seatAllocator.reserve(BLIND, "user1")).thenReturn(reservation);
+        when(gameHandleService.joinAsync(eq(reservation), eq(100), any())).thenReturn(CompletableFuture.completedFuture(board(7L, List.of("user1"))));
+        when(boardService.createBoards(eq(BLIND), anyList(), eq(6))).thenThrow(new IllegalStateException("db down"));
+
+        //when
+        CompletableFuture<BoardDto> user1 = matchmakingService.join(BLIND, 100, principal("user1"));
+        CompletableFuture<BoardDto> user2 = matchmakingService.join(BLIND, 100, principal("user2"));
+
+        //then
+        assertThat(get(user1).getId()).isEqualTo(7L);
+        assertThatThrownBy(() -> get(user2)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static BoardDto get(CompletableFuture<BoardDto> future) throws ExecutionException, InterruptedException {
+        try {
+            return future.get(5, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new AssertionError("matchmaking did not complete", e);
+        }
+    }
+
+    private static Principal principal(String userId) {
+        return () -> userId;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<SeatRequestDto>> captor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static List<String> names(List<SeatRequestDto> requests) {
+        List<String> names = new ArrayList<>();
+        for (SeatRequestDto request : requests) {
+            names.add(request.getUserId());
+        }
+        return names;
+    }
+
+    private static BoardDto board(Long id, List<String> userIds) {
+        BoardDto board = new BoardDto();
+        board.setId(id);
+        board.setBlind(BLIND);
+        List<PlayerDto> players = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            PlayerDto player = new PlayerDto();
+            player.setPosition(i);
+            player.setPlayerName(userIds.get(i));
+            players.add(player);
+        }
+        board.setPlayers(players);
+        board.setTotalPlayer(players.size());
+        return board;
+    }
+}
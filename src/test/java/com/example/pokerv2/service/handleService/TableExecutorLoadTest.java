@@ -0,0 +1,108 @@
+package com.example.pokerv2.service.handleService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 테이블 동시 처리량 부하 테스트. (./gradlew loadTest)
+ * <p>
+ * 각 테이블은 EVENT_PER_TABLE 개의 이벤트를 처리하고, 이벤트마다 JDBC 왕복을 흉내내서 BLOCKING_MILLIS 동안 블로킹한다.
+ * 플랫폼 스레드 풀은 동시에 POOL_SIZE 개의 테이블만 진행할 수 있지만, 가상 스레드는 블로킹 중에 캐리어 스레드를 놓아주므로
+ * 모든 테이블이 동시에 진행된다.
+ */
+@Slf4j
+@Tag("load")
+class TableExecutorLoadTest {
+
+    private static final int TABLE_SIZE = 500;
+    private static final int EVENT_PER_TABLE = 10;
+    private static final long BLOCKING_MILLIS = 10;
+    private static final int POOL_SIZE = 16;
+
+    @Test
+    @DisplayName("플랫폼 스레드 풀에서 테이블별 이벤트가 순서대로, 겹치지 않고 처리되는지 테스트")
+    void platformThreads() throws InterruptedException {
+
+        //when
+        long elapsed = run(false);
+
+        //then
+        log.info("platform threads : {} tables, {} ms, {} events/s", TABLE_SIZE, elapsed, eventsPerSecond(elapsed));
+        assertThat(elapsed).isGreaterThanOrEqualTo(TABLE_SIZE * EVENT_PER_TABLE * BLOCKING_MILLIS / POOL_SIZE);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("가상 스레드에서 블로킹이 테이블 동시 처리량을 제한하지 않는지 테스트")
+    void virtualThreads() throws InterruptedException {
+
+        //when
+        long platformElapsed = run(false);
+        long virtualElapsed = run(true);
+
+        //then
+        log.info("platform threads : {} ms, {} events/s", platformElapsed, eventsPerSecond(platformElapsed));
+        log.info("virtual threads  : {} ms, {} events/s", virtualElapsed, eventsPerSecond(virtualElapsed));
+        assertThat(virtualElapsed * 5).isLessThan(platformElapsed);
+    }
+
+    private static long run(boolean virtualThreads) throws InterruptedException {
+        TableExecutor tableExecutor = new TableExecutor();
+        ReflectionTestUtils.setField(tableExecutor, "poolSize", POOL_SIZE);
+        ReflectionTestUtils.setField(tableExecutor, "virtualThreads", virtualThreads);
+        tableExecutor.init();
+
+        CountDownLatch latch = new CountDownLatch(TABLE_SIZE * EVENT_PER_TABLE);
+        AtomicBoolean[] running = new AtomicBoolean[TABLE_SIZE];
+        AtomicInteger[] processed = new AtomicInteger[TABLE_SIZE];
+        AtomicInteger violations = new AtomicInteger();
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            running[i] = new AtomicBoolean();
+            processed[i] = new AtomicInteger();
+        }
+
+        long start = System.nanoTime();
+        for (int event = 0; event < EVENT_PER_TABLE; event++) {
+            for (int table = 0; table < TABLE_SIZE; table++) {
+                int tableIdx = table;
+                int eventSeq = event;
+                tableExecutor.execute((long) table, () -> {
+                    if (!running[tableIdx].compareAndSet(false, true) || processed[tableIdx].get() != eventSeq) {
+                        violations.incrementAndGet();
+                    }
+                    try {
+                        Thread.sleep(BLOCKING_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    processed[tableIdx].incrementAndGet();
+                    running[tableIdx].set(false);
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertThat(latch.await(2, TimeUnit.MINUTES)).isTrue();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        tableExecutor.destroy();
+
+        assertThat(violations.get()).isZero();
+        return elapsed;
+    }
+
+    private static long eventsPerSecond(long elapsedMillis) {
+        return TABLE_SIZE * EVENT_PER_TABLE * 1000L / Math.max(elapsedMillis, 1);
+    }
+}
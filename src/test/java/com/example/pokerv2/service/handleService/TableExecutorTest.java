@@ -0,0 +1,76 @@
+package com.example.pokerv2.service.handleService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TableExecutorTest {
+
+    private TableExecutor tableExecutor;
+
+    @BeforeEach
+    void init() {
+        tableExecutor = new TableExecutor();
+        ReflectionTestUtils.setField(tableExecutor, "poolSize", 8);
+        tableExecutor.init();
+    }
+
+    @AfterEach
+    void destroy() {
+        tableExecutor.destroy();
+    }
+
+    @Test
+    @DisplayName("메일박스를 지웠다가 다시 만들어도 같은 보드의 작업이 겹치지 않고 모두 실행되는지 테스트")
+    void removeIdleMailbox() throws InterruptedException {
+
+        //given
+        int boards = 50;
+        int tasks = 200;
+        AtomicBoolean[] running = new AtomicBoolean[boards];
+        for (int i = 0; i < boards; i++) {
+            running[i] = new AtomicBoolean();
+        }
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(boards * tasks);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+
+        //when
+        for (int p = 0; p < 4; p++) {
+            producers.submit(() -> {
+                for (int n = 0; n < boards * tasks / 4; n++) {
+                    int board = n % boards;
+                    tableExecutor.execute((long) board, () -> {
+                        if (!running[board].compareAndSet(false, true)) {
+                            violations.incrementAndGet();
+                        }
+                        Thread.onSpinWait();
+                        running[board].set(false);
+                        done.countDown();
+                    });
+                }
+            });
+        }
+        producers.shutdown();
+
+        //then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(violations.get()).isZero();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (tableExecutor.mailboxSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(tableExecutor.mailboxSize()).isZero();
+    }
+}
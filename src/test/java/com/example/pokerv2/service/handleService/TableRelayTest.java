@@ -0,0 +1,181 @@
+package com.example.pokerv2.service.handleService;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.LobbyBoardDto;
+import com.example.pokerv2.dto.TableCommandDto;
+import com.example.pokerv2.enums.TableCommandType;
+import com.example.pokerv2.error.CustomException;
+import com.example.pokerv2.error.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TableRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private InProcessTableTransport transport;
+    private TableRouter routerA;
+    private TableRelay relayA;
+    private TableRelay relayB;
+    private Long boardIdOfB;
+
+    @BeforeEach
+    void setUp() {
+        transport = new InProcessTableTransport(objectMapper);
+        routerA = new TableRouter("a", "a,b");
+        relayA = new TableRelay(routerA, transport, objectMapper, 300);
+        relayB = new TableRelay(new TableRouter("b", "a,b"), transport, objectMapper, 300);
+        relayA.start();
+        relayB.start();
+
+        long boardId = 1;
+        while (!routerA.ownerOf(boardId).equals("b")) {
+            boardId++;
+        }
+        boardIdOfB = boardId;
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.shutdown();
+    }
+
+    @Test
+    @DisplayName("모든 노드가 같은 owner 를 계산하고 보드가 고르게 나뉘는지 테스트")
+    void owner() {
+
+        //given
+        TableRouter routerB = new TableRouter("b", "b, a");
+        int localA = 0;
+
+        //when
+        for (long boardId = 1; boardId <= 1000; boardId++) {
+            assertThat(routerA.ownerOf(boardId)).isEqualTo(routerB.ownerOf(boardId));
+            assertThat(routerA.isLocal(boardId)).isNotEqualTo(routerB.isLocal(boardId));
+            if (routerA.isLocal(boardId)) {
+                localA++;
+            }
+        }
+
+        //then
+        assertThat(localA).isBetween(400, 600);
+        assertThat(new TableRouter("local", "").isLocal(1L)).isTrue();
+        assertThat(new TableRouter("local", "").isClustered()).isFalse();
+        assertThatThrownBy(() -> new TableRouter("c", "a,b")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("owner 노드에서 실행한 결과를 돌려받는지 테스트")
+    void call() {
+
+        //given
+        AtomicReference<TableCommandDto> received = new AtomicReference<>();
+        relayB.setHandler(command -> {
+            received.set(command);
+            BoardDto board = new BoardDto();
+            board.setId(command.getBoardId());
+            board.setBlind(1000);
+            return CompletableFuture.completedFuture(board);
+        });
+        TableCommandDto command = TableCommandDto.builder().type(TableCommandType.JOIN).boardId(boardIdOfB).userId("user").requestBb(100).build();
+
+        //when
+        BoardDto board = relayA.call(boardIdOfB, command, BoardDto.class);
+
+        //then
+        assertThat(board.getId()).isEqualTo(boardIdOfB);
+        assertThat(board.getBlind()).isEqualTo(1000);
+        assertThat(received.get().getUserId()).isEqualTo("user");
+        assertThat(received.get().getRequestBb()).isEqualTo(100);
+        assertThat(received.get().getReplyTo()).isEqualTo("a");
+    }
+
+    @Test
+    @DisplayName("owner 노드의 CustomException 을 같은 ErrorCode 로 다시 던지는지 테스트")
+    void error() {
+
+        //given
+        relayB.setHandler(command -> CompletableFuture.failedFuture(new CustomException(ErrorCode.MAX_PLAYER_SIZE)));
+        TableCommandDto command = TableCommandDto.builder().type(TableCommandType.JOIN).boardId(boardIdOfB).build();
+
+        //when, then
+        assertThatThrownBy(() -> relayA.call(boardIdOfB, command, BoardDto.class))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.MAX_PLAYER_SIZE);
+    }
+
+    @Test
+    @DisplayName("REPLY 가 오지 않으면 INTERNAL_SERVER_ERROR 를 던지는지 테스트")
+    void timeout() {
+
+        //given
+        relayB.setHandler(command -> new CompletableFuture<>());
+        TableCommandDto command = TableCommandDto.builder().type(TableCommandType.SNAPSHOT).boardId(boardIdOfB).build();
+
+        //when, then
+        assertThatThrownBy(() -> relayA.call(boardIdOfB, command, BoardDto.class))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("보내기만 하는 명령이 owner 노드에 도착하는지 테스트")
+    void send() throws InterruptedException {
+
+        //given
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<TableCommandDto> received = new AtomicReference<>();
+        relayB.setHandler(command -> {
+            received.set(command);
+            latch.countDown();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        //when
+        relayA.send(boardIdOfB, TableCommandDto.builder().type(TableCommandType.ACTION).boardId(boardIdOfB).userId("user").option("call").build());
+
+        //then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.get().getType()).isEqualTo(TableCommandType.ACTION);
+        assertThat(received.get().getOption()).isEqualTo("call");
+        assertThat(received.get().getCorrelationId()).isNull();
+    }
+
+    @Test
+    @DisplayName("로비 줄을 자기 노드를 뺀 모든 노드로 보내는지 테스트")
+    void broadcast() throws InterruptedException {
+
+        //given
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<TableCommandDto> received = new AtomicReference<>();
+        AtomicReference<TableCommandDto> self = new AtomicReference<>();
+        relayA.setHandler(command -> {
+            self.set(command);
+            return CompletableFuture.completedFuture(null);
+        });
+        relayB.setHandler(command -> {
+            received.set(command);
+            latch.countDown();
+            return CompletableFuture.completedFuture(null);
+        });
+        LobbyBoardDto lobbyBoard = new LobbyBoardDto(boardIdOfB + 1, 1000, 3, 2, 4500);
+
+        //when
+        relayA.broadcast(TableCommandDto.builder().type(TableCommandType.LOBBY).boardId(lobbyBoard.getBoardId()).lobbyBoard(lobbyBoard).build());
+
+        //then
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.get().getType()).isEqualTo(TableCommandType.LOBBY);
+        assertThat(received.get().getLobbyBoard()).isEqualTo(lobbyBoard);
+        assertThat(self.get()).isNull();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pokerv2.stomp;
+
+import com.example.pokerv2.config.WebSocketBrokerConfig;
+import com.example.pokerv2.service.PlayerService;
+import com.example.pokerv2.service.handleService.TableExecutor;
+import com.example.pokerv2.service.handleService.TableRelay;
+import com.example.pokerv2.service.handleService.TableRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StompHandlerTest {
+
+    private StompHandler stompHandler;
+
+    @BeforeEach
+    void init() {
+        stompHandler = new StompHandler(mock(WebSocketAuthenticatorService.class), mock(PlayerService.class),
+                mock(TableExecutor.class), mock(TableRouter.class), mock(TableRelay.class));
+    }
+
+    @Test
+    @DisplayName("다른 유저의 매치 결과 큐는 구독할 수 없는지 테스트")
+    void subscribeOtherUserMatchQueue() {
+
+        //given
+        Message<?> message = subscribe("/queue/match/user2");
+
+        //when //then
+        assertThatThrownBy(() -> stompHandler.preSend(message, mock(MessageChannel.class)))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    @DisplayName("relay 모드에서 노드끼리 쓰는 유저 메시지, 유저 세션 토픽은 구독할 수 없는지 테스트")
+    void subscribeRelayBroadcastTopics() {
+
+        //given
+        Message<?> unresolvedUser = subscribe(WebSocketBrokerConfig.USER_DESTINATION_BROADCAST);
+        Message<?> userRegistry = subscribe(WebSocketBrokerConfig.USER_REGISTRY_BROADCAST);
+
+        //when //then
+        assertThatThrownBy(() -> stompHandler.preSend(unresolvedUser, mock(MessageChannel.class)))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> stompHandler.preSend(userRegistry, mock(MessageChannel.class)))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    @DisplayName("자기 유저 목적지와 보드 토픽은 구독할 수 있는지 테스트")
+    void subscribeAllowed() {
+
+        //given
+        Message<?> matchQueue = subscribe("/user/queue/match");
+        Message<?> boardTopic = subscribe("/topic/board/1");
+
+        //when //then
+        assertThat(stompHandler.preSend(matchQueue, mock(MessageChannel.class))).isSameAs(matchQueue);
+        assertThat(stompHandler.preSend(boardTopic, mock(MessageChannel.class))).isSameAs(boardTopic);
+    }
+
+    private static Message<?> subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
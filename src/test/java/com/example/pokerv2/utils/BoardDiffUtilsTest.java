@@ -0,0 +1,103 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.BoardDeltaDto;
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoardDiffUtilsTest {
+
+    private BoardDto boardDto;
+
+    @BeforeEach
+    void init() {
+
+        Board board = Board.builder().blind(1000).phaseStatus(PhaseStatus.PRE_FLOP).id(1L).totalPlayer(3).
+                gameSeq(1L).players(new ArrayList<>()).totalCallSize(new ArrayList<>(Arrays.asList(0, 0, 0, 0, 0, 0))).build();
+
+        this.boardDto = new BoardDto(board);
+
+        List<PlayerDto> players = new ArrayList<>();
+        players.add(new PlayerDto(Player.builder().id(1L).user(User.builder().userId("1").id(1L).build()).board(board).position(Position.UTG).status(PlayerStatus.PLAY).money(100000).build()));
+        players.add(new PlayerDto(Player.builder().id(2L).user(User.builder().userId("2").id(2L).build()).board(board).position(Position.BTN).status(PlayerStatus.PLAY).money(100000).build()));
+        players.add(new PlayerDto(Player.builder().id(3L).user(User.builder().userId("3").id(3L).build()).board(board).position(Position.SB).status(PlayerStatus.PLAY).money(100000).build()));
+        boardDto.setPlayers(players);
+    }
+
+    @Test
+    @DisplayName("액션 한번의 변경분에 바뀐 필드만 담기는지 테스트")
+    void diffAction() throws Exception {
+
+        //given
+        BoardDto after = new BoardDto(boardDto);
+        after.setPot(3000);
+        after.setActionPos(Position.BTN.getPosNum());
+        after.setBettingSize(3000);
+        after.getPlayers().get(0).setMoney(97000);
+        after.getPlayers().get(0).setPhaseCallSize(3000);
+
+        //when
+        BoardDeltaDto delta = BoardDiffUtils.diff(boardDto, after, 7);
+        String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(delta);
+
+        //then
+        assertThat(delta.getSeq()).isEqualTo(7);
+        assertThat(delta.getPot()).isEqualTo(3000);
+        assertThat(delta.getBtn()).isNull();
+        assertThat(delta.getCommunityCard1()).isNull();
+        assertThat(delta.getTotalCallSize()).isNull();
+        assertThat(delta.getPlayers()).hasSize(1);
+        assertThat(delta.getPlayers().get(0).getMoney()).isEqualTo(97000);
+        assertThat(delta.getPlayers().get(0).getStatus()).isNull();
+        assertThat(json).doesNotContain("communityCard1", "totalCallSize", "playerName");
+        assertThat(BoardDiffUtils.apply(boardDto, delta)).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("플레이어가 나가고 들어온 변경분을 적용하면 같은 상태가 되는지 테스트")
+    void diffJoinAndExit() {
+
+        //given
+        BoardDto after = new BoardDto(boardDto);
+        after.getPlayers().remove(1);
+        PlayerDto joinPlayer = new PlayerDto(4L, 4L, "4", 1L, Position.BB.getPosNum(), 50000, 0, 0,
+                PlayerStatus.FOLD.getStatusNum(), 0, null, null);
+        after.getPlayers().add(joinPlayer);
+
+        //when
+        BoardDeltaDto delta = BoardDiffUtils.diff(boardDto, after, 2);
+
+        //then
+        assertThat(delta.getRemovedPlayers()).containsExactly(2L);
+        assertThat(delta.getPlayers()).hasSize(1);
+        assertThat(delta.getPlayers().get(0).getPlayerName()).isEqualTo("4");
+        assertThat(BoardDiffUtils.apply(boardDto, delta)).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("바뀐 것이 없으면 빈 변경분이 만들어지는지 테스트")
+    void diffNothing() {
+
+        //when
+        BoardDeltaDto delta = BoardDiffUtils.diff(boardDto, new BoardDto(boardDto), 3);
+
+        //then
+        assertThat(delta.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.BoardDto;
+import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.enums.PlayerStatus;
+import com.example.pokerv2.enums.Position;
+import com.example.pokerv2.model.Board;
+import com.example.pokerv2.model.Player;
+import com.example.pokerv2.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoardViewUtilsTest {
+
+    private BoardDto boardDto;
+
+    @BeforeEach
+    void init() {
+
+        Board board = Board.builder().blind(1000).phaseStatus(PhaseStatus.RIVER).id(1L).totalPlayer(3).
+                gameSeq(1L).players(new ArrayList<>()).build();
+
+        this.boardDto = new BoardDto(board);
+
+        List<PlayerDto> players = new ArrayList<>();
+        players.add(new PlayerDto(Player.builder().id(1L).user(User.builder().userId("a1").id(1L).build()).board(board).position(Position.UTG).status(PlayerStatus.PLAY).card1(10).card2(11).build()));
+        players.add(new PlayerDto(Player.builder().id(2L).user(User.builder().userId("a2").id(2L).build()).board(board).position(Position.BTN).status(PlayerStatus.FOLD).card1(20).card2(21).build()));
+        players.add(new PlayerDto(Player.builder().id(3L).user(User.builder().userId("a3").id(3L).build()).board(board).position(Position.SB).status(PlayerStatus.ALL_IN).card1(30).card2(31).build()));
+        boardDto.setPlayers(players);
+    }
+
+    @Test
+    @DisplayName("자기 홀카드만 보이고 다른 플레이어의 홀카드는 가려지는지 테스트")
+    void privateView() {
+
+        //when
+        BoardDto view = BoardViewUtils.privateView(BoardViewUtils.publicView(boardDto, false), boardDto, "a2");
+
+        //then
+        assertThat(view.getPlayers()).extracting(PlayerDto::getCard1).containsExactly(BoardViewUtils.HIDDEN_CARD, 20, BoardViewUtils.HIDDEN_CARD);
+        assertThat(view.getPlayers()).extracting(PlayerDto::getCard2).containsExactly(BoardViewUtils.HIDDEN_CARD, 21, BoardViewUtils.HIDDEN_CARD);
+        assertThat(boardDto.getPlayers().get(0).getCard1()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("쇼다운에서는 폴드하지 않은 플레이어의 홀카드만 공개되는지 테스트")
+    void showDownView() {
+
+        //when
+        BoardDto view = BoardViewUtils.publicView(boardDto, true);
+
+        //then
+        assertThat(view.getPlayers()).extracting(PlayerDto::getCard1).containsExactly(10, BoardViewUtils.HIDDEN_CARD, 30);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.pokerv2.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeckTest {
+
+    private static final int DEAL_SIZE = 6 * 2 + 5;
+    private static final int ROUNDS = 52000;
+    // 자유도 51, 유의수준 0.001 의 카이제곱 임계값
+    private static final double CHI_SQUARE_CRITICAL = 87.97;
+    // 시드가 없는 SecureRandom 은 결과가 매번 다르므로 유의수준 0.000001 로 검정한다.
+    private static final double CHI_SQUARE_CRITICAL_UNSEEDED = 114.5;
+
+    @Test
+    @DisplayName("한 게임에서 뽑은 카드가 중복되지 않는지 테스트")
+    void noDuplicatedCard() {
+
+        //given
+        Deck deck = Deck.seeded(1L);
+
+        for (int round = 0; round < 1000; round++) {
+            //when
+            deck.reset();
+            long dealtCards = CardSet.EMPTY;
+            for (int i = 0; i < Deck.SIZE; i++) {
+                int card = deck.deal();
+
+                //then
+                assertThat(card).isBetween(0, Deck.SIZE - 1);
+                assertThat(CardSet.contains(dealtCards, card)).isFalse();
+                dealtCards = CardSet.add(dealtCards, card);
+            }
+            assertThat(dealtCards).isEqualTo(CardSet.FULL_DECK);
+        }
+    }
+
+    @Test
+    @DisplayName("카드를 모두 뽑으면 reset 전까지 더 뽑을 수 없는지 테스트")
+    void emptyDeck() {
+
+        //given
+        Deck deck = Deck.seeded(1L);
+        for (int i = 0; i < Deck.SIZE; i++) {
+            deck.deal();
+        }
+
+        //then
+        assertThat(deck.remaining()).isZero();
+        assertThatThrownBy(deck::deal).isInstanceOf(IllegalStateException.class);
+
+        deck.reset();
+        assertThat(deck.remaining()).isEqualTo(Deck.SIZE);
+    }
+
+    @Test
+    @DisplayName("뽑는 순서마다 모든 카드가 균등하게 나오는지 카이제곱 검정")
+    void uniformBySlot() {
+
+        //given
+        Deck deck = Deck.seeded(20240221L);
+        int[][] counts = new int[DEAL_SIZE][Deck.SIZE];
+
+        //when
+        for (int round = 0; round < ROUNDS; round++) {
+            deck.reset();
+            for (int slot = 0; slot < DEAL_SIZE; slot++) {
+                counts[slot][deck.deal()]++;
+            }
+        }
+
+        //then
+        for (int slot = 0; slot < DEAL_SIZE; slot++) {
+            assertThat(chiSquare(counts[slot], ROUNDS)).as("slot %d", slot).isLessThan(CHI_SQUARE_CRITICAL);
+        }
+    }
+
+    @Test
+    @DisplayName("SecureRandom 덱의 첫 카드와 마지막 홀카드가 균등하게 나오는지 카이제곱 검정")
+    void uniformSecureDeck() {
+
+        //given
+        Deck deck = Deck.secure();
+        int[] firstCounts = new int[Deck.SIZE];
+        int[] lastCounts = new int[Deck.SIZE];
+
+        //when
+        for (int round = 0; round < ROUNDS; round++) {
+            deck.reset();
+            firstCounts[deck.deal()]++;
+            for (int slot = 1; slot < DEAL_SIZE - 1; slot++) {
+                deck.deal();
+            }
+            lastCounts[deck.deal()]++;
+        }
+
+        //then
+        assertThat(chiSquare(firstCounts, ROUNDS)).isLessThan(CHI_SQUARE_CRITICAL_UNSEEDED);
+        assertThat(chiSquare(lastCounts, ROUNDS)).isLessThan(CHI_SQUARE_CRITICAL_UNSEEDED);
+    }
+
+    private static double chiSquare(int[] counts, int total) {
+        double expected = (double) total / counts.length;
+        double sum = 0;
+        for (int count : counts) {
+            double diff = count - expected;
+            sum += diff * diff / expected;
+        }
+        return sum;
+    }
+}
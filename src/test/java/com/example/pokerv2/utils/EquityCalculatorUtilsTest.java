@@ -0,0 +1,142 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.EquityResultDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EquityCalculatorUtilsTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void init() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void destroy() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("커뮤니티 카드가 모두 공개되었을 때 이기는 플레이어의 에퀴티가 1인지 테스트")
+    void completeBoard() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("A", "d")},
+                {CardUtils.getCardValue("K", "s"), CardUtils.getCardValue("K", "d")}
+        };
+        int[] board = {CardUtils.getCardValue("2", "h"), CardUtils.getCardValue("7", "c"), CardUtils.getCardValue("9", "d"),
+                CardUtils.getCardValue("J", "h"), CardUtils.getCardValue("3", "c")};
+
+        //when
+        EquityResultDto result = EquityCalculatorUtils.calculate(pool, hands, board, 1000, 1000, 1L);
+
+        //then
+        assertThat(result.isExhaustive()).isTrue();
+        assertThat(result.getTrials()).isEqualTo(1);
+        assertThat(result.getEquities().get(0).getEquity()).isEqualTo(1.0);
+        assertThat(result.getEquities().get(1).getEquity()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("보드 스트레이트로 비기는 경우 에퀴티가 나눠지는지 테스트")
+    void splitPot() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("2", "s"), CardUtils.getCardValue("3", "d")},
+                {CardUtils.getCardValue("2", "h"), CardUtils.getCardValue("3", "c")}
+        };
+        int[] board = {CardUtils.getCardValue("10", "h"), CardUtils.getCardValue("J", "c"), CardUtils.getCardValue("Q", "d"),
+                CardUtils.getCardValue("K", "h"), CardUtils.getCardValue("A", "c")};
+
+        //when
+        EquityResultDto result = EquityCalculatorUtils.calculate(pool, hands, board, 1000, 1000, 1L);
+
+        //then
+        assertThat(result.getEquities().get(0).getTie()).isEqualTo(1.0);
+        assertThat(result.getEquities().get(0).getEquity()).isEqualTo(0.5);
+        assertThat(result.getEquities().get(1).getEquity()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("턴까지 공개되었을 때 남은 리버 카드를 모두 열거하는지 테스트")
+    void exhaustiveRiver() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("K", "s")},
+                {CardUtils.getCardValue("Q", "h"), CardUtils.getCardValue("Q", "c")}
+        };
+        int[] board = {CardUtils.getCardValue("2", "s"), CardUtils.getCardValue("7", "s"), CardUtils.getCardValue("9", "d"),
+                CardUtils.getCardValue("J", "h")};
+
+        //when
+        EquityResultDto result = EquityCalculatorUtils.calculate(pool, hands, board, 1000, 1000, 1L);
+
+        //then
+        assertThat(result.isExhaustive()).isTrue();
+        assertThat(result.getTrials()).isEqualTo(44);
+        // 스페이드 9장 + A, K 6장 = 15장의 아웃
+        assertThat(result.getEquities().get(0).getWin()).isCloseTo(15.0 / 44, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("열거할 런아웃이 많으면 몬테카를로로 계산하는지 테스트")
+    void monteCarloPreFlop() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("A", "d")},
+                {CardUtils.getCardValue("K", "h"), CardUtils.getCardValue("K", "c")}
+        };
+
+        //when
+        EquityResultDto result = EquityCalculatorUtils.calculate(pool, hands, new int[0], 200000, 1000, 20240210L);
+
+        //then
+        assertThat(result.isExhaustive()).isFalse();
+        assertThat(result.getTrials()).isEqualTo(200000);
+        assertThat(result.getEquities().get(0).getEquity()).isBetween(0.80, 0.84);
+        assertThat(result.getEquities().get(0).getEquity() + result.getEquities().get(1).getEquity()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("중복된 카드가 주어지면 예외가 발생하는지 테스트")
+    void duplicatedCard() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("A", "d")},
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("K", "c")}
+        };
+
+        //then
+        assertThatThrownBy(() -> EquityCalculatorUtils.calculate(pool, hands, new int[0], 1000, 1000, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("취소되면 남은 작업을 하지 않고 CancellationException 이 발생하는지 테스트")
+    void cancelled() {
+
+        //given
+        int[][] hands = {
+                {CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("A", "d")},
+                {CardUtils.getCardValue("K", "h"), CardUtils.getCardValue("K", "c")}
+        };
+
+        //then
+        assertThatThrownBy(() -> EquityCalculatorUtils.calculate(pool, hands, new int[0], 200000, 1000, 1L, () -> true))
+                .isInstanceOf(CancellationException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.GameResultDto;
+import com.example.pokerv2.enums.HandValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandEvaluatorUtilsTest {
+
+    @Test
+    @DisplayName("백스트레이트가 가장 낮은 스트레이트로 평가되는지 테스트")
+    void wheelIsLowestStraight() {
+
+        //given
+        long wheel = HandEvaluatorUtils.evaluate(
+                CardUtils.getCardValue("A", "s"), CardUtils.getCardValue("2", "d"), CardUtils.getCardValue("3", "h"),
+                CardUtils.getCardValue("4", "c"), CardUtils.getCardValue("5", "s"), CardUtils.getCardValue("9", "d"), CardUtils.getCardValue("J", "h"));
+        long sixHighStraight = HandEvaluatorUtils.evaluate(
+                CardUtils.getCardValue("6", "s"), CardUtils.getCardValue("2", "d"), CardUtils.getCardValue("3", "h"),
+                CardUtils.getCardValue("4", "c"), CardUtils.getCardValue("5", "s"), CardUtils.getCardValue("9", "d"), CardUtils.getCardValue("J", "h"));
+
+        //then
+        assertThat(HandCalculatorUtils.getHandContextByValue(wheel)).isEqualTo(HandValue.STRAIGHT.getDetail());
+        assertThat(sixHighStraight).isGreaterThan(wheel);
+    }
+
+    @Test
+    @DisplayName("트리플이 두개일 때 높은 트리플과 낮은 트리플로 풀하우스가 되는지 테스트")
+    void twoTripsMakeFullHouse() {
+
+        //given
+        List<Integer> cards = new ArrayList<>(List.of(
+                CardUtils.getCardValue("9", "s"), CardUtils.getCardValue("9", "d"), CardUtils.getCardValue("9", "h"),
+                CardUtils.getCardValue("K", "c"), CardUtils.getCardValue("K", "s"), CardUtils.getCardValue("K", "d"),
+                CardUtils.getCardValue("2", "h")));
+
+        //when
+        GameResultDto gameResult = HandCalculatorUtils.calculateValue(cards);
+
+        //then
+        assertThat(gameResult.getHandValue()).isEqualTo(HandCalculatorUtils.FULL_HOUSE_VALUE_PREFIX + 12 * 100 + 8);
+        assertThat(gameResult.getJokBo()).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("페어가 세개일 때 가장 높은 두 페어와 남은 카드 중 하이카드로 투페어가 되는지 테스트")
+    void threePairsMakeBestTwoPair() {
+
+        //given
+        long value = HandEvaluatorUtils.evaluate(
+                CardUtils.getCardValue("4", "s"), CardUtils.getCardValue("4", "d"), CardUtils.getCardValue("8", "h"),
+                CardUtils.getCardValue("8", "c"), CardUtils.getCardValue("Q", "s"), CardUtils.getCardValue("Q", "d"), CardUtils.getCardValue("2", "h"));
+
+        //then
+        assertThat(value).isEqualTo(HandCalculatorUtils.TWO_PAIR_VALUE_PREFIX + 11 * 10000L + 7 * 100L + 3);
+    }
+
+    @Test
+    @DisplayName("족보 5장으로 다시 계산한 밸류가 7장의 밸류와 같은지 테스트")
+    void jokBoHasSameValue() {
+
+        //given
+        Random random = new Random(20240205L);
+
+        for (int n = 0; n < 10000; n++) {
+            List<Integer> cards = new ArrayList<>();
+            while (cards.size() < 7) {
+                int card = random.nextInt(52);
+                if (!cards.contains(card)) {
+                    cards.add(card);
+                }
+            }
+
+            //when
+            GameResultDto gameResult = HandCalculatorUtils.calculateValue(cards);
+            long cardBits = 0L;
+            for (int card : gameResult.getJokBo()) {
+                cardBits |= 1L << card;
+            }
+
+            //then
+            assertThat(gameResult.getJokBo()).hasSize(5);
+            assertThat(HandEvaluatorUtils.evaluate(cardBits)).isEqualTo(gameResult.getHandValue());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.dto.ActionDto;
+import com.example.pokerv2.dto.HandHistoryDto;
+import com.example.pokerv2.dto.UserDto;
+import com.example.pokerv2.enums.PhaseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HandHistoryCodecTest {
+
+    private HandHistoryDto hand;
+
+    @BeforeEach
+    void init() {
+        hand = new HandHistoryDto();
+        hand.setBoardId(3L);
+        hand.setGameSeq(1234L);
+        hand.setBtnPosition(3);
+        hand.setPotAmountPf(6000);
+        hand.setPotAmountFlop(12000);
+        hand.setPotAmountTurn(30000);
+        hand.setPotAmountRiver(30000);
+        hand.setCommunityCard1(0);
+        hand.setCommunityCard2(12);
+        hand.setCommunityCard3(25);
+        hand.setCommunityCard4(38);
+        hand.setCommunityCard5(51);
+
+        List<UserDto> userList = new ArrayList<>();
+        for (long userId : new long[]{10L, 20L, 300000L}) {
+            UserDto user = new UserDto();
+            user.setId(userId);
+            userList.add(user);
+        }
+        hand.setUserList(userList);
+        hand.setPosList(new ArrayList<>(List.of(3, 4, 5)));
+        hand.setCardList(new ArrayList<>(List.of(1, 2, 13, 14, 40, 41)));
+        hand.setShowDownUserIdList(new ArrayList<>(List.of(10L, 300000L)));
+        hand.setWinnerUserIdList(new ArrayList<>(List.of(300000L)));
+
+        List<ActionDto> actionList = new ArrayList<>();
+        actionList.add(action(20L, 4, PhaseStatus.PRE_FLOP, "Ante 0.5bb"));
+        actionList.add(action(300000L, 5, PhaseStatus.PRE_FLOP, "Ante 1bb"));
+        actionList.add(action(10L, 3, PhaseStatus.PRE_FLOP, "raise 3bb"));
+        actionList.add(action(20L, 4, PhaseStatus.PRE_FLOP, "fold"));
+        actionList.add(action(300000L, 5, PhaseStatus.PRE_FLOP, "call 3bb"));
+        actionList.add(action(300000L, 5, PhaseStatus.FLOP, "check"));
+        actionList.add(action(10L, 3, PhaseStatus.FLOP, "raise 120bb"));
+        actionList.add(action(300000L, 5, PhaseStatus.FLOP, "call 120bb"));
+        hand.setActionList(actionList);
+    }
+
+    @Test
+    @DisplayName("압축한 핸드를 되돌리면 같은 핸드가 되는지 테스트")
+    void roundTrip() {
+
+        //when
+        byte[] data = HandHistoryCodec.encode(hand);
+        HandHistoryDto decoded = HandHistoryCodec.decode(data);
+
+        //then
+        assertThat(decoded.getBoardId()).isEqualTo(3L);
+        assertThat(decoded.getGameSeq()).isEqualTo(1234L);
+        assertThat(decoded.getBtnPosition()).isEqualTo(3);
+        assertThat(decoded.getPotAmountTurn()).isEqualTo(30000);
+        assertThat(decoded.getCommunityCard5()).isEqualTo(51);
+        assertThat(decoded.getUserList()).extracting(UserDto::getId).containsExactly(10L, 20L, 300000L);
+        assertThat(decoded.getPosList()).containsExactly(3, 4, 5);
+        assertThat(decoded.getCardList()).containsExactly(1, 2, 13, 14, 40, 41);
+        assertThat(decoded.getShowDownUserIdList()).containsExactly(10L, 300000L);
+        assertThat(decoded.getWinnerUserIdList()).containsExactly(300000L);
+        assertThat(decoded.getActionList()).hasSize(hand.getActionList().size());
+        for (int i = 0; i < hand.getActionList().size(); i++) {
+            ActionDto expected = hand.getActionList().get(i);
+            ActionDto actual = decoded.getActionList().get(i);
+            assertThat(actual.getActionNo()).isEqualTo(i);
+            assertThat(actual.getUserId()).isEqualTo(expected.getUserId());
+            assertThat(actual.getActPosition()).isEqualTo(expected.getActPosition());
+            assertThat(actual.getPhaseStatus()).isEqualTo(expected.getPhaseStatus());
+            assertThat(actual.getDetail()).isEqualTo(expected.getDetail());
+        }
+
+        // 3명, 8개 액션 핸드가 100 바이트 안에 들어간다.
+        assertThat(data.length).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("형식에 맞지 않는 액션과 좌석에 없는 유저의 액션이 그대로 되돌아오는지 테스트")
+    void rawAction() {
+
+        //given
+        hand.getActionList().add(action(10L, 3, PhaseStatus.TURN, "call 03bb"));
+        hand.getActionList().add(action(10L, 3, PhaseStatus.TURN, "raise bb"));
+        hand.getActionList().add(action(77L, 1, PhaseStatus.RIVER, ""));
+        hand.getActionList().add(action(20L, 4, PhaseStatus.RIVER, "Ante 0.7bb"));
+
+        //when
+        HandHistoryDto decoded = HandHistoryCodec.decode(HandHistoryCodec.encode(hand));
+
+        //then
+        List<ActionDto> actionList = decoded.getActionList();
+        int size = actionList.size();
+        assertThat(actionList.get(size - 4).getDetail()).isEqualTo("call 03bb");
+        assertThat(actionList.get(size - 3).getDetail()).isEqualTo("raise bb");
+        assertThat(actionList.get(size - 2).getUserId()).isEqualTo(77L);
+        assertThat(actionList.get(size - 2).getActPosition()).isEqualTo(1);
+        assertThat(actionList.get(size - 2).getDetail()).isEmpty();
+        assertThat(actionList.get(size - 1).getDetail()).isEqualTo("Ante 0.7bb");
+    }
+
+    @Test
+    @DisplayName("잘린 데이터는 예외가 발생하는지 테스트")
+    void truncated() {
+
+        //given
+        byte[] data = HandHistoryCodec.encode(hand);
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+
+        //when, then
+        assertThatThrownBy(() -> HandHistoryCodec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ActionDto action(Long userId, int position, PhaseStatus phaseStatus, String detail) {
+        ActionDto action = new ActionDto();
+        action.setUserId(userId);
+        action.setActPosition(position);
+        action.setPhaseStatus(phaseStatus.ordinal());
+        action.setDetail(detail);
+        return action;
+    }
+}
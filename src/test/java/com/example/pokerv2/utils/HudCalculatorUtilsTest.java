@@ -0,0 +1,125 @@
+package com.example.pokerv2.utils;
+
+import com.example.pokerv2.enums.HudCounter;
+import com.example.pokerv2.enums.PhaseStatus;
+import com.example.pokerv2.model.Action;
+import com.example.pokerv2.model.HandHistory;
+import com.example.pokerv2.model.User;
+import com.example.pokerv2.model.UserHandHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HudCalculatorUtilsTest {
+
+    private HandHistory handHistory;
+
+    @BeforeEach
+    void init() {
+        handHistory = HandHistory.builder().id(1L).boardId(1L).gameSeq(1L).finish(true).build();
+        for (long userId = 1; userId <= 4; userId++) {
+            User user = User.builder().id(userId).userId(String.valueOf(userId)).build();
+            handHistory.getUserList().add(UserHandHistory.builder().user(user).handHistory(handHistory).build());
+        }
+        // 3 : SB, 4 : BB
+        addAction(3L, PhaseStatus.PRE_FLOP, "Ante 0.5bb");
+        addAction(4L, PhaseStatus.PRE_FLOP, "Ante 1bb");
+    }
+
+    @Test
+    @DisplayName("프리플랍에서 끝난 핸드의 vpip, pfr, 3bet 계산 테스트")
+    void preFlopOnly() {
+
+        //given
+        addAction(1L, PhaseStatus.PRE_FLOP, "raise 3bb");
+        addAction(2L, PhaseStatus.PRE_FLOP, "call 3bb");
+        addAction(3L, PhaseStatus.PRE_FLOP, "raise 9bb");
+        addAction(4L, PhaseStatus.PRE_FLOP, "fold");
+        addAction(1L, PhaseStatus.PRE_FLOP, "fold");
+        addAction(2L, PhaseStatus.PRE_FLOP, "fold");
+
+        //when
+        Map<Long, int[]> deltas = HudCalculatorUtils.calculate(handHistory);
+
+        //then
+        assertThat(deltas).containsOnlyKeys(1L, 2L, 3L, 4L);
+        for (int[] delta : deltas.values()) {
+            assertThat(delta[HudCounter.TOTAL_HANDS.ordinal()]).isEqualTo(1);
+            assertThat(delta[HudCounter.WTF.ordinal()]).isZero();
+        }
+        assertThat(deltas.get(1L)[HudCounter.VPIP.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(1L)[HudCounter.PFR.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(2L)[HudCounter.VPIP.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(2L)[HudCounter.PFR.ordinal()]).isZero();
+        assertThat(deltas.get(3L)[HudCounter.THREE_BET.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(3L)[HudCounter.PF_AGGRESSIVE_CNT.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(1L)[HudCounter.PF_AGGRESSIVE_CNT.ordinal()]).isZero();
+        assertThat(deltas.get(4L)[HudCounter.VPIP.ordinal()]).isZero();
+    }
+
+    @Test
+    @DisplayName("쇼다운까지 간 핸드의 cBet, wtf, wtsd, wsd 계산 테스트")
+    void showDown() {
+
+        //given
+        addAction(1L, PhaseStatus.PRE_FLOP, "raise 3bb");
+        addAction(2L, PhaseStatus.PRE_FLOP, "fold");
+        addAction(3L, PhaseStatus.PRE_FLOP, "fold");
+        addAction(4L, PhaseStatus.PRE_FLOP, "call 3bb");
+        addAction(4L, PhaseStatus.FLOP, "check");
+        addAction(1L, PhaseStatus.FLOP, "raise 2bb");
+        addAction(4L, PhaseStatus.FLOP, "raise 6bb");
+        addAction(1L, PhaseStatus.FLOP, "call 6bb");
+        addAction(4L, PhaseStatus.TURN, "raise 5bb");
+        addAction(1L, PhaseStatus.TURN, "call 5bb");
+        handHistory.getShowDownUserIdList().addAll(List.of(1L, 4L));
+        handHistory.getWinnerUserIdList().add(4L);
+
+        //when
+        Map<Long, int[]> deltas = HudCalculatorUtils.calculate(handHistory);
+
+        //then
+        assertThat(deltas.get(1L)[HudCounter.C_BET.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(4L)[HudCounter.THREE_BET.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(4L)[HudCounter.C_BET.ordinal()]).isZero();
+        assertThat(deltas.get(4L)[HudCounter.VPIP.ordinal()]).isEqualTo(1);
+
+        assertThat(deltas.get(1L)[HudCounter.WTF.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(4L)[HudCounter.WTF.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(2L)[HudCounter.WTF.ordinal()]).isZero();
+        assertThat(deltas.get(1L)[HudCounter.WTSD.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(4L)[HudCounter.WTSD.ordinal()]).isEqualTo(1);
+        assertThat(deltas.get(1L)[HudCounter.WSD.ordinal()]).isZero();
+        assertThat(deltas.get(4L)[HudCounter.WSD.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 핸드는 다시 계산해도 결과가 같은지 테스트")
+    void sameResult() {
+
+        //given
+        addAction(1L, PhaseStatus.PRE_FLOP, "call 1bb");
+        addAction(2L, PhaseStatus.PRE_FLOP, "raise 4bb");
+
+        //when
+        Map<Long, int[]> first = HudCalculatorUtils.calculate(handHistory);
+        Map<Long, int[]> second = HudCalculatorUtils.calculate(handHistory);
+
+        //then
+        assertThat(second.keySet()).containsExactlyElementsOf(first.keySet());
+        for (Long userId : first.keySet()) {
+            assertThat(second.get(userId)).containsExactly(first.get(userId));
+        }
+    }
+
+    private void addAction(Long userId, PhaseStatus phaseStatus, String detail) {
+        List<Action> actionList = handHistory.getActionList();
+        actionList.add(Action.builder().actionNo(actionList.size()).userId(userId).phaseStatus(phaseStatus)
+                .detail(detail).handHistory(handHistory).build());
+    }
+}
@@ -3,6 +3,8 @@ package com.example.pokerv2.utils;
 import com.example.pokerv2.dto.BoardDto;
 import com.example.pokerv2.dto.GameResultDto;
 import com.example.pokerv2.dto.PlayerDto;
+import com.example.pokerv2.dto.PotLayerDto;
+import com.example.pokerv2.dto.PotResultDto;
 import com.example.pokerv2.enums.PhaseStatus;
 import com.example.pokerv2.enums.PlayerStatus;
 import com.example.pokerv2.enums.Position;
@@ -229,15 +231,94 @@ class PotDistributorUtilsTest {
         //then
         PlayerDto winPlayer = boardDto.getPlayers().get(0);
         assertThat(winPlayer.getGameResult().isWinner()).isTrue();
-        assertThat(winPlayer.getMoney()).isEqualTo(callSizeStandard * 3);
+        assertThat(winPlayer.getGameResult().getEarnedMoney()).isEqualTo(callSizeStandard * 2);
 
         PlayerDto winPlayer2 = boardDto.getPlayers().get(1);
         assertThat(winPlayer2.getGameResult().isWinner()).isTrue();
-        assertThat(winPlayer2.getMoney()).isEqualTo(callSizeStandard * 8);
+        assertThat(winPlayer2.getGameResult().getEarnedMoney()).isEqualTo(callSizeStandard * 7);
 
         PlayerDto winPlayer3 = boardDto.getPlayers().get(2);
         assertThat(winPlayer3.getGameResult().isWinner()).isTrue();
-        assertThat(winPlayer3.getMoney()).isEqualTo(callSizeStandard * 11);
+        assertThat(winPlayer3.getGameResult().getEarnedMoney()).isEqualTo(callSizeStandard * 15);
 
+        // 폴드한 플레이어만 남은 층은 4번째 플레이어 혼자 가져가고, 혼자 베팅한 금액은 돌려받는다.
+        assertThat(fourthStrongestPlayer.getGameResult().getEarnedMoney()).isEqualTo(callSizeStandard * 6);
+        assertThat(fourthStrongestPlayer.getGameResult().getRefundedMoney()).isEqualTo(callSizeStandard * 2);
+        assertThat(totalPaid(boardDto)).isEqualTo(callSizeStandard * 32);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("비긴 플레이어가 버튼 왼쪽 순서로 기록되고 콜 받지 못한 금액은 돌려받는지 테스트")
+    void splitAndRefund() {
+
+        //given
+        List<PlayerDto> players = boardDto.getPlayers();
+        boardDto.setBtn(Position.BTN.getPosNum());
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).getGameResult().setHandValue(i == 1 || i == 4 || i == 5 ? 7 : 1);
+            boardDto.getTotalCallSize().set(i, 1000);
+        }
+        boardDto.getTotalCallSize().set(0, 1002);
+
+        //when
+        PotResultDto potResult = PotDistributorUtils.calculate(boardDto);
+
+        //then
+        // 메인 팟 6000 을 CO, BB, SB 가 나눠 갖고, BTN 이 혼자 낸 2 는 돌려받는다.
+        assertThat(potResult.getPots()).hasSize(2);
+        PotLayerDto mainPot = potResult.getPots().get(0);
+        assertThat(mainPot.getAmount()).isEqualTo(6000);
+        assertThat(mainPot.getWinnerPositions()).containsExactly(Position.SB.getPosNum(), Position.BB.getPosNum(), Position.CO.getPosNum());
+        assertThat(potResult.getPots().get(1).isRefund()).isTrue();
+        assertThat(players.get(0).getGameResult().getRefundedMoney()).isEqualTo(2);
+
+        boardDto.getTotalCallSize().set(0, 1000);
+        boardDto.getTotalCallSize().set(2, 1001);
+        boardDto.getTotalCallSize().set(3, 1001);
+        potResult = PotDistributorUtils.calculate(boardDto);
+
+        // MP, UTG 가 1 씩 더 낸 층(2)은 둘 다 약한 핸드라 비기고, 메인 팟 6000 은 세명이 2000 씩 나눈다.
+        assertThat(potResult.getPots().get(1).getAmount()).isEqualTo(2);
+        assertThat(potResult.getPots().get(1).getWinnerPositions()).containsExactly(Position.UTG.getPosNum(), Position.MP.getPosNum());
+        assertThat(totalPaid(boardDto)).isEqualTo(6002);
+    }
+
+    @Test
+    @DisplayName("같은 금액을 낸 층에서 핸드가 같으면 버튼 왼쪽부터 나머지 칩을 받는지 테스트")
+    void oddChipSplit() {
+
+        //given
+        List<PlayerDto> players = boardDto.getPlayers();
+        boardDto.setBtn(Position.BTN.getPosNum());
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).getGameResult().setHandValue(i == 0 || i == 3 ? 7 : 1);
+            boardDto.getTotalCallSize().set(i, 0);
+        }
+        // BTN, UTG 가 501 씩 내고, SB 는 1 을 내고 폴드
+        boardDto.getTotalCallSize().set(0, 501);
+        boardDto.getTotalCallSize().set(3, 501);
+        boardDto.getTotalCallSize().set(5, 1);
+        players.get(5).setStatus(PlayerStatus.FOLD.getStatusNum());
+
+        //when
+        PotResultDto potResult = PotDistributorUtils.calculate(boardDto);
+
+        //then
+        // 첫 층 3 을 둘이 나누면 1 이 남는다. 버튼 왼쪽으로 SB, BB 다음 UTG 가 BTN 보다 먼저 받는다.
+        assertThat(potResult.getPots()).hasSize(2);
+        assertThat(potResult.getPots().get(0).getAmount()).isEqualTo(3);
+        assertThat(potResult.getPots().get(0).getWinnerPositions()).containsExactly(Position.UTG.getPosNum(), Position.BTN.getPosNum());
+        assertThat(potResult.getPots().get(1).getAmount()).isEqualTo(1000);
+        assertThat(players.get(3).getGameResult().getEarnedMoney()).isEqualTo(502);
+        assertThat(players.get(0).getGameResult().getEarnedMoney()).isEqualTo(501);
+        assertThat(players.get(5).getGameResult().isWinner()).isFalse();
+    }
+
+    private static int totalPaid(BoardDto boardDto) {
+        int total = 0;
+        for (PlayerDto player : boardDto.getPlayers()) {
+            total += player.getGameResult().getEarnedMoney() + player.getGameResult().getRefundedMoney();
+        }
+        return total;
+    }
+}